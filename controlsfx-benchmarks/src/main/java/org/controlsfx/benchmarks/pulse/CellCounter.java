@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.pulse;
+
+import org.controlsfx.tools.Metrics;
+
+/**
+ * Count the cells created by a virtualized control and how many times they
+ * are updated. The cells are either counting themselves in updateItem, or,
+ * when the control does not let us subclass its cells, the updates are read
+ * from the {@link Metrics} of the operation the cells report with
+ * {@link #countOperation(String)}.
+ */
+final class CellCounter {
+
+    private long created;
+    private long updates;
+    private String operation;
+
+    /**
+     * Called by a cell factory for each cell it creates.
+     */
+    void created() {
+        ++created;
+    }
+
+    /**
+     * Called by a counting cell in its updateItem.
+     */
+    void updated() {
+        ++updates;
+    }
+
+    /**
+     * Count the updates with the {@link Metrics} statistic of an operation
+     * measured by the cells themselves, like
+     * {@link Metrics#SPREADSHEET_CELL_UPDATE}. The metrics are enabled, so the
+     * layout times include their small overhead.
+     *
+     * @param name the name of the operation measured once per updateItem.
+     */
+    void countOperation(String name) {
+        operation = name;
+        Metrics.setEnabled(true);
+    }
+
+    long getCreated() {
+        return created;
+    }
+
+    long getUpdates() {
+        if (operation == null) {
+            return updates;
+        }
+        final Metrics.Statistic statistic = Metrics.getStatistics().get(operation);
+        return statistic == null ? 0 : statistic.getCount();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.pulse;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Control;
+import javafx.scene.control.cell.CheckBoxListCell;
+import org.controlsfx.control.CheckListView;
+
+/**
+ * Scroll, check, select and resize a CheckListView.
+ */
+final class CheckListViewScenario extends Scenario {
+
+    private final int itemCount;
+
+    CheckListViewScenario(int itemCount) {
+        super("CheckListView " + itemCount + " items"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.itemCount = itemCount;
+    }
+
+    @Override
+    Control createControl() {
+        final ObservableList<String> items = FXCollections.observableArrayList();
+        for (int i = 0; i < itemCount; ++i) {
+            items.add("Item " + i); //$NON-NLS-1$
+        }
+        final CheckListView<String> checkListView = new CheckListView<>(items);
+        // Same cell as the default one of the CheckListView, but counting.
+        checkListView.setCellFactory(listView -> {
+            counter.created();
+            return new CheckBoxListCell<String>(checkListView::getItemBooleanProperty) {
+                @Override
+                public void updateItem(String item, boolean empty) {
+                    super.updateItem(item, empty);
+                    counter.updated();
+                }
+            };
+        });
+        return checkListView;
+    }
+
+    @Override
+    void script(Control control) {
+        @SuppressWarnings("unchecked")
+        final CheckListView<String> checkListView = (CheckListView<String>) control;
+
+        scroll(control, 24, 20);
+        scroll(control, 2400, 10);
+        step("check 10 items", () -> { //$NON-NLS-1$
+            for (int i = 0; i < 10; ++i) {
+                checkListView.getCheckModel().check(i);
+            }
+        });
+        step("check all", () -> checkListView.getCheckModel().checkAll()); //$NON-NLS-1$
+        step("clear checks", () -> checkListView.getCheckModel().clearChecks()); //$NON-NLS-1$
+        step("select item", () -> checkListView.getSelectionModel().select(itemCount / 2)); //$NON-NLS-1$
+        step("scroll to selection", () -> checkListView.scrollTo(itemCount / 2)); //$NON-NLS-1$
+        scroll(control, -24, 20);
+        resize(control, 640, 480);
+        resize(control, 1600, 1200);
+        resize(control, PulseRecorder.WIDTH, PulseRecorder.HEIGHT);
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.pulse;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Control;
+import org.controlsfx.control.GridCell;
+import org.controlsfx.control.GridView;
+
+/**
+ * Scroll, resize and modify a GridView of text cells.
+ */
+final class GridViewScenario extends Scenario {
+
+    private final int itemCount;
+
+    GridViewScenario(int itemCount) {
+        super("GridView " + itemCount + " items"); //$NON-NLS-1$ //$NON-NLS-2$
+        this.itemCount = itemCount;
+    }
+
+    @Override
+    Control createControl() {
+        final ObservableList<Integer> items = FXCollections.observableArrayList();
+        for (int i = 0; i < itemCount; ++i) {
+            items.add(i);
+        }
+        final GridView<Integer> gridView = new GridView<>(items);
+        gridView.setCellFactory(view -> {
+            counter.created();
+            return new GridCell<Integer>() {
+                @Override
+                protected void updateItem(Integer item, boolean empty) {
+                    super.updateItem(item, empty);
+                    counter.updated();
+                    setText(empty || item == null ? null : item.toString());
+                }
+            };
+        });
+        return gridView;
+    }
+
+    @Override
+    void script(Control control) {
+        @SuppressWarnings("unchecked")
+        final GridView<Integer> gridView = (GridView<Integer>) control;
+
+        scroll(control, 40, 20);
+        scroll(control, 4000, 10);
+        // Changing the size of the cells changes the number of cells per row.
+        step("cell width 60", () -> gridView.setCellWidth(60)); //$NON-NLS-1$
+        step("cell width 120", () -> gridView.setCellWidth(120)); //$NON-NLS-1$
+        step("add item at 0", () -> gridView.getItems().add(0, -1)); //$NON-NLS-1$
+        step("remove item at 0", () -> gridView.getItems().remove(0)); //$NON-NLS-1$
+        scroll(control, -40, 20);
+        resize(control, 640, 480);
+        resize(control, 1600, 1200);
+        resize(control, PulseRecorder.WIDTH, PulseRecorder.HEIGHT);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.pulse;
+
+import com.sun.javafx.application.PlatformImpl;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import javafx.application.Platform;
+
+/**
+ * Play scripted scrolls, selections and resizes on the virtualized controls
+ * and write, for each pulse, the time spent in layout, the number of cell
+ * updates and the number of nodes created.
+ *
+ * This is meant to run without display, with the Monocle headless glass
+ * platform and the software pipeline, see the pulseBenchmark task of this
+ * project. The only argument is the path of the JSON file to write.
+ *
+ * <pre>
+ * [{"scenario": "GridView 10000 items",
+ *   "pulses": [{"step": "show", "layoutNanos": 1234, "passes": 2,
+ *               "cellUpdates": 120, "cellsCreated": 120, "nodesCreated": 500}, ...]}, ...]
+ * </pre>
+ */
+public final class PulseBenchmark {
+
+    private PulseBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Path output = Paths.get(args.length > 0 ? args[0] : "pulse-results.json"); //$NON-NLS-1$
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        PlatformImpl.startup(latch::countDown);
+        latch.await();
+        Platform.setImplicitExit(false);
+
+        final List<Scenario> scenarios = Arrays.asList(
+                new SpreadsheetViewScenario(10000, 0),
+                new SpreadsheetViewScenario(10000, 0.05),
+                new GridViewScenario(10000),
+                new CheckListViewScenario(10000));
+
+        final StringBuilder json = new StringBuilder("[\n"); //$NON-NLS-1$
+        for (int i = 0; i < scenarios.size(); ++i) {
+            final Scenario scenario = scenarios.get(i);
+            final List<PulseSample> samples = new PulseRecorder().record(scenario);
+            long total = 0;
+            json.append("  {\"scenario\": \"").append(scenario.getName()).append("\",\n   \"pulses\": [\n"); //$NON-NLS-1$ //$NON-NLS-2$
+            for (int j = 0; j < samples.size(); ++j) {
+                final PulseSample sample = samples.get(j);
+                total += sample.layoutNanos;
+                json.append("    "); //$NON-NLS-1$
+                sample.toJson(json);
+                json.append(j < samples.size() - 1 ? ",\n" : "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            json.append("   ],\n   \"totalLayoutNanos\": ").append(total).append('}') //$NON-NLS-1$
+                    .append(i < scenarios.size() - 1 ? ",\n" : "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+            System.out.println(scenario.getName() + ": " + samples.size() + " pulses, " //$NON-NLS-1$ //$NON-NLS-2$
+                    + total / 1000000 + " ms of layout"); //$NON-NLS-1$
+        }
+        json.append("]\n"); //$NON-NLS-1$
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write(json.toString());
+        } catch (IOException ex) {
+            throw new IOException("Cannot write the results in " + output, ex); //$NON-NLS-1$
+        }
+        Platform.exit();
+    }
+}
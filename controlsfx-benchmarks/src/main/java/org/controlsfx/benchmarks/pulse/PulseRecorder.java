@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.pulse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Control;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+
+/**
+ * Play a {@link Scenario} in a Stage and record a {@link PulseSample} for
+ * each step.
+ *
+ * Each step runs in its own runnable on the JavaFX Application Thread, so the
+ * runnables posted by the previous step have been executed. The CSS and
+ * layout passes of the pulse are then forced right after the action, the way
+ * the Scene does it, until nothing asks for a layout anymore. The pulses
+ * triggered later by the toolkit find a clean scene and do not interfere.
+ */
+final class PulseRecorder {
+
+    static final double WIDTH = 1024;
+    static final double HEIGHT = 768;
+    /**
+     * Some skins ask for a new layout while being laid out, we stop after
+     * that many passes.
+     */
+    private static final int MAX_PASSES = 5;
+
+    private final Set<Node> seenNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Stage stage;
+    private Pane root;
+
+    List<PulseSample> record(Scenario scenario) {
+        final Control control = callAndWait(() -> {
+            final Control created = scenario.createControl();
+            created.setPrefSize(WIDTH, HEIGHT);
+            root = new Pane(created);
+            stage = new Stage();
+            stage.setScene(new Scene(root, WIDTH, HEIGHT));
+            stage.show();
+            return created;
+        });
+
+        final List<PulseSample> samples = new ArrayList<>();
+        samples.add(callAndWait(() -> measure("show", () -> { //$NON-NLS-1$
+        }, scenario.counter)));
+        callAndWait(() -> {
+            scenario.script(control);
+            return null;
+        });
+        for (Scenario.Step step : scenario.getSteps()) {
+            samples.add(callAndWait(() -> measure(step.name, step.action, scenario.counter)));
+        }
+
+        callAndWait(() -> {
+            stage.hide();
+            return null;
+        });
+        seenNodes.clear();
+        return samples;
+    }
+
+    private PulseSample measure(String name, Runnable action, CellCounter counter) {
+        final long updatesBefore = counter.getUpdates();
+        final long createdBefore = counter.getCreated();
+        action.run();
+
+        final long start = System.nanoTime();
+        int passes = 0;
+        do {
+            root.applyCss();
+            root.layout();
+            ++passes;
+        } while (root.isNeedsLayout() && passes < MAX_PASSES);
+        final long layoutNanos = System.nanoTime() - start;
+
+        return new PulseSample(name, layoutNanos, passes, counter.getUpdates() - updatesBefore,
+                counter.getCreated() - createdBefore, countNewNodes(root));
+    }
+
+    private long countNewNodes(Node node) {
+        long count = seenNodes.add(node) ? 1 : 0;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                count += countNewNodes(child);
+            }
+        }
+        return count;
+    }
+
+    static <T> T callAndWait(Callable<T> callable) {
+        final FutureTask<T> task = new FutureTask<>(callable);
+        Platform.runLater(task);
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
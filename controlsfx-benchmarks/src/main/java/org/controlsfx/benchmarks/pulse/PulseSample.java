@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.pulse;
+
+/**
+ * What happened during the pulse following one step of a scenario.
+ */
+final class PulseSample {
+
+    final String step;
+    /**
+     * Time spent in the CSS and layout passes.
+     */
+    final long layoutNanos;
+    /**
+     * Number of passes needed before the scene stopped asking for a layout.
+     */
+    final int passes;
+    final long cellUpdates;
+    final long cellsCreated;
+    /**
+     * Nodes added to the scene graph that were never seen before.
+     */
+    final long nodesCreated;
+
+    PulseSample(String step, long layoutNanos, int passes, long cellUpdates, long cellsCreated, long nodesCreated) {
+        this.step = step;
+        this.layoutNanos = layoutNanos;
+        this.passes = passes;
+        this.cellUpdates = cellUpdates;
+        this.cellsCreated = cellsCreated;
+        this.nodesCreated = nodesCreated;
+    }
+
+    void toJson(StringBuilder json) {
+        json.append("{\"step\": \"").append(step) //$NON-NLS-1$
+                .append("\", \"layoutNanos\": ").append(layoutNanos) //$NON-NLS-1$
+                .append(", \"passes\": ").append(passes) //$NON-NLS-1$
+                .append(", \"cellUpdates\": ").append(cellUpdates) //$NON-NLS-1$
+                .append(", \"cellsCreated\": ").append(cellsCreated) //$NON-NLS-1$
+                .append(", \"nodesCreated\": ").append(nodesCreated) //$NON-NLS-1$
+                .append('}');
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.pulse;
+
+import com.sun.javafx.scene.control.skin.VirtualFlow;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Control;
+
+/**
+ * A scripted interaction with one control. Each step is applied on the
+ * JavaFX Application Thread and followed by a pulse, which is measured by the
+ * {@link PulseRecorder}.
+ */
+abstract class Scenario {
+
+    /**
+     * One action of the script.
+     */
+    static final class Step {
+
+        final String name;
+        final Runnable action;
+
+        Step(String name, Runnable action) {
+            this.name = name;
+            this.action = action;
+        }
+    }
+
+    private final String name;
+    final CellCounter counter = new CellCounter();
+    private final List<Step> steps = new ArrayList<>();
+
+    Scenario(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Create the control, with a cell factory reporting to the
+     * {@link #counter}. Called on the JavaFX Application Thread.
+     *
+     * @return the control to show.
+     */
+    abstract Control createControl();
+
+    /**
+     * Add the steps of the script, once the control has been shown. Called on
+     * the JavaFX Application Thread.
+     *
+     * @param control the control returned by {@link #createControl()}.
+     */
+    abstract void script(Control control);
+
+    void step(String stepName, Runnable action) {
+        steps.add(new Step(stepName, action));
+    }
+
+    /**
+     * Add a step resizing the control.
+     */
+    void resize(Control control, double width, double height) {
+        step("resize " + (int) width + "x" + (int) height, () -> control.setPrefSize(width, height)); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Add count steps scrolling the main VirtualFlow of the control by pixels.
+     */
+    void scroll(Control control, double pixels, int count) {
+        for (int i = 0; i < count; ++i) {
+            step("scroll " + (int) pixels + "px", () -> { //$NON-NLS-1$ //$NON-NLS-2$
+                final VirtualFlow<?> flow = findFlow(control);
+                if (flow == null) {
+                    throw new IllegalStateException("No VirtualFlow in the skin of " + control); //$NON-NLS-1$
+                }
+                flow.adjustPixels(pixels);
+            });
+        }
+    }
+
+    /**
+     * Return the first VirtualFlow in the skin of the control.
+     */
+    static VirtualFlow<?> findFlow(Parent parent) {
+        for (Node child : parent.getChildrenUnmodifiable()) {
+            if (child instanceof VirtualFlow) {
+                return (VirtualFlow<?>) child;
+            }
+            if (child instanceof Parent) {
+                final VirtualFlow<?> flow = findFlow((Parent) child);
+                if (flow != null) {
+                    return flow;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.pulse;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.Control;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.Callback;
+import org.controlsfx.benchmarks.spreadsheet.Grids;
+import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.controlsfx.tools.Metrics;
+
+/**
+ * Scroll, select and resize a SpreadsheetView with spans. The cells are
+ * created by the SpreadsheetView, so their updateItem calls are counted with
+ * the {@link Metrics#SPREADSHEET_CELL_UPDATE} statistic the CellView reports.
+ */
+final class SpreadsheetViewScenario extends Scenario {
+
+    private final int rowCount;
+    private final double spanDensity;
+
+    SpreadsheetViewScenario(int rowCount, double spanDensity) {
+        super("SpreadsheetView " + rowCount + " rows, span density " + spanDensity); //$NON-NLS-1$ //$NON-NLS-2$
+        this.rowCount = rowCount;
+        this.spanDensity = spanDensity;
+    }
+
+    @Override
+    Control createControl() {
+        counter.countOperation(Metrics.SPREADSHEET_CELL_UPDATE);
+        final SpreadsheetView spreadsheetView = new SpreadsheetView(Grids.build(rowCount, Grids.COLUMN_COUNT, spanDensity));
+        for (TableColumn<ObservableList<SpreadsheetCell>, ?> column : getTableView(spreadsheetView).getColumns()) {
+            countCells(column);
+        }
+        return spreadsheetView;
+    }
+
+    @Override
+    void script(Control control) {
+        final SpreadsheetView spreadsheetView = (SpreadsheetView) control;
+        final TableView<ObservableList<SpreadsheetCell>> tableView = getTableView(spreadsheetView);
+        final ObservableList<TableColumn<ObservableList<SpreadsheetCell>, ?>> columns = tableView.getColumns();
+
+        scroll(control, 24, 20);
+        scroll(control, 2400, 10);
+        step("select cell", () -> spreadsheetView.getSelectionModel().clearAndSelect(rowCount / 2, columns.get(2))); //$NON-NLS-1$
+        step("select range", () -> { //$NON-NLS-1$
+            spreadsheetView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+            spreadsheetView.getSelectionModel().selectRange(rowCount / 2, columns.get(0), rowCount / 2 + 30,
+                    columns.get(columns.size() - 1));
+        });
+        step("select all", () -> spreadsheetView.getSelectionModel().selectAll()); //$NON-NLS-1$
+        step("clear selection", () -> spreadsheetView.getSelectionModel().clearSelection()); //$NON-NLS-1$
+        step("fix rows", () -> spreadsheetView.getFixedRows().addAll(0, 1)); //$NON-NLS-1$
+        scroll(control, -24, 20);
+        resize(control, 640, 480);
+        resize(control, 1600, 1200);
+        resize(control, PulseRecorder.WIDTH, PulseRecorder.HEIGHT);
+    }
+
+    private static TableView<ObservableList<SpreadsheetCell>> getTableView(SpreadsheetView spreadsheetView) {
+        return spreadsheetView.getSelectionModel().getTableView();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void countCells(TableColumn<ObservableList<SpreadsheetCell>, ?> column) {
+        final TableColumn<ObservableList<SpreadsheetCell>, SpreadsheetCell> cellColumn
+                = (TableColumn<ObservableList<SpreadsheetCell>, SpreadsheetCell>) column;
+        final Callback<TableColumn<ObservableList<SpreadsheetCell>, SpreadsheetCell>, TableCell<ObservableList<SpreadsheetCell>, SpreadsheetCell>> factory
+                = cellColumn.getCellFactory();
+        cellColumn.setCellFactory(param -> {
+            final TableCell<ObservableList<SpreadsheetCell>, SpreadsheetCell> cell = factory.call(param);
+            counter.created();
+            return cell;
+        });
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.spreadsheet;
+
+import java.util.concurrent.TimeUnit;
+import javafx.collections.ObservableList;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TableView.TableViewSelectionModel;
+import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the copy of the half of a grid into the system clipboard, and its
+ * paste at the middle of the grid. The clipboard can only be used on the
+ * JavaFX Application Thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClipboardBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rowCount;
+
+    @Param({"0", "0.05", "0.3"})
+    public double spanDensity;
+
+    private SpreadsheetView spreadsheetView;
+    private TableViewSelectionModel<ObservableList<SpreadsheetCell>> selectionModel;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        FXPlatform.start();
+        spreadsheetView = FXPlatform.callAndWait(
+                () -> new SpreadsheetView(Grids.build(rowCount, Grids.COLUMN_COUNT, spanDensity)));
+        selectionModel = spreadsheetView.getSelectionModel();
+        selectionModel.setSelectionMode(SelectionMode.MULTIPLE);
+        // The clipboard must contain something for the paste benchmark.
+        copy();
+    }
+
+    /**
+     * Copy the first half of the rows.
+     */
+    @Benchmark
+    public int copy() {
+        return FXPlatform.callAndWait(() -> {
+            final ObservableList<TableColumn<ObservableList<SpreadsheetCell>, ?>> columns
+                    = selectionModel.getTableView().getColumns();
+            selectionModel.clearSelection();
+            selectionModel.selectRange(0, columns.get(0), rowCount / 2 - 1, columns.get(columns.size() - 1));
+            spreadsheetView.copyClipboard();
+            return selectionModel.getSelectedCells().size();
+        });
+    }
+
+    /**
+     * Paste the copied rows at the middle of the grid.
+     */
+    @Benchmark
+    public int paste() {
+        return FXPlatform.callAndWait(() -> {
+            final TableView<ObservableList<SpreadsheetCell>> tableView = selectionModel.getTableView();
+            selectionModel.clearAndSelect(rowCount / 2, tableView.getColumns().get(0));
+            tableView.getFocusModel().focus(rowCount / 2, tableView.getColumns().get(0));
+            spreadsheetView.pasteClipboard();
+            return rowCount;
+        });
+    }
+}
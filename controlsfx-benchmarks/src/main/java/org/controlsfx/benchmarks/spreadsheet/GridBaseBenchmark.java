@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.spreadsheet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.controlsfx.control.spreadsheet.GridBase;
+import org.controlsfx.control.spreadsheet.GridChange;
+import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.controlsfx.control.spreadsheet.SpreadsheetView.SpanType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cell level operations of {@link GridBase}: modifying a value,
+ * which fires a {@link GridChange}, and computing the {@link SpanType} of a
+ * cell, called for every cell displayed at each layout.
+ * <p>
+ * The grid modified is not shown in a {@link SpreadsheetView}, whose handlers
+ * would otherwise run on the benchmark thread and be measured too. Only the
+ * SpanType needs a view, which is created in a separate {@link ViewState}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBaseBenchmark {
+
+    /**
+     * The positions are picked in a table of that size, so that the random
+     * generator is not measured.
+     */
+    private static final int POSITIONS = 1 << 12;
+    private static final String[] VALUES = {"foo", "bar"}; //$NON-NLS-1$ //$NON-NLS-2$
+
+    @Param({"100", "10000", "100000"})
+    public int rowCount;
+
+    @Param({"0", "0.05", "0.3"})
+    public double spanDensity;
+
+    private GridBase grid;
+    private final int[] rows = new int[POSITIONS];
+    private final int[] columns = new int[POSITIONS];
+    private int next;
+    private long changeCount;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        FXPlatform.start();
+        grid = Grids.build(rowCount, Grids.COLUMN_COUNT, spanDensity);
+        grid.addEventHandler(GridChange.GRID_CHANGE_EVENT, change -> ++changeCount);
+
+        final Random random = new Random(rowCount);
+        for (int i = 0; i < POSITIONS; ++i) {
+            rows[i] = random.nextInt(rowCount);
+            columns[i] = random.nextInt(Grids.COLUMN_COUNT);
+        }
+    }
+
+    /**
+     * Each pass over the positions writes the other value, so that almost
+     * every call modifies the cell and dispatches an event.
+     */
+    @Benchmark
+    public long setCellValue() {
+        final int i = next++;
+        final int position = i & (POSITIONS - 1);
+        grid.setCellValue(rows[position], columns[position], VALUES[(i / POSITIONS) & 1]);
+        return changeCount;
+    }
+
+    @Benchmark
+    public SpanType getSpanType(ViewState view) {
+        final int position = next++ & (POSITIONS - 1);
+        return grid.getSpanType(view.spreadsheetView, rows[position], columns[position]);
+    }
+
+    /**
+     * The SpreadsheetView displaying the grid, only used by
+     * {@link GridBaseBenchmark#getSpanType(ViewState)} which does not modify
+     * the grid.
+     */
+    @State(Scope.Thread)
+    public static class ViewState {
+        private SpreadsheetView spreadsheetView;
+
+        @Setup
+        public void setUp(GridBaseBenchmark benchmark) {
+            spreadsheetView = FXPlatform.callAndWait(() -> new SpreadsheetView(benchmark.grid));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.spreadsheet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.controlsfx.control.spreadsheet.GridBase;
+import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+import org.controlsfx.control.spreadsheet.SpreadsheetCellType;
+
+/**
+ * Build the grids used by the benchmarks.
+ */
+public final class Grids {
+
+    /**
+     * The number of columns of every grid, the size of a grid is given by its
+     * number of rows.
+     */
+    public static final int COLUMN_COUNT = 20;
+    /**
+     * The maximum row span and column span of a spanning cell.
+     */
+    private static final int MAX_SPAN = 4;
+    /**
+     * The grids are random but always the same from one run to another.
+     */
+    private static final long SEED = 42;
+
+    private Grids() {
+    }
+
+    /**
+     * Build a grid of String cells where each cell not already covered by a
+     * span has a probability of spanDensity to span over its neighbours.
+     *
+     * @param rowCount
+     * @param columnCount
+     * @param spanDensity between 0 (no span) and 1.
+     * @return a well-formed grid.
+     */
+    public static GridBase build(int rowCount, int columnCount, double spanDensity) {
+        final Random random = new Random(SEED);
+        final SpreadsheetCell[][] cells = new SpreadsheetCell[rowCount][columnCount];
+        for (int row = 0; row < rowCount; ++row) {
+            for (int column = 0; column < columnCount; ++column) {
+                if (cells[row][column] != null) {
+                    continue;
+                }
+                int rowSpan = 1;
+                int columnSpan = 1;
+                if (random.nextDouble() < spanDensity) {
+                    rowSpan = 1 + random.nextInt(MAX_SPAN);
+                    columnSpan = 1 + random.nextInt(MAX_SPAN);
+                }
+                columnSpan = freeColumnSpan(cells, row, column, columnSpan);
+                rowSpan = freeRowSpan(cells, row, column, rowSpan, columnSpan);
+
+                final SpreadsheetCell cell = SpreadsheetCellType.STRING.createCell(row, column, rowSpan, columnSpan,
+                        row + "," + column); //$NON-NLS-1$
+                for (int r = row; r < row + rowSpan; ++r) {
+                    for (int c = column; c < column + columnSpan; ++c) {
+                        cells[r][c] = cell;
+                    }
+                }
+            }
+        }
+
+        final List<ObservableList<SpreadsheetCell>> rows = new ArrayList<>(rowCount);
+        for (SpreadsheetCell[] row : cells) {
+            rows.add(FXCollections.observableArrayList(row));
+        }
+        final GridBase grid = new GridBase(rowCount, columnCount);
+        grid.setRows(rows);
+        return grid;
+    }
+
+    /**
+     * Shrink the column span so that it only covers free cells of the row.
+     */
+    private static int freeColumnSpan(SpreadsheetCell[][] cells, int row, int column, int columnSpan) {
+        int span = 1;
+        while (span < columnSpan && column + span < cells[row].length && cells[row][column + span] == null) {
+            ++span;
+        }
+        return span;
+    }
+
+    /**
+     * Shrink the row span so that every covered row is free on the whole
+     * column span.
+     */
+    private static int freeRowSpan(SpreadsheetCell[][] cells, int row, int column, int rowSpan, int columnSpan) {
+        int span = 1;
+        rows:
+        while (span < rowSpan && row + span < cells.length) {
+            for (int c = column; c < column + columnSpan; ++c) {
+                if (cells[row + span][c] != null) {
+                    break rows;
+                }
+            }
+            ++span;
+        }
+        return span;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.spreadsheet;
+
+import impl.org.controlsfx.spreadsheet.SelectedCellsMapTemp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableView;
+import org.controlsfx.control.spreadsheet.GridBase;
+import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the filling of the {@link SelectedCellsMapTemp} backing the
+ * selection of the SpreadsheetView, one cell at a time and in bulk. The cells
+ * added are the ones a full selection of the grid contains: only the origin of
+ * each span.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectedCellsMapBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rowCount;
+
+    @Param({"0", "0.05", "0.3"})
+    public double spanDensity;
+
+    private final List<TablePosition<ObservableList<SpreadsheetCell>, ?>> positions = new ArrayList<>();
+    private long changeCount;
+    private final ListChangeListener<TablePosition<ObservableList<SpreadsheetCell>, ?>> listener = change -> {
+        while (change.next()) {
+            ++changeCount;
+        }
+    };
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        FXPlatform.start();
+        final GridBase grid = Grids.build(rowCount, Grids.COLUMN_COUNT, spanDensity);
+        final TableView<ObservableList<SpreadsheetCell>> tableView = FXPlatform.callAndWait(() -> {
+            final TableView<ObservableList<SpreadsheetCell>> table = new TableView<>(grid.getRows());
+            for (int column = 0; column < grid.getColumnCount(); ++column) {
+                table.getColumns().add(new TableColumn<>());
+            }
+            return table;
+        });
+
+        positions.clear();
+        for (int row = 0; row < grid.getRowCount(); ++row) {
+            for (int column = 0; column < grid.getColumnCount(); ++column) {
+                final SpreadsheetCell cell = grid.getRows().get(row).get(column);
+                if (cell.getRow() == row && cell.getColumn() == column) {
+                    positions.add(new TablePosition<>(tableView, row, tableView.getColumns().get(column)));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int add() {
+        final SelectedCellsMapTemp<TablePosition<ObservableList<SpreadsheetCell>, ?>> map = new SelectedCellsMapTemp<>(listener);
+        for (TablePosition<ObservableList<SpreadsheetCell>, ?> position : positions) {
+            map.add(position);
+        }
+        return map.size();
+    }
+
+    @Benchmark
+    public int addAll() {
+        final SelectedCellsMapTemp<TablePosition<ObservableList<SpreadsheetCell>, ?>> map = new SelectedCellsMapTemp<>(listener);
+        map.addAll(positions);
+        return map.size();
+    }
+}
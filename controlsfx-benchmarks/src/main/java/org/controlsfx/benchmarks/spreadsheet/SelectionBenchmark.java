@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.benchmarks.spreadsheet;
+
+import java.util.concurrent.TimeUnit;
+import javafx.collections.ObservableList;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView.TableViewSelectionModel;
+import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the selection of large ranges in the SpreadsheetViewSelectionModel.
+ * Each operation starts from an empty selection and runs on the JavaFX
+ * Application Thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rowCount;
+
+    @Param({"0", "0.05", "0.3"})
+    public double spanDensity;
+
+    private TableViewSelectionModel<ObservableList<SpreadsheetCell>> selectionModel;
+    private TableColumn<ObservableList<SpreadsheetCell>, ?> firstColumn;
+    private TableColumn<ObservableList<SpreadsheetCell>, ?> lastColumn;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        FXPlatform.start();
+        final SpreadsheetView spreadsheetView = FXPlatform.callAndWait(
+                () -> new SpreadsheetView(Grids.build(rowCount, Grids.COLUMN_COUNT, spanDensity)));
+        selectionModel = spreadsheetView.getSelectionModel();
+        selectionModel.setSelectionMode(SelectionMode.MULTIPLE);
+        final ObservableList<TableColumn<ObservableList<SpreadsheetCell>, ?>> columns
+                = selectionModel.getTableView().getColumns();
+        // The range covers the half of the columns in the middle.
+        firstColumn = columns.get(columns.size() / 4);
+        lastColumn = columns.get(columns.size() * 3 / 4);
+    }
+
+    /**
+     * Select the half of the rows in the middle of the grid.
+     */
+    @Benchmark
+    public int selectRange() {
+        return FXPlatform.callAndWait(() -> {
+            selectionModel.clearSelection();
+            selectionModel.selectRange(rowCount / 4, firstColumn, rowCount * 3 / 4, lastColumn);
+            return selectionModel.getSelectedCells().size();
+        });
+    }
+
+    @Benchmark
+    public int selectAll() {
+        return FXPlatform.callAndWait(() -> {
+            selectionModel.clearSelection();
+            selectionModel.selectAll();
+            return selectionModel.getSelectedCells().size();
+        });
+    }
+}
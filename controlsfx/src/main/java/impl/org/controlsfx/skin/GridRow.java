@@ -71,6 +71,19 @@ class GridRow<T> extends IndexedCell<T>{
         return new GridRowSkin<>(this);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override public void updateIndex(int i) {
+        final int oldIndex = getIndex();
+        super.updateIndex(i);
+        // The VirtualFlow gives the same index again to a row it reuses, which
+        // is not notified, but the items of the GridView may have moved.
+        if (oldIndex == i && i >= 0 && getSkin() instanceof GridRowSkin) {
+            ((GridRowSkin<?>) getSkin()).updateCells();
+        }
+    }
+
 
 
     /**************************************************************************
@@ -26,7 +26,9 @@
  */
 package impl.org.controlsfx.skin;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import javafx.scene.Node;
 
@@ -39,6 +41,17 @@ import com.sun.javafx.scene.control.skin.CellSkinBase;
 
 public class GridRowSkin<T> extends CellSkinBase<GridRow<T>, BehaviorBase<GridRow<T>>> {
 
+    /**
+     * The cells removed when the row holds less items, reused before creating
+     * new ones when it holds more again.
+     */
+    private final List<GridCell<T>> spareCells = new ArrayList<>();
+
+    /**
+     * The number of cells per row used by the last update.
+     */
+    private int updatedCellsInRow = -1;
+
     public GridRowSkin(GridRow<T> control) {
         super(control, new BehaviorBase<>(control, Collections.<KeyBinding> emptyList()));
 
@@ -56,10 +69,13 @@ public class GridRowSkin<T> extends CellSkinBase<GridRow<T>, BehaviorBase<GridRo
         
         if ("INDEX".equals(p)) { //$NON-NLS-1$
             updateCells();
-        } else if ("WIDTH".equals(p)) { //$NON-NLS-1$
-            updateCells();
-        } else if ("HEIGHT".equals(p)) { //$NON-NLS-1$
-            updateCells();
+        } else if ("WIDTH".equals(p) || "HEIGHT".equals(p)) { //$NON-NLS-1$ //$NON-NLS-2$
+            // A resize only matters if the number of cells per row changed,
+            // the justified rows being given their items by the GridViewSkin.
+            if (getSkinnable().getIndex() >= 0 && getGridViewSkin().getJustifiedRows() == null
+                    && computeMaxCellsInRow() != updatedCellsInRow) {
+                updateCells();
+            }
         }
     }
 
@@ -84,10 +100,19 @@ public class GridRowSkin<T> extends CellSkinBase<GridRow<T>, BehaviorBase<GridRo
         int rowIndex = getSkinnable().getIndex();
         if (rowIndex >= 0) {
             GridView<T> gridView = getSkinnable().getGridView();
-            int maxCellsInRow = ((GridViewSkin<?>)gridView.getSkin()).computeMaxCellsInRow();
+            GridViewSkin<T> gridViewSkin = getGridViewSkin();
             int totalCellsInGrid = gridView.getItems().size();
-            int startCellIndex = rowIndex * maxCellsInRow;
-            int endCellIndex = startCellIndex + maxCellsInRow - 1;
+            int startCellIndex;
+            int endCellIndex;
+            if (gridViewSkin.getJustifiedRows() != null) {
+                startCellIndex = gridViewSkin.getRowStart(rowIndex);
+                endCellIndex = gridViewSkin.getRowStart(rowIndex + 1) - 1;
+            } else {
+                int maxCellsInRow = computeMaxCellsInRow();
+                updatedCellsInRow = maxCellsInRow;
+                startCellIndex = rowIndex * maxCellsInRow;
+                endCellIndex = startCellIndex + maxCellsInRow - 1;
+            }
             int cacheIndex = 0;
 
             for (int cellIndex = startCellIndex; cellIndex <= endCellIndex; cellIndex++, cacheIndex++) {
@@ -95,9 +120,14 @@ public class GridRowSkin<T> extends CellSkinBase<GridRow<T>, BehaviorBase<GridRo
                     // Check if we can re-use a cell at this index or create a new one
                     GridCell<T> cell = getCellAtIndex(cacheIndex);
                     if( cell == null ) {
-                        cell = createCell();
+                        cell = spareCells.isEmpty() ? createCell() : spareCells.remove(spareCells.size() - 1);
                         getChildren().add(cell);
                     }
+                    // Setting the same index does not update the cell, but the
+                    // items of the GridView may have moved under it.
+                    if (cell.getIndex() == cellIndex && cell.getItem() != gridView.getItems().get(cellIndex)) {
+                        cell.updateIndex(-1);
+                    }
                     cell.updateIndex(cellIndex);
                 }
                 // we are going out of bounds -> exist the loop
@@ -106,10 +136,37 @@ public class GridRowSkin<T> extends CellSkinBase<GridRow<T>, BehaviorBase<GridRo
             
             // In case we are re-using a row that previously had more cells than
             // this one, we need to remove the extra cells that remain
-            getChildren().remove(cacheIndex, getChildren().size());
+            for (int i = getChildren().size() - 1; i >= cacheIndex; i--) {
+                GridCell<T> cell = getCellAtIndex(i);
+                getChildren().remove(i);
+                cell.updateIndex(-1);
+                spareCells.add(cell);
+            }
         }
     }
 
+    private int computeMaxCellsInRow() {
+        return getGridViewSkin().computeMaxCellsInRow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private GridViewSkin<T> getGridViewSkin() {
+        return (GridViewSkin<T>) getSkinnable().getGridView().getSkin();
+    }
+
+    /**
+     * @return the justified rows if the row is one of them, null otherwise.
+     */
+    private JustifiedRowsIndex<T> getJustifiedRows() {
+        int rowIndex = getSkinnable().getIndex();
+        GridView<T> gridView = getSkinnable().getGridView();
+        if (rowIndex < 0 || gridView == null || !(gridView.getSkin() instanceof GridViewSkin)) {
+            return null;
+        }
+        JustifiedRowsIndex<T> justifiedRows = getGridViewSkin().getJustifiedRows();
+        return justifiedRows != null && rowIndex < justifiedRows.getRowCount() ? justifiedRows : null;
+    }
+
     private GridCell<T> createCell() {
         GridView<T> gridView = getSkinnable().gridViewProperty().get();
         GridCell<T> cell;
@@ -145,7 +202,10 @@ public class GridRowSkin<T> extends CellSkinBase<GridRow<T>, BehaviorBase<GridRo
 
     @Override protected double computePrefHeight(double width, double topInset, double rightInset, double bottomInset, double leftInset) {
         GridView<T> gv = getSkinnable().gridViewProperty().get();
-        return gv.getCellHeight() + gv.getVerticalCellSpacing() * 2;
+        JustifiedRowsIndex<T> justifiedRows = getJustifiedRows();
+        double cellHeight = justifiedRows == null ? gv.getCellHeight()
+                : justifiedRows.getRowHeight(getSkinnable().getIndex());
+        return cellHeight + gv.getVerticalCellSpacing() * 2;
     }
 
     @Override protected void layoutChildren(double x, double y, double w, double h) {
@@ -169,7 +229,18 @@ public class GridRowSkin<T> extends CellSkinBase<GridRow<T>, BehaviorBase<GridRo
 //            }
 //        }
 
+        // In a justified row, each cell keeps the aspect ratio of its item.
+        JustifiedRowsIndex<T> justifiedRows = getJustifiedRows();
+        int rowIndex = getSkinnable().getIndex();
+        int itemIndex = justifiedRows == null ? -1 : justifiedRows.getRowStart(rowIndex);
+        if (justifiedRows != null) {
+            cellHeight = justifiedRows.getRowHeight(rowIndex);
+        }
+
         for (Node child : getChildren()) {
+            if (justifiedRows != null) {
+                cellWidth = justifiedRows.getItemWidth(itemIndex++, rowIndex);
+            }
             child.relocate(xPos + horizontalCellSpacing, yPos + verticalCellSpacing);
             child.resize(cellWidth, cellHeight);
             xPos = xPos + horizontalCellSpacing + cellWidth + horizontalCellSpacing;
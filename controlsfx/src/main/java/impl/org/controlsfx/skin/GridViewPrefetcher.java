@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package impl.org.controlsfx.skin;
+
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+import javafx.scene.control.IndexRange;
+
+import org.controlsfx.control.GridView;
+
+/**
+ * Announces to the prefetch callbacks of a {@link GridView} the items entering
+ * and leaving the look-ahead window, which is made of the rows following the
+ * visible rows in the direction of the last scroll.
+ *
+ * The window is kept in item indices, so that a change of the number of items
+ * per row only announces the difference. When the items themselves change,
+ * the indices no longer designate the same items, and the window is announced
+ * again from scratch.
+ */
+final class GridViewPrefetcher<T> {
+
+    private final GridView<T> gridView;
+
+    /**
+     * The items announced to the prefetch callback, from windowStart
+     * (inclusive) to windowEnd (exclusive).
+     */
+    private int windowStart;
+    private int windowEnd;
+    private int lastFirstRow = -1;
+    private boolean forward = true;
+
+    GridViewPrefetcher(GridView<T> gridView) {
+        this.gridView = gridView;
+    }
+
+    /**
+     * Forget the announced window, without cancelling it.
+     */
+    void reset() {
+        windowStart = windowEnd = 0;
+        lastFirstRow = -1;
+        forward = true;
+    }
+
+    /**
+     * Called once the rows have been laid out.
+     *
+     * @param firstRow the first visible row.
+     * @param lastRow the last visible row.
+     * @param rowCount
+     * @param itemCount
+     * @param rowStart gives the first item of a row.
+     */
+    void update(int firstRow, int lastRow, int rowCount, int itemCount, IntUnaryOperator rowStart) {
+        final Consumer<IndexRange> onPrefetch = gridView.getOnPrefetch();
+        if (onPrefetch == null) {
+            reset();
+            return;
+        }
+
+        // The direction is kept while the rows stay still.
+        if (lastFirstRow >= 0 && firstRow != lastFirstRow) {
+            forward = firstRow > lastFirstRow;
+        }
+        lastFirstRow = firstRow;
+
+        final int lookAhead = Math.max(0, gridView.getPrefetchRowCount());
+        final int fromRow = forward ? lastRow + 1 : Math.max(0, firstRow - lookAhead);
+        final int toRow = forward ? Math.min(rowCount, lastRow + 1 + lookAhead) : firstRow;
+
+        final int start = Math.min(itemCount, rowStart.applyAsInt(fromRow));
+        final int end = Math.max(start, Math.min(itemCount, rowStart.applyAsInt(toRow)));
+        final int visibleStart = Math.min(itemCount, rowStart.applyAsInt(firstRow));
+        final int visibleEnd = Math.min(itemCount, rowStart.applyAsInt(lastRow + 1));
+
+        final int oldStart = windowStart;
+        final int oldEnd = windowEnd;
+        windowStart = start;
+        windowEnd = end;
+
+        // The items now visible are rendered, they are not cancelled.
+        final Consumer<IndexRange> onCancel = gridView.getOnCancelPrefetch();
+        if (onCancel != null) {
+            announce(oldStart, oldEnd, new int[] { start, end, visibleStart, visibleEnd }, 0, onCancel);
+        }
+        announce(start, end, new int[] { oldStart, oldEnd }, 0, onPrefetch);
+    }
+
+    /**
+     * Give to the callback the range from (inclusive) to (exclusive) minus
+     * the ranges found in cuts from cutIndex.
+     */
+    private static void announce(int from, int to, int[] cuts, int cutIndex, Consumer<IndexRange> callback) {
+        if (from >= to) {
+            return;
+        }
+        if (cutIndex == cuts.length) {
+            callback.accept(new IndexRange(from, to));
+            return;
+        }
+        final int cutFrom = cuts[cutIndex];
+        final int cutTo = cuts[cutIndex + 1];
+        if (cutFrom >= cutTo) {
+            announce(from, to, cuts, cutIndex + 2, callback);
+        } else {
+            announce(from, Math.min(to, cutFrom), cuts, cutIndex + 2, callback);
+            announce(Math.max(from, cutTo), to, cuts, cutIndex + 2, callback);
+        }
+    }
+}
@@ -51,6 +51,17 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
 
     private final ListChangeListener<T> gridViewItemsListener = new ListChangeListener<T>() {
         @Override public void onChanged(ListChangeListener.Change<? extends T> change) {
+            if (prefetcher != null) {
+                prefetcher.reset();
+            }
+            // Appended items are added to the justified rows, any other
+            // change lays them out again.
+            while (justifiedRows != null && change.next()) {
+                if (change.wasPermutated() || change.wasRemoved()
+                        || change.getFrom() < justifiedRows.getItemCount()) {
+                    justifiedRows = null;
+                }
+            }
             updateRowCount();
             getSkinnable().requestLayout();
         }
@@ -58,6 +69,17 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
 
     private final WeakListChangeListener<T> weakGridViewItemsListener = new WeakListChangeListener<>(gridViewItemsListener);
 
+    /**
+     * Created lazily because the flow is laid out by the super constructor.
+     */
+    private GridViewPrefetcher<T> prefetcher;
+
+    /**
+     * The partition of the items into rows when the GridView has an item
+     * aspect ratio, null otherwise.
+     */
+    private JustifiedRowsIndex<T> justifiedRows;
+
     @SuppressWarnings("rawtypes")
     public GridViewSkin(GridView<T> control) {
         super(control, new BehaviorBase<>(control, Collections.<KeyBinding>emptyList()));
@@ -87,6 +109,8 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
         registerChangeListener(control.verticalCellSpacingProperty(), "VERTICAL_CELL_SPACING"); //$NON-NLS-1$
         registerChangeListener(control.widthProperty(), "WIDTH_PROPERTY"); //$NON-NLS-1$
         registerChangeListener(control.heightProperty(), "HEIGHT_PROPERTY"); //$NON-NLS-1$
+        registerChangeListener(control.prefetchRowCountProperty(), "PREFETCH_ROW_COUNT"); //$NON-NLS-1$
+        registerChangeListener(control.itemAspectRatioProperty(), "ITEM_ASPECT_RATIO"); //$NON-NLS-1$
     }
 
     @Override protected void handleControlPropertyChanged(String p) {
@@ -96,21 +120,25 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
         } else if (p == "CELL_FACTORY") { //$NON-NLS-1$
             flow.recreateCells();
         } else if (p == "CELL_HEIGHT") { //$NON-NLS-1$
-            flow.recreateCells();
+            // The rows are kept, only their height is computed again, along
+            // with the justified rows if any.
+            updateRowCount();
         } else if (p == "CELL_WIDTH") { //$NON-NLS-1$
             updateRowCount();
-            flow.recreateCells();
         } else if (p == "HORIZONZAL_CELL_SPACING") { //$NON-NLS-1$
             updateRowCount();
-            flow.recreateCells();
         } else if (p == "VERTICAL_CELL_SPACING") { //$NON-NLS-1$
-            flow.recreateCells();
+            flow.reconfigureCells();
         } else if (p == "PARENT") { //$NON-NLS-1$
             if (getSkinnable().getParent() != null && getSkinnable().isVisible()) {
                 getSkinnable().requestLayout();
             }
         } else if (p == "WIDTH_PROPERTY" || p == "HEIGHT_PROPERTY") { //$NON-NLS-1$ //$NON-NLS-2$
             updateRowCount();
+        } else if (p == "PREFETCH_ROW_COUNT") { //$NON-NLS-1$
+            flow.requestLayout();
+        } else if (p == "ITEM_ASPECT_RATIO") { //$NON-NLS-1$
+            updateRowCount();
         }
     }
 
@@ -123,6 +151,10 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
             getSkinnable().getItems().addListener(weakGridViewItemsListener);
         }
 
+        if (prefetcher != null) {
+            prefetcher.reset();
+        }
+        justifiedRows = null;
         updateRowCount();
         flow.recreateCells();
         getSkinnable().requestLayout();
@@ -132,18 +164,78 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
         if (flow == null)
             return;
 
+        int anchorRow = updateJustifiedRows();
         int oldCount = flow.getCellCount();
         int newCount = getItemCount();
         
+        // The rows and their cells are reused when the number of rows
+        // changes, only the items given to each row are computed again.
         if (newCount != oldCount) {
             flow.setCellCount(newCount);
-            flow.recreateCells();
-        } else {
-            flow.reconfigureCells();
+        }
+        flow.reconfigureCells();
+        if (anchorRow >= 0) {
+            flow.scrollTo(anchorRow);
         }
         updateRows(newCount);
     }
 
+    /**
+     * Bring the justified rows up to date, partitioning the items again if
+     * the width, the height or the spacing of the cells changed, and adding
+     * the appended items.
+     * 
+     * @return the row now holding the first displayed item when the rows
+     * were partitioned again, -1 otherwise.
+     */
+    private int updateJustifiedRows() {
+        final GridView<T> gridView = getSkinnable();
+        final Callback<T, Double> aspectRatio = gridView.getItemAspectRatio();
+        if (aspectRatio == null || gridView.getItems() == null) {
+            justifiedRows = null;
+            return -1;
+        }
+        final double width = computeRowWidth();
+        final double height = gridView.getCellHeight();
+        final double spacing = gridView.getHorizontalCellSpacing();
+        if (justifiedRows == null || justifiedRows.getAspectRatio() != aspectRatio) {
+            justifiedRows = new JustifiedRowsIndex<>(aspectRatio, width, height, spacing);
+            justifiedRows.append(gridView.getItems());
+            return -1;
+        }
+
+        // The first displayed item stays on screen when the rows change.
+        final GridRow<T> firstRow = flow.getFirstVisibleCell();
+        final int anchorItem = firstRow == null || firstRow.getIndex() < 0 ? -1 : getRowStart(firstRow.getIndex());
+        final boolean relaidOut = justifiedRows.layout(width, height, spacing);
+        justifiedRows.append(gridView.getItems());
+        return !relaidOut || anchorItem < 0 || anchorItem >= justifiedRows.getItemCount()
+                ? -1 : justifiedRows.getRowOfItem(anchorItem);
+    }
+
+    /**
+     * @return the partition of the items into justified rows, or null if the
+     * cells all have the same size.
+     */
+    JustifiedRowsIndex<T> getJustifiedRows() {
+        return justifiedRows;
+    }
+
+    /**
+     * Returns the index of the first item of a row
+     * @param row
+     * @return the index of the first item of the row, or the number of items
+     * after the last row
+     */
+    public int getRowStart(int row) {
+        if (justifiedRows != null) {
+            return justifiedRows.getRowStart(row);
+        }
+        final ObservableList<?> items = getSkinnable().getItems();
+        final int itemCount = items == null ? 0 : items.size();
+        return (int) Math.min(itemCount, (long) row * computeMaxCellsInRow());
+    }
+
     @Override protected void layoutChildren(double x, double y, double w, double h) {
         double x1 = getSkinnable().getInsets().getLeft();
         double y1 = getSkinnable().getInsets().getTop();
@@ -153,6 +245,15 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
         flow.resizeRelocate(x1, y1, w1, h1);
     }
 
+    @Override protected VirtualFlow<GridRow<T>> createVirtualFlow() {
+        return new VirtualFlow<GridRow<T>>() {
+            @Override protected void layoutChildren() {
+                super.layoutChildren();
+                updatePrefetch();
+            }
+        };
+    }
+
     @Override public GridRow<T> createCell() {
         GridRow<T> row = new GridRow<>();
         row.updateGridView(getSkinnable());
@@ -164,6 +265,9 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
      *  @return GridView row count
      */
     @Override public int getItemCount() {
+        if (justifiedRows != null) {
+            return justifiedRows.getRowCount();
+        }
         final ObservableList<?> items = getSkinnable().getItems();
         // Fix for #98 : int division should be cast to get the result as
         // double and ceiled to get the max int of it (as we are looking for
@@ -201,17 +305,43 @@ public class GridViewSkin<T> extends VirtualContainerBase<GridView<T>, BehaviorB
         return getSkinnable().cellWidthProperty().doubleValue() + (getSkinnable().horizontalCellSpacingProperty().doubleValue() * 2);
     }
 
+    /**
+     * Give again their items to the rows currently displayed, the other rows
+     * being updated when they are displayed.
+     */
     protected void updateRows(int rowCount) {
-        for (int i = 0; i < rowCount; i++) {
+        GridRow<T> firstRow = flow.getFirstVisibleCell();
+        GridRow<T> lastRow = flow.getLastVisibleCell();
+        if (firstRow == null || lastRow == null) {
+            return;
+        }
+        int lastIndex = Math.min(lastRow.getIndex(), rowCount - 1);
+        for (int i = Math.max(0, firstRow.getIndex()); i <= lastIndex; i++) {
             GridRow<T> row = flow.getVisibleCell(i);
-            if (row != null) {
-                // FIXME hacky - need to better understand what this is about
-                row.updateIndex(-1);
-                row.updateIndex(i);
+            if (row != null && row.getSkin() instanceof GridRowSkin) {
+                ((GridRowSkin<?>) row.getSkin()).updateCells();
             }
         }
     }
 
+    /**
+     * Announce the items entering or leaving the look-ahead window once the
+     * rows have been laid out.
+     */
+    private void updatePrefetch() {
+        final GridRow<T> firstRow = flow.getFirstVisibleCell();
+        final GridRow<T> lastRow = flow.getLastVisibleCell();
+        if (firstRow == null || lastRow == null || firstRow.getIndex() < 0) {
+            return;
+        }
+        if (prefetcher == null) {
+            prefetcher = new GridViewPrefetcher<>(getSkinnable());
+        }
+        final ObservableList<?> items = getSkinnable().getItems();
+        prefetcher.update(firstRow.getIndex(), lastRow.getIndex(), getItemCount(), items == null ? 0 : items.size(),
+                this::getRowStart);
+    }
+
     protected boolean areRowsVisible() {
         if (flow == null)
             return false;
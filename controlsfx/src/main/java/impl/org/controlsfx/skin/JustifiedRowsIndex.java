@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package impl.org.controlsfx.skin;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javafx.util.Callback;
+
+/**
+ * The partition of the items of a {@link org.controlsfx.control.GridView}
+ * into justified rows: the items of a row keep their aspect ratio, and the row
+ * is scaled so that they fill its width exactly. Only the last row, which is
+ * still open to the items appended later, keeps the target height.
+ *
+ * The aspect ratio of each item is asked once and kept, so that a resize only
+ * partitions the items again. The first item of each row is kept in a sorted
+ * array, so the row of an item is found in O(log n). Appending items only
+ * partitions again the last row and the new items.
+ */
+final class JustifiedRowsIndex<T> {
+
+    private final Callback<T, Double> aspectRatio;
+    private double width;
+    private double targetHeight;
+    private double spacing;
+
+    private double[] ratios = new double[16];
+    private int itemCount;
+
+    /**
+     * The first item of each row, followed by the item count.
+     */
+    private int[] rowStarts = new int[16];
+    private double[] rowHeights = new double[16];
+    private int rowCount;
+    private boolean lastRowOpen;
+
+    /**
+     * @param aspectRatio returns the width divided by the height of an item.
+     * @param width the width available for a row.
+     * @param targetHeight the height of a row before it is justified.
+     * @param spacing the horizontal spacing on each side of a cell.
+     */
+    JustifiedRowsIndex(Callback<T, Double> aspectRatio, double width, double targetHeight, double spacing) {
+        this.aspectRatio = aspectRatio;
+        this.width = width;
+        this.targetHeight = targetHeight;
+        this.spacing = spacing;
+    }
+
+    /**
+     * @return the callback returning the aspect ratio of an item.
+     */
+    Callback<T, Double> getAspectRatio() {
+        return aspectRatio;
+    }
+
+    /**
+     * Partition the items again if the size of the rows changed.
+     *
+     * @param width
+     * @param targetHeight
+     * @param spacing
+     * @return true if the items were partitioned again.
+     */
+    boolean layout(double width, double targetHeight, double spacing) {
+        if (this.width == width && this.targetHeight == targetHeight && this.spacing == spacing) {
+            return false;
+        }
+        this.width = width;
+        this.targetHeight = targetHeight;
+        this.spacing = spacing;
+        rowCount = 0;
+        lastRowOpen = false;
+        partition(0);
+        return true;
+    }
+
+    /**
+     * Partition the items appended to the list since the last call.
+     *
+     * @param items
+     */
+    void append(List<T> items) {
+        final int from = itemCount;
+        if (items.size() <= from) {
+            return;
+        }
+        if (items.size() > ratios.length) {
+            ratios = Arrays.copyOf(ratios, Math.max(items.size(), ratios.length * 2));
+        }
+        for (int i = from; i < items.size(); ++i) {
+            final Double ratio = aspectRatio.call(items.get(i));
+            ratios[i] = ratio == null || !(ratio > 0) || ratio.isInfinite() ? 1 : ratio;
+        }
+        itemCount = items.size();
+
+        // The last row may take some of the new items.
+        if (lastRowOpen) {
+            --rowCount;
+            lastRowOpen = false;
+        }
+        partition(rowCount == 0 ? 0 : rowStarts[rowCount]);
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the number of items partitioned.
+     */
+    int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * @param row
+     * @return the first item of the row, or the item count after the last
+     * row.
+     */
+    int getRowStart(int row) {
+        return row >= rowCount ? itemCount : rowStarts[row];
+    }
+
+    /**
+     * @param row
+     * @return the height of the cells of the row.
+     */
+    double getRowHeight(int row) {
+        return rowHeights[row];
+    }
+
+    /**
+     * @param item
+     * @param row the row of the item.
+     * @return the width of the cell of the item.
+     */
+    double getItemWidth(int item, int row) {
+        return ratios[item] * rowHeights[row];
+    }
+
+    /**
+     * @param item
+     * @return the row holding this item.
+     */
+    int getRowOfItem(int item) {
+        final int position = Arrays.binarySearch(rowStarts, 0, rowCount, item);
+        // Otherwise the item follows the start of the previous row.
+        return position >= 0 ? position : -position - 2;
+    }
+
+    private void partition(int from) {
+        int rowStart = from;
+        double rowWidth = 0;
+        for (int i = from; i < itemCount; ++i) {
+            final double itemWidth = ratios[i] * targetHeight;
+            final int cellCount = i - rowStart + 1;
+            if (i > rowStart && rowWidth + itemWidth + 2 * spacing * cellCount > width) {
+                // The row is full, it is scaled to fill the width.
+                final double available = Math.max(1, width - 2 * spacing * (i - rowStart));
+                addRow(rowStart, targetHeight * available / rowWidth);
+                rowStart = i;
+                rowWidth = 0;
+            }
+            rowWidth += itemWidth;
+        }
+        if (rowStart < itemCount) {
+            // Only shrunk if its items are already wider than the row.
+            final double available = Math.max(1, width - 2 * spacing * (itemCount - rowStart));
+            addRow(rowStart, Math.min(targetHeight, targetHeight * available / rowWidth));
+            lastRowOpen = true;
+        }
+        rowStarts[rowCount] = itemCount;
+    }
+
+    private void addRow(int start, double height) {
+        if (rowCount + 1 >= rowStarts.length) {
+            rowStarts = Arrays.copyOf(rowStarts, rowStarts.length * 2);
+            rowHeights = Arrays.copyOf(rowHeights, rowHeights.length * 2);
+        }
+        rowStarts[rowCount] = start;
+        rowHeights[rowCount] = height;
+        ++rowCount;
+    }
+}
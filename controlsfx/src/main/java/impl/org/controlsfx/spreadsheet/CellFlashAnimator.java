@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2014 ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package impl.org.controlsfx.spreadsheet;
+
+import java.util.Arrays;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.paint.Color;
+
+import org.controlsfx.control.spreadsheet.Grid;
+import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+import org.controlsfx.control.spreadsheet.SpreadsheetView;
+
+/**
+ * Make the cells of the SpreadsheetView flash when their value changes.
+ *
+ * The time of the last change of each cell is kept in an open addressing
+ * table of primitive arrays, indexed by the row and the column of the Grid,
+ * and only holding the cells still flashing. A single AnimationTimer, only
+ * running while a cell is flashing, fades an overlay drawn over the
+ * background of the displayed {@link CellView}, including the ones of the
+ * fixed rows, so the style of the cells is left untouched. A cell spanning
+ * several rows or columns is keyed by its origin. The fade is done in a few
+ * steps so that the overlay of a cell is not changed every pulse.
+ */
+public class CellFlashAnimator extends AnimationTimer {
+
+    /***************************************************************************
+     * * Static Fields * *
+     **************************************************************************/
+    /**
+     * Number of steps of the fade.
+     */
+    private static final int LEVELS = 10;
+    private static final long EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    /***************************************************************************
+     * * Private Fields * *
+     **************************************************************************/
+    private final GridViewSkin skin;
+    /**
+     * The row in the high bits and the column in the low ones, or EMPTY.
+     */
+    private long[] keys;
+    /**
+     * The time in nanoseconds of the last change of each cell.
+     */
+    private long[] times;
+    private int size;
+    private boolean running;
+    /**
+     * The overlay background of each step of the fade, computed for the
+     * flashColor.
+     */
+    private final Background[] backgrounds = new Background[LEVELS + 1];
+    private Color flashColor;
+
+    /***************************************************************************
+     * * Constructor * *
+     **************************************************************************/
+    public CellFlashAnimator(GridViewSkin skin) {
+        this.skin = skin;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /***************************************************************************
+     * * Public Methods * *
+     **************************************************************************/
+    /**
+     * Start the flash of the cell situated at this position in the Grid. If
+     * the position is covered by a span, the spanning cell flashes.
+     *
+     * @param modelRow
+     * @param column
+     */
+    public void flash(int modelRow, int column) {
+        final Grid grid = skin.spreadsheetView.getGrid();
+        if (grid.isSpanSupported() && modelRow >= 0 && modelRow < grid.getRowCount()
+                && column >= 0 && column < grid.getColumnCount()) {
+            final SpreadsheetCell cell = grid.getRows().get(modelRow).get(column);
+            modelRow = cell.getRow();
+            column = cell.getColumn();
+        }
+        put(key(modelRow, column), System.nanoTime());
+        if (!running) {
+            running = true;
+            start();
+        }
+    }
+
+    /**
+     * Give each displayed cell the overlay of its step of the fade.
+     *
+     * @param now
+     */
+    @Override
+    public void handle(long now) {
+        final SpreadsheetView spv = skin.spreadsheetView;
+        final long duration = (long) (spv.getCellFlashDuration().toMillis() * 1_000_000);
+        updateBackgrounds(spv.getCellFlashColor());
+
+        boolean flashing = false;
+        for (Object row : skin.getFlow().getCells()) {
+            flashing |= updateRow((GridRow) row, now, duration);
+        }
+        // The fixed rows laid out on top of the others are not in the cells.
+        for (Object row : skin.getFlow().getFixedCells()) {
+            flashing |= updateRow((GridRow) row, now, duration);
+        }
+
+        removeExpired(now, duration);
+        if (size == 0 && !flashing) {
+            stop();
+            running = false;
+        }
+    }
+
+    /***************************************************************************
+     * * Private Methods * *
+     **************************************************************************/
+    /**
+     * @return true if a cell of this row is still flashing.
+     */
+    private boolean updateRow(GridRow row, long now, long duration) {
+        final boolean rowVisible = row.isVisible();
+        boolean flashing = false;
+        for (Node node : row.getChildrenUnmodifiable()) {
+            if (node instanceof CellView) {
+                final CellView cell = (CellView) node;
+                final int level = rowVisible ? getLevel(cell, now, duration) : 0;
+                if (level != cell.flashLevel) {
+                    cell.flashLevel = level;
+                    cell.setFlashBackground(backgrounds[level]);
+                }
+                flashing |= level != 0;
+            }
+        }
+        return flashing;
+    }
+
+    private int getLevel(CellView cell, long now, long duration) {
+        final SpreadsheetCell item = cell.getItem();
+        if (item == null || duration <= 0 || cell.isEditing()) {
+            return 0;
+        }
+        final long time = get(key(item.getRow(), item.getColumn()));
+        if (time == EMPTY || now - time >= duration) {
+            return 0;
+        }
+        return (int) Math.min(LEVELS, (duration - Math.max(0, now - time)) * LEVELS / duration + 1);
+    }
+
+    private void updateBackgrounds(Color color) {
+        if (color.equals(flashColor)) {
+            return;
+        }
+        flashColor = color;
+        backgrounds[0] = null;
+        for (int level = 1; level <= LEVELS; ++level) {
+            final Color fill = Color.color(color.getRed(), color.getGreen(), color.getBlue(),
+                    color.getOpacity() * level / LEVELS);
+            backgrounds[level] = new Background(new BackgroundFill(fill, null, null));
+        }
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (keys.length - 1);
+    }
+
+    private long get(long key) {
+        for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & (keys.length - 1)) {
+            if (keys[slot] == key) {
+                return times[slot];
+            }
+        }
+        return EMPTY;
+    }
+
+    private void put(long key, long time) {
+        int slot = slot(key);
+        for (; keys[slot] != EMPTY; slot = (slot + 1) & (keys.length - 1)) {
+            if (keys[slot] == key) {
+                times[slot] = time;
+                return;
+            }
+        }
+        keys[slot] = key;
+        times[slot] = time;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Remove the cells that have finished flashing. The table is rebuilt
+     * without them, which also keeps it small once the burst of changes is
+     * over.
+     */
+    private void removeExpired(long now, long duration) {
+        if (size == 0) {
+            return;
+        }
+        final long limit = now - duration;
+        int live = 0;
+        for (int slot = 0; slot < keys.length; ++slot) {
+            if (keys[slot] != EMPTY && times[slot] > limit) {
+                ++live;
+            }
+        }
+        if (live == size) {
+            return;
+        }
+        int capacity = INITIAL_CAPACITY;
+        while (live * 2 > capacity) {
+            capacity <<= 1;
+        }
+        rehash(capacity, limit);
+    }
+
+    /**
+     * Copy the entries changed after the limit into new arrays.
+     */
+    private void rehash(int capacity, long limit) {
+        final long[] oldKeys = keys;
+        final long[] oldTimes = times;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; ++slot) {
+            if (oldKeys[slot] != EMPTY && oldTimes[slot] > limit) {
+                put(oldKeys[slot], oldTimes[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        times = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2014 ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package impl.org.controlsfx.spreadsheet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Coalesce the changes of text of the displayed {@link CellView}.
+ *
+ * When the item of a SpreadsheetCell changes many times between two pulses,
+ * its CellView is only marked as dirty instead of being updated each time.
+ * Once per pulse, before the CSS and layout passes, the dirty cells that are
+ * displayed are given their last text. The other ones stay dirty, they are
+ * refreshed by their {@link GridRow} when the VirtualFlow reuses them.
+ */
+public class CellRepaintScheduler extends AnimationTimer {
+
+    /***************************************************************************
+     * * Private Fields * *
+     **************************************************************************/
+    private final Set<CellView> dirtyCells = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<CellView> pendingCells = new ArrayList<>();
+    private boolean running;
+
+    /***************************************************************************
+     * * Public Methods * *
+     **************************************************************************/
+    /**
+     * Mark this cell as needing its text to be refreshed during the next
+     * pulse.
+     *
+     * @param cell
+     */
+    public void markDirty(CellView cell) {
+        if (dirtyCells.add(cell) && !running) {
+            running = true;
+            start();
+        }
+    }
+
+    /**
+     * Refresh the dirty cells that are displayed.
+     *
+     * @param now
+     */
+    @Override
+    public void handle(long now) {
+        stop();
+        running = false;
+        // A cell may be marked again while refreshing the others.
+        pendingCells.addAll(dirtyCells);
+        dirtyCells.clear();
+        for (CellView cell : pendingCells) {
+            if (cell.isDisplayed()) {
+                cell.refreshText();
+            }
+        }
+        pendingCells.clear();
+    }
+}
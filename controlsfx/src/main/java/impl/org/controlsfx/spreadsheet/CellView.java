@@ -30,6 +30,9 @@ import java.util.Objects;
 import java.util.Optional;
 import javafx.animation.FadeTransition;
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.WeakInvalidationListener;
 import javafx.beans.binding.When;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -45,6 +48,7 @@ import javafx.scene.control.Control;
 import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TablePositionBase;
+import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableView.TableViewFocusModel;
 import javafx.scene.control.TableView.TableViewSelectionModel;
@@ -52,6 +56,7 @@ import javafx.scene.control.Tooltip;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Background;
 import javafx.scene.layout.Region;
 import javafx.util.Duration;
 import org.controlsfx.control.spreadsheet.Grid;
@@ -59,6 +64,7 @@ import org.controlsfx.control.spreadsheet.SpreadsheetCell;
 import org.controlsfx.control.spreadsheet.SpreadsheetCellEditor;
 import org.controlsfx.control.spreadsheet.SpreadsheetCellType;
 import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.controlsfx.tools.Metrics;
 
 /**
  * 
@@ -73,6 +79,16 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
      * since it's really time-consuming.
      */
     private Tooltip tooltip;
+    /**
+     * True when the text of the SpreadsheetCell has changed and will be
+     * displayed during the next pulse.
+     */
+    private boolean textDirty;
+    /**
+     * The step of the fade displayed by the {@link CellFlashAnimator}, zero
+     * when this cell is not flashing.
+     */
+    int flashLevel;
 
     /***************************************************************************
      * * Static Fields * *
@@ -198,6 +214,7 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
 
     @Override
     public void updateItem(final SpreadsheetCell item, boolean empty) {
+        final long start = Metrics.start();
         final boolean emptyRow = getTableView().getItems().size() < getIndex() + 1;
         /**
          * don't call super.updateItem() because it will trigger cancelEdit() if
@@ -212,7 +229,7 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
             updateSelected(false);
         }
         if (empty && emptyRow) {
-            textProperty().unbind();
+            textDirty = false;
             setText(null);
             // do not nullify graphic here. Let the TableRow to control cell
             // dislay
@@ -224,6 +241,7 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
                 setGraphic(null);
             }
         }
+        Metrics.stop(Metrics.SPREADSHEET_CELL_UPDATE, start, 1);
     }
 
     /**
@@ -233,7 +251,8 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
      */
     public void show(final SpreadsheetCell cell) {
         // We reset the settings
-        textProperty().bind(cell.textProperty());
+        textDirty = false;
+        setText(cell.getText());
         setCellGraphic(cell);
 
         Optional<String> tooltipText = cell.getTooltip();
@@ -281,6 +300,40 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
         }
     }
 
+    /**
+     * Draw the given background over the background of this cell, or remove
+     * it if null. Used by the {@link CellFlashAnimator}.
+     *
+     * @param background
+     */
+    void setFlashBackground(Background background) {
+        if (getSkin() instanceof CellViewSkin) {
+            ((CellViewSkin) getSkin()).setFlashBackground(background);
+        }
+    }
+
+    /**
+     * @return true if this cell and its row are currently in the viewport. A
+     * cell outside of the horizontal viewport is removed from its row, and
+     * shown again by the layout of the row.
+     */
+    public boolean isDisplayed() {
+        final TableRow<?> row = getTableRow();
+        return isVisible() && getParent() != null && row != null && row.isVisible() && row.getParent() != null;
+    }
+
+    /**
+     * Display the last text of the SpreadsheetCell if it has changed since
+     * this cell was shown.
+     */
+    public void refreshText() {
+        if (textDirty) {
+            textDirty = false;
+            final SpreadsheetCell item = getItem();
+            setText(item == null ? null : item.getText());
+        }
+    }
+
     /***************************************************************************
      * * Private Methods * *
      **************************************************************************/
@@ -462,7 +515,7 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
 
         // For spanned Cells
         final SpreadsheetCell cell = (SpreadsheetCell) getItem();
-        final int rowCell = cell.getRow() + cell.getRowSpan() - 1;
+        final int rowCell = handle.getView().getViewRow(cell.getRow()) + cell.getRowSpan() - 1;
         final int columnCell = cell.getColumn() + cell.getColumnSpan() - 1;
 
         final TableViewFocusModel<?> fm = tableView.getFocusModel();
@@ -540,6 +593,29 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
         }
     };
     
+    /**
+     * The text is not bound to the SpreadsheetCell, an invalidation only marks
+     * this cell as dirty so that a cell changing many times between two pulses
+     * is only updated once, and its text is only computed then.
+     */
+    private final InvalidationListener textListener = new InvalidationListener() {
+        @Override
+        public void invalidated(Observable observable) {
+            if (textDirty) {
+                return;
+            }
+            textDirty = true;
+            final GridViewSkin skin = handle.getCellsViewSkin();
+            if (skin == null) {
+                refreshText();
+            } else {
+                skin.getRepaintScheduler().markDirty(CellView.this);
+            }
+        }
+    };
+
+    private final WeakInvalidationListener weakTextListener = new WeakInvalidationListener(textListener);
+
     private final ChangeListener<SpreadsheetCell> itemChangeListener = new ChangeListener<SpreadsheetCell>() {
 
         @Override
@@ -548,6 +624,7 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
             if (oldItem != null) {
                 oldItem.getStyleClass().removeListener(weakStyleClassListener);
                 oldItem.graphicProperty().removeListener(weakGraphicListener);
+                oldItem.textProperty().removeListener(weakTextListener);
             }
             if (newItem != null) {
                 getStyleClass().clear();
@@ -556,6 +633,7 @@ public class CellView extends TableCell<ObservableList<SpreadsheetCell>, Spreads
                 newItem.getStyleClass().addListener(weakStyleClassListener);
                 setCellGraphic(newItem);
                 newItem.graphicProperty().addListener(weakGraphicListener);
+                newItem.textProperty().addListener(weakTextListener);
             }
         }
     };
@@ -33,7 +33,10 @@ import javafx.beans.value.WeakChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.Event;
 import javafx.event.EventHandler;
+import javafx.geometry.Insets;
 import javafx.scene.control.TableCell;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.Border;
 import javafx.scene.layout.Region;
 import org.controlsfx.control.spreadsheet.SpreadsheetCell;
 import org.controlsfx.control.spreadsheet.SpreadsheetCell.CornerPosition;
@@ -64,6 +67,10 @@ public class CellViewSkin extends TableCellSkin<ObservableList<SpreadsheetCell>,
     private Region topRightRegion = null;
     private Region bottomRightRegion = null;
     private Region bottomLeftRegion = null;
+    /**
+     * The region drawn over the background of the cell while it flashes.
+     */
+    private Region flashRegion = null;
 
     public CellViewSkin(TableCell<ObservableList<SpreadsheetCell>, SpreadsheetCell> tableCell) {
         super(tableCell);
@@ -76,11 +83,48 @@ public class CellViewSkin extends TableCellSkin<ObservableList<SpreadsheetCell>,
     @Override
     protected void layoutChildren(double x, final double y, final double w, final double h) {
         super.layoutChildren(x, y, w, h);
+        if (flashRegion != null) {
+            layoutFlash();
+        }
         if (getSkinnable().getItem() != null) {
             layoutTriangle();
         }
     }
 
+    /**
+     * Draw the given background over the background of the cell, behind its
+     * content, or remove it if null.
+     *
+     * @param background
+     */
+    void setFlashBackground(Background background) {
+        if (background == null) {
+            if (flashRegion != null) {
+                getChildren().remove(flashRegion);
+                flashRegion = null;
+            }
+            return;
+        }
+        if (flashRegion == null) {
+            flashRegion = new Region();
+            flashRegion.getStyleClass().add("cell-flash"); //$NON-NLS-1$
+            flashRegion.setMouseTransparent(true);
+            flashRegion.setManaged(false);
+            getChildren().add(0, flashRegion);
+            layoutFlash();
+        }
+        flashRegion.setBackground(background);
+    }
+
+    private void layoutFlash() {
+        // The border of the cell stays visible.
+        final Border border = getSkinnable().getBorder();
+        final Insets insets = border == null ? Insets.EMPTY : border.getInsets();
+        flashRegion.resizeRelocate(insets.getLeft(), insets.getTop(),
+                getSkinnable().getWidth() - insets.getLeft() - insets.getRight(),
+                getSkinnable().getHeight() - insets.getTop() - insets.getBottom());
+    }
+
     private void layoutTriangle() {
         SpreadsheetCell cell = getSkinnable().getItem();
         
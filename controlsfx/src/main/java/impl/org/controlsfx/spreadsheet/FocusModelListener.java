@@ -132,7 +132,8 @@ public class FocusModelListener implements ChangeListener<TablePosition<Observab
      * @return
      */
     public static int getNextRowNumber(final TablePosition<?, ?> t, SpreadsheetGridView cellsView) {
-        return cellsView.getItems().get(t.getRow()).get(t.getColumn()).getRowSpan()
-                + cellsView.getItems().get(t.getRow()).get(t.getColumn()).getRow();
+        final SpreadsheetCell cell = cellsView.getItems().get(t.getRow()).get(t.getColumn());
+        // A span is displayed on consecutive rows starting at its origin.
+        return cell.getRowSpan() + cellsView.getSpreadsheetView().getViewRow(cell.getRow());
     }
 }
@@ -150,7 +150,7 @@ public class GridCellEditor {
                             getFocusModel().getFocusedCell();
                     if (position != null) {
                         int nextRow = FocusModelListener.getNextRowNumber(position, handle.getGridView());
-                        if(nextRow < handle.getView().getGrid().getRowCount()){
+                        if(nextRow < handle.getGridView().getItems().size()){
                             handle.getGridView().getSelectionModel().clearAndSelect(nextRow, position.getTableColumn());
                         }
                     }
@@ -0,0 +1,481 @@
+/**
+ * Copyright (c) 2014 ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package impl.org.controlsfx.spreadsheet;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+import javafx.event.EventHandler;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableView.TableViewSelectionModel;
+import javafx.scene.input.KeyEvent;
+
+import org.controlsfx.control.spreadsheet.Grid;
+import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+import org.controlsfx.control.spreadsheet.SpreadsheetView;
+
+/**
+ * The jump navigation of the SpreadsheetView, working like a spreadsheet
+ * application: the shortcut key with an arrow goes to the next non-empty cell,
+ * or to the end of the block of non-empty cells, or to the edge of the Grid.
+ * The shortcut key with Home goes to the first cell and with End to the last
+ * row and column containing data. With the shift key, the selection is
+ * extended from the anchor.
+ *
+ * Jumping vertically would need to scan the cells of the column one row after
+ * the other. Instead, the non-empty cells of each column are indexed in a
+ * BitSet the first time a jump is made in that column, so that the next
+ * non-empty cell is found a word at a time. A cell covered by a span is
+ * considered empty, only the origin of the span holds its value. The indexes
+ * follow the changes made through {@link Grid#setCellValue(int, int, Object)}
+ * and are dropped when the rows of the Grid change. The index of a column is
+ * also dropped when a cell of that column is replaced in its row, which is how
+ * the spans are changed.
+ */
+public class GridNavigator {
+
+    /***************************************************************************
+     * * Private Fields * *
+     **************************************************************************/
+    private final SpreadsheetHandle handle;
+    private Grid grid;
+    /**
+     * The non-empty cells of each column indexed by row of the Grid, or null
+     * if the column was never indexed.
+     */
+    private BitSet[] columns = new BitSet[0];
+    /**
+     * Whether the cells of every row are listened. It is only done once a
+     * column is indexed, since we need to go through all the rows anyway.
+     */
+    private boolean listeningCells = false;
+
+    private final ListChangeListener<ObservableList<SpreadsheetCell>> rowsListener = new ListChangeListener<ObservableList<SpreadsheetCell>>() {
+        @Override
+        public void onChanged(Change<? extends ObservableList<SpreadsheetCell>> c) {
+            Arrays.fill(columns, null);
+            if (listeningCells) {
+                while (c.next()) {
+                    for (ObservableList<SpreadsheetCell> row : c.getRemoved()) {
+                        row.removeListener(weakCellsListener);
+                    }
+                    for (ObservableList<SpreadsheetCell> row : c.getAddedSubList()) {
+                        row.addListener(weakCellsListener);
+                    }
+                }
+            }
+        }
+    };
+    private final WeakListChangeListener<ObservableList<SpreadsheetCell>> weakRowsListener = new WeakListChangeListener<>(rowsListener);
+
+    /**
+     * A cell replaced in a row may be the origin of a new span, or be covered
+     * by a span now, so the index of its column is dropped.
+     */
+    private final ListChangeListener<SpreadsheetCell> cellsListener = new ListChangeListener<SpreadsheetCell>() {
+        @Override
+        public void onChanged(Change<? extends SpreadsheetCell> c) {
+            while (c.next()) {
+                final int to = Math.min(columns.length, Math.max(c.getTo(), c.getFrom() + c.getRemovedSize()));
+                for (int column = c.getFrom(); column < to; ++column) {
+                    columns[column] = null;
+                }
+            }
+        }
+    };
+    private final WeakListChangeListener<SpreadsheetCell> weakCellsListener = new WeakListChangeListener<>(cellsListener);
+
+    private final EventHandler<KeyEvent> keyPressedFilter = new EventHandler<KeyEvent>() {
+        @Override
+        public void handle(KeyEvent event) {
+            if (event.isShortcutDown() && navigate(event)) {
+                event.consume();
+            }
+        }
+    };
+
+    /***************************************************************************
+     * * Constructor * *
+     **************************************************************************/
+    public GridNavigator(SpreadsheetHandle handle) {
+        this.handle = handle;
+        handle.getGridView().addEventFilter(KeyEvent.KEY_PRESSED, keyPressedFilter);
+    }
+
+    /***************************************************************************
+     * * Public Methods * *
+     **************************************************************************/
+    /**
+     * Drop the indexes of the previous Grid.
+     *
+     * @param grid
+     */
+    public void setGrid(Grid grid) {
+        if (this.grid != null) {
+            this.grid.getRows().removeListener(weakRowsListener);
+            if (listeningCells) {
+                for (ObservableList<SpreadsheetCell> row : this.grid.getRows()) {
+                    row.removeListener(weakCellsListener);
+                }
+            }
+        }
+        this.grid = grid;
+        listeningCells = false;
+        columns = new BitSet[grid.getColumnCount()];
+        grid.getRows().addListener(weakRowsListener);
+    }
+
+    /**
+     * Update the index of the cell situated at this position in the Grid.
+     *
+     * @param modelRow
+     * @param column
+     */
+    public void cellChanged(int modelRow, int column) {
+        final ObservableList<ObservableList<SpreadsheetCell>> rows = grid.getRows();
+        if (modelRow < 0 || modelRow >= rows.size() || column < 0 || column >= rows.get(modelRow).size()) {
+            return;
+        }
+        final SpreadsheetCell cell = rows.get(modelRow).get(column);
+        if (cell.getColumn() < columns.length && columns[cell.getColumn()] != null) {
+            columns[cell.getColumn()].set(cell.getRow(), isFilled(cell, cell.getRow(), cell.getColumn()));
+        }
+    }
+
+    /***************************************************************************
+     * * Private Methods * *
+     **************************************************************************/
+    /**
+     * Move the selection according to the key pressed with the shortcut key.
+     *
+     * @return true if the key was handled.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean navigate(KeyEvent event) {
+        final SpreadsheetView spv = handle.getView();
+        final SpreadsheetGridView cellsView = handle.getGridView();
+        final int rowCount = cellsView.getItems().size();
+        if (grid == null || rowCount == 0 || spv.getEditingCell() != null) {
+            return false;
+        }
+        final TablePosition<ObservableList<SpreadsheetCell>, ?> focused = (TablePosition<ObservableList<SpreadsheetCell>, ?>) cellsView
+                .getFocusModel().getFocusedCell();
+        final boolean hasFocus = focused != null && focused.getRow() >= 0 && focused.getRow() < rowCount
+                && focused.getColumn() >= 0;
+
+        final int row;
+        final int column;
+        switch (event.getCode()) {
+            case HOME:
+                row = 0;
+                column = 0;
+                break;
+            case END:
+                row = getLastFilledRow();
+                column = getLastFilledColumn();
+                break;
+            case DOWN:
+                if (!hasFocus) {
+                    return false;
+                }
+                row = getRowBelow(focused.getRow(), focused.getColumn());
+                column = getOrigin(focused.getRow(), focused.getColumn()).getColumn();
+                break;
+            case UP:
+                if (!hasFocus) {
+                    return false;
+                }
+                row = getRowAbove(focused.getRow(), focused.getColumn());
+                column = getOrigin(focused.getRow(), focused.getColumn()).getColumn();
+                break;
+            case RIGHT:
+                if (!hasFocus) {
+                    return false;
+                }
+                row = focused.getRow();
+                column = getColumnRight(focused.getRow(), focused.getColumn());
+                break;
+            case LEFT:
+                if (!hasFocus) {
+                    return false;
+                }
+                row = focused.getRow();
+                column = getColumnLeft(focused.getRow(), focused.getColumn());
+                break;
+            default:
+                return false;
+        }
+        select(row, column, event.isShiftDown() && hasFocus ? focused : null);
+        return true;
+    }
+
+    private void select(int row, int column, TablePosition<ObservableList<SpreadsheetCell>, ?> focused) {
+        final SpreadsheetGridView cellsView = handle.getGridView();
+        final TableColumn<ObservableList<SpreadsheetCell>, ?> tableColumn = cellsView.getColumns().get(column);
+        final TableViewSelectionModel<ObservableList<SpreadsheetCell>> sm = cellsView.getSelectionModel();
+        if (focused == null) {
+            sm.clearAndSelect(row, tableColumn);
+            CellView.setAnchor(cellsView, new TablePosition<>(cellsView, row, tableColumn));
+        } else {
+            final TablePosition<?, ?> anchor = CellView.getAnchor(cellsView, focused);
+            final int anchorColumn = anchor.getColumn() < 0 ? column : anchor.getColumn();
+            sm.clearSelection();
+            sm.selectRange(Math.min(anchor.getRow(), row), cellsView.getColumns().get(Math.min(anchorColumn, column)),
+                    Math.max(anchor.getRow(), row), cellsView.getColumns().get(Math.max(anchorColumn, column)));
+            cellsView.getFocusModel().focus(row, tableColumn);
+        }
+        cellsView.scrollTo(row);
+        cellsView.scrollToColumn(tableColumn);
+    }
+
+    /**
+     * @return the view row reached by going down from this cell.
+     */
+    private int getRowBelow(int viewRow, int column) {
+        final SpreadsheetCell cell = getOrigin(viewRow, column);
+        final BitSet filled = getColumn(cell.getColumn());
+        final int rowCount = handle.getGridView().getItems().size();
+        // The first row displayed after the current cell.
+        final int nextView = getViewRowAtOrAfter(cell.getRow() + cell.getRowSpan());
+        if (nextView >= rowCount) {
+            return rowCount - 1;
+        }
+        final int next = toModelRow(nextView);
+        if (filled.get(cell.getRow()) && filled.get(next)) {
+            // We go to the end of the block of filled cells.
+            return getViewRowAtOrBefore(filled.nextClearBit(next) - 1);
+        }
+        int target = filled.nextSetBit(next);
+        while (target >= 0 && isHidden(target)) {
+            target = filled.nextSetBit(target + 1);
+        }
+        return target < 0 ? rowCount - 1 : toViewRow(target);
+    }
+
+    /**
+     * @return the view row reached by going up from this cell.
+     */
+    private int getRowAbove(int viewRow, int column) {
+        final SpreadsheetCell cell = getOrigin(viewRow, column);
+        final BitSet filled = getColumn(cell.getColumn());
+        // The last row displayed before the current cell.
+        final int previousView = getViewRowAtOrAfter(cell.getRow()) - 1;
+        if (previousView < 0) {
+            return 0;
+        }
+        final int previous = toModelRow(previousView);
+        if (filled.get(cell.getRow()) && filled.get(previous)) {
+            // We go to the start of the block of filled cells.
+            return getViewRowAtOrAfter(filled.previousClearBit(previous) + 1);
+        }
+        int target = filled.previousSetBit(previous);
+        while (target >= 0 && isHidden(target)) {
+            target = filled.previousSetBit(target - 1);
+        }
+        return target < 0 ? 0 : toViewRow(target);
+    }
+
+    /**
+     * @return the column reached by going right from this cell.
+     */
+    private int getColumnRight(int viewRow, int column) {
+        final int modelRow = toModelRow(viewRow);
+        final List<SpreadsheetCell> cells = handle.getGridView().getItems().get(viewRow);
+        final SpreadsheetCell cell = cells.get(column);
+        final int next = cell.getColumn() + cell.getColumnSpan();
+        if (next >= cells.size()) {
+            return cells.size() - 1;
+        }
+        if (isFilled(cell, modelRow, cell.getColumn()) && isFilled(cells.get(next), modelRow, next)) {
+            int target = next;
+            while (target + 1 < cells.size() && isFilled(cells.get(target + 1), modelRow, target + 1)) {
+                ++target;
+            }
+            return target;
+        }
+        for (int target = next; target < cells.size(); ++target) {
+            if (isFilled(cells.get(target), modelRow, target)) {
+                return target;
+            }
+        }
+        return cells.size() - 1;
+    }
+
+    /**
+     * @return the column reached by going left from this cell.
+     */
+    private int getColumnLeft(int viewRow, int column) {
+        final int modelRow = toModelRow(viewRow);
+        final List<SpreadsheetCell> cells = handle.getGridView().getItems().get(viewRow);
+        final SpreadsheetCell cell = cells.get(column);
+        final int previous = cell.getColumn() - 1;
+        if (previous < 0) {
+            return 0;
+        }
+        if (isFilled(cell, modelRow, cell.getColumn()) && isFilled(cells.get(previous), modelRow, previous)) {
+            int target = previous;
+            while (target > 0 && isFilled(cells.get(target - 1), modelRow, target - 1)) {
+                --target;
+            }
+            return target;
+        }
+        for (int target = previous; target >= 0; --target) {
+            if (isFilled(cells.get(target), modelRow, target)) {
+                return target;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Go up from the last row of the Grid until a non-empty cell is found.
+     * The columns already indexed are not scanned again, and the others are
+     * not indexed since the data usually ends on the last rows.
+     *
+     * @return the last view row containing a non-empty cell.
+     */
+    private int getLastFilledRow() {
+        final ObservableList<ObservableList<SpreadsheetCell>> rows = grid.getRows();
+        int lastRow = -1;
+        for (int column = 0; column < columns.length; ++column) {
+            if (columns[column] != null) {
+                lastRow = Math.max(lastRow, columns[column].length() - 1);
+            }
+        }
+        for (int row = rows.size() - 1; row > lastRow; --row) {
+            final List<SpreadsheetCell> cells = rows.get(row);
+            for (int column = 0; column < cells.size() && column < columns.length; ++column) {
+                if (columns[column] == null && isFilled(cells.get(column), row, column)) {
+                    return getViewRowAtOrBefore(row);
+                }
+            }
+        }
+        return lastRow < 0 ? 0 : getViewRowAtOrBefore(lastRow);
+    }
+
+    /**
+     * Go left from the last column until a non-empty cell is found. A column
+     * that is not indexed is scanned from the bottom and stops at the first
+     * non-empty cell.
+     *
+     * @return the last column containing a non-empty cell.
+     */
+    private int getLastFilledColumn() {
+        final ObservableList<ObservableList<SpreadsheetCell>> rows = grid.getRows();
+        for (int column = columns.length - 1; column > 0; --column) {
+            if (columns[column] != null) {
+                if (!columns[column].isEmpty()) {
+                    return column;
+                }
+                continue;
+            }
+            for (int row = rows.size() - 1; row >= 0; --row) {
+                final List<SpreadsheetCell> cells = rows.get(row);
+                if (column < cells.size() && isFilled(cells.get(column), row, column)) {
+                    return column;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Return the index of this column, building it if needed.
+     */
+    private BitSet getColumn(int column) {
+        BitSet filled = columns[column];
+        if (filled == null) {
+            final ObservableList<ObservableList<SpreadsheetCell>> rows = grid.getRows();
+            filled = new BitSet(rows.size());
+            for (int row = 0; row < rows.size(); ++row) {
+                final ObservableList<SpreadsheetCell> cells = rows.get(row);
+                if (!listeningCells) {
+                    cells.addListener(weakCellsListener);
+                }
+                if (column < cells.size() && isFilled(cells.get(column), row, column)) {
+                    filled.set(row);
+                }
+            }
+            listeningCells = true;
+            columns[column] = filled;
+        }
+        return filled;
+    }
+
+    /**
+     * @return true if the cell starts at this position and displays
+     * something.
+     */
+    private static boolean isFilled(SpreadsheetCell cell, int modelRow, int column) {
+        if (cell.getRow() != modelRow || cell.getColumn() != column || cell.getItem() == null) {
+            return false;
+        }
+        final String text = cell.getText();
+        return text != null && !text.isEmpty();
+    }
+
+    private SpreadsheetCell getOrigin(int viewRow, int column) {
+        return handle.getGridView().getItems().get(viewRow).get(column);
+    }
+
+    private boolean isHidden(int modelRow) {
+        final HiddenRowsIndex index = handle.getHiddenRowsIndex();
+        return index != null && index.isHidden(modelRow);
+    }
+
+    private int toModelRow(int viewRow) {
+        final HiddenRowsIndex index = handle.getHiddenRowsIndex();
+        return index == null ? viewRow : index.toModelRow(viewRow);
+    }
+
+    private int toViewRow(int modelRow) {
+        final HiddenRowsIndex index = handle.getHiddenRowsIndex();
+        return index == null ? modelRow : index.toViewRow(modelRow);
+    }
+
+    /**
+     * @return the view row of the first row displayed at or after this row of
+     * the Grid.
+     */
+    private int getViewRowAtOrAfter(int modelRow) {
+        final HiddenRowsIndex index = handle.getHiddenRowsIndex();
+        return index == null ? modelRow : index.rank(modelRow);
+    }
+
+    /**
+     * @return the view row of the last row displayed at or before this row of
+     * the Grid.
+     */
+    private int getViewRowAtOrBefore(int modelRow) {
+        return Math.max(0, getViewRowAtOrAfter(modelRow + 1) - 1);
+    }
+}
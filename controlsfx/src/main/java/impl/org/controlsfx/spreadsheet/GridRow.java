@@ -32,6 +32,7 @@ import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableList;
+import javafx.scene.Node;
 import javafx.scene.control.Skin;
 import javafx.scene.control.TableRow;
 import org.controlsfx.control.spreadsheet.SpreadsheetCell;
@@ -78,9 +79,11 @@ public class GridRow extends TableRow<ObservableList<SpreadsheetCell>> {
 
             @Override
             public void onChanged(MapChangeListener.Change<? extends Integer, ? extends Double> change) {
-                if(change.wasAdded() && change.getKey() == getIndex()){
+                //The heights are stored by the rows of the Grid.
+                final int modelRow = handle.getView().getModelRow(getIndex());
+                if(change.wasAdded() && change.getKey() == modelRow){
                     setRowHeight(change.getValueAdded());
-                }else if(change.wasRemoved() && change.getKey() == getIndex()){
+                }else if(change.wasRemoved() && change.getKey() == modelRow){
                     setRowHeight(computePrefHeight(-1));
                 }
             }
@@ -102,6 +105,22 @@ public class GridRow extends TableRow<ObservableList<SpreadsheetCell>> {
         return handle.getView();
     }
 
+    @Override
+    public void updateIndex(int i) {
+        // The rows of a lazily validated grid are verified before being shown.
+        if (i >= 0 && i < handle.getGridView().getItems().size()) {
+            handle.verifyDisplayedRow(i);
+        }
+        super.updateIndex(i);
+        // The VirtualFlow reuses a row without updating its cells when the
+        // index is the same, the texts changed offscreen are displayed now.
+        for (Node child : getChildren()) {
+            if (child instanceof CellView) {
+                ((CellView) child).refreshText();
+            }
+        }
+    }
+
     @Override
     protected double computePrefHeight(double width) {
         return handle.getCellsViewSkin().getRowHeight(getIndex());
@@ -101,7 +101,7 @@ public class GridRowSkin extends TableRowSkin<ObservableList<SpreadsheetCell>> {
             return;
         }
         
-        final List<SpreadsheetCell> row = grid.getRows().get(index);
+        final List<SpreadsheetCell> row = gridView.getItems().get(index);
         final List<SpreadsheetColumn> columns = spreadsheetView.getColumns();
         final ObservableList<TableColumn<ObservableList<SpreadsheetCell>, ?>> tableViewColumns = gridView.getColumns();
         /**
@@ -236,10 +236,13 @@ public class GridRowSkin extends TableRowSkin<ObservableList<SpreadsheetCell>> {
                  * the rows. The height of the current row is ignored and the
                  * whole value is computed.
                  */
+                // A span is never cut by a collapsed group, so it is displayed
+                // on consecutive rows starting at the displayed index of its origin.
+                final int spanRow = spreadsheetView.getViewRow(spreadsheetCell.getRow());
                 if (spreadsheetCell.getRowSpan() > 1) {
                     height = 0;
-                    final int maxRow = spreadsheetCell.getRow() + spreadsheetCell.getRowSpan();
-                    for (int i = spreadsheetCell.getRow(); i < maxRow; ++i) {
+                    final int maxRow = spanRow + spreadsheetCell.getRowSpan();
+                    for (int i = spanRow; i < maxRow; ++i) {
                         height += snapSize(getTableRowHeight(i));
                     }
                 }
@@ -248,7 +251,7 @@ public class GridRowSkin extends TableRowSkin<ObservableList<SpreadsheetCell>> {
 
                 // We want to place the layout always at the starting cell.
                 double spaceBetweenTopAndMe = 0;
-                for (int p = spreadsheetCell.getRow(); p < index; ++p) {
+                for (int p = spanRow; p < index; ++p) {
                     spaceBetweenTopAndMe += getTableRowHeight(p);
                 }
 
@@ -277,7 +280,7 @@ public class GridRowSkin extends TableRowSkin<ObservableList<SpreadsheetCell>> {
          * a rowSpan, we want to put that tableCell ahead in term of z-order. So
          * we need to put it in another row.
          */
-        if (handle.getCellsViewSkin().rowToLayout.get(index)) {
+        if (handle.getCellsViewSkin().isRowToLayout(index)) {
             GridRow gridRow = handle.getCellsViewSkin().getFlow().getTopRow();
             if (gridRow != null) {
                 for (CellView cell : fixedCells) {
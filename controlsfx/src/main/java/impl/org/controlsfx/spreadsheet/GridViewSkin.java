@@ -29,6 +29,7 @@ package impl.org.controlsfx.spreadsheet;
 import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -63,6 +64,7 @@ import org.controlsfx.control.spreadsheet.Grid;
 import org.controlsfx.control.spreadsheet.SpreadsheetCell;
 import org.controlsfx.control.spreadsheet.SpreadsheetColumn;
 import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.controlsfx.tools.Metrics;
 
 import com.sun.javafx.css.StyleManager;
 import com.sun.javafx.scene.control.skin.TableHeaderRow;
@@ -141,6 +143,12 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
     /** The editor. */
     private GridCellEditor gridCellEditor;
 
+    /** Refresh the text of the cells once per pulse. */
+    private final CellRepaintScheduler repaintScheduler = new CellRepaintScheduler();
+
+    /** Make the cells flash when their value changes. */
+    private final CellFlashAnimator flashAnimator = new CellFlashAnimator(this);
+
     protected final SpreadsheetHandle handle;
     protected SpreadsheetView spreadsheetView;
     protected VerticalHeader verticalHeader;
@@ -175,7 +183,8 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
      * These variable try to optimize the layout of the rows in order not to layout
      * every time every row.
      * 
-     * So rowToLayout contains the rows that really needs layout(contain span or fixed).
+     * So rowToLayout contains the fixed rows, and spanRows the rows containing a
+     * span. Both really need layout.
      * 
      * And hBarValue is an indicator for the VirtualFlow. When the Hbar is touched, this BitSet
      * is set to false. And when a row is drawing, it flips its value in this BitSet. 
@@ -184,6 +193,41 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
      */
     BitSet hBarValue;
     BitSet rowToLayout;
+    /**
+     * The rows containing a span. A row is only scanned the first time it is
+     * displayed, so that a big Grid is shown without scanning all its cells.
+     */
+    private BitSet spanRows;
+    private BitSet spanRowsComputed;
+
+    /**
+     * Indicate whether the row displayed at this index needs layout all the
+     * time. The rowToLayout is indexed by the rows of the Grid so that it is
+     * not recomputed when some rows are collapsed.
+     * 
+     * @param row the index of the row displayed.
+     * @return
+     */
+    boolean isRowToLayout(int row) {
+        final int modelRow = spreadsheetView.getModelRow(row);
+        return modelRow >= 0 && (rowToLayout.get(modelRow) || isSpanRow(modelRow));
+    }
+
+    private boolean isSpanRow(int modelRow) {
+        if (!spanRowsComputed.get(modelRow)) {
+            spanRowsComputed.set(modelRow);
+            final Grid grid = handle.getView().getGrid();
+            if (modelRow < grid.getRowCount()) {
+                for (SpreadsheetCell cell : grid.getRows().get(modelRow)) {
+                    if (cell.getRowSpan() > 1 /*|| cell.getColumnSpan() >1*/) {
+                        spanRows.set(modelRow);
+                        break;
+                    }
+                }
+            }
+        }
+        return spanRows.get(modelRow);
+    }
     
     /**
      * This rectangle will be used for drawing a border around the selection.
@@ -240,12 +284,23 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
     /**
      * Compute the height of a particular row.
      * 
-     * @param row
+     * @param row the index of the row displayed.
      * @return
      */
     public double getRowHeight(int row) {
-        Double rowHeight = rowHeightMap.get(row);
-        return rowHeight == null ? handle.getView().getGrid().getRowHeight(row) : rowHeight;
+        return getModelRowHeight(spreadsheetView.getModelRow(row));
+    }
+
+    /**
+     * Compute the height of a particular row of the Grid, whether it is
+     * displayed or collapsed.
+     * 
+     * @param modelRow the index of the row in the Grid.
+     * @return
+     */
+    public double getModelRowHeight(int modelRow) {
+        Double rowHeight = rowHeightMap.get(modelRow);
+        return rowHeight == null ? handle.getView().getGrid().getRowHeight(modelRow) : rowHeight;
     }
 
     public double getFixedRowHeight() {
@@ -264,6 +319,14 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
         return gridCellEditor;
     }
 
+    public CellRepaintScheduler getRepaintScheduler() {
+        return repaintScheduler;
+    }
+
+    public CellFlashAnimator getFlashAnimator() {
+        return flashAnimator;
+    }
+
     /**
      * This return the GridRow which has the specified index if found. Otherwise
      * null is returned.
@@ -299,11 +362,7 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
      * @return
      */
     public final boolean containsRow(int index) {
-        for (Object obj : getFlow().getCells()) {
-            if (((GridRow) obj).getIndex() == index)
-                return true;
-        }
-        return false;
+        return getFlow().containsIndex(index);
     }
 
     public int getCellsSize() {
@@ -355,8 +414,10 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
             padding = r.snappedTopInset() + r.snappedBottomInset();
         }
 
+        final long start = Metrics.start();
         double maxHeight;
-        int maxRows = handle.getView().getGrid().getRowCount();
+        //We only compute the displayed rows, the collapsed ones keep their height.
+        int maxRows = items.size();
         for (int row = 0; row < maxRows; row++) {
             maxHeight = 0;
             for (TableColumn column : getSkinnable().getColumns()) {
@@ -374,8 +435,9 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
                     getChildren().remove(cell);
                 }
             }
-            rowHeightMap.put(row, maxHeight + padding);
+            rowHeightMap.put(spreadsheetView.getModelRow(row), maxHeight + padding);
         }
+        Metrics.stop(Metrics.SPREADSHEET_ROW_RESIZE, start, maxRows);
     }
     
     public void resizeRowsToMaximum() {
@@ -453,7 +515,7 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
             padding = r.snappedLeftInset() + r.snappedRightInset();
         }
 
-        ObservableList<ObservableList<SpreadsheetCell>> gridRows = spreadsheetView.getGrid().getRows();//.get(row)
+        ObservableList<ObservableList<SpreadsheetCell>> gridRows = handle.getGridView().getItems();//.get(row)
         
         int rows = maxRows == -1 ? items.size() : Math.min(items.size(), maxRows);
         double maxWidth = 0;
@@ -507,6 +569,16 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
         }
     }
 
+    /**
+     * Called when some rows have been collapsed or expanded. Every row
+     * displayed after the group has a new index, so the layout state kept by
+     * index is not valid anymore.
+     */
+    public void refreshCollapsedRows() {
+        hBarValue.clear();
+        verticalHeader.requestLayout();
+    }
+
     /***************************************************************************
      * * PRIVATE/PROTECTED METHOD * *
      **************************************************************************/
@@ -543,6 +615,7 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
         if (spreadsheetView == null) {
             return;
         }
+        final long start = Metrics.start();
         double verticalHeaderWidth = verticalHeader.computeHeaderWidth();
         double horizontalPickerHeight = spreadsheetView.getColumnPickers().isEmpty() ? 0: VerticalHeader.PICKER_SIZE;
         
@@ -577,27 +650,15 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
             layoutInArea(verticalHeader, x - verticalHeaderWidth, y - tableHeaderRowHeight, w, h, baselineOffset,
                     HPos.CENTER, VPos.CENTER);
         }
+        Metrics.stop(Metrics.SPREADSHEET_LAYOUT, start, getCellsSize());
     }
 
     @Override
     protected void onFocusPreviousCell() {
-        final TableFocusModel<?, ?> fm = getFocusModel();
-        if (fm == null) {
-            return;
-        }
         /*****************************************************************
          * MODIFIED
          *****************************************************************/
-        final int row = fm.getFocusedIndex();
-//        // We try to make visible the rows that may be hiden by Fixed rows
-        if (!getFlow().getCells().isEmpty()
-                && getFlow().getCells().get(spreadsheetView.getFixedRows().size()).getIndex() > row
-                && !spreadsheetView.getFixedRows().contains(row)) {
-            flow.scrollTo(row);
-        } else {
-            flow.show(row);
-        }
-        scrollHorizontally();
+        showFocusedRow();
         /*****************************************************************
          * END OF MODIFIED
          *****************************************************************/
@@ -605,26 +666,35 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
 
     @Override
     protected void onFocusNextCell() {
+        /*****************************************************************
+         * MODIFIED
+         *****************************************************************/
+        showFocusedRow();
+        /*****************************************************************
+         * END OF MODIFIED
+         *****************************************************************/
+    }
+
+    /**
+     * Show the focused row, and scroll to it if it is hidden by the fixed
+     * rows. This is called on every key repeat, so the fixed rows, which are
+     * kept sorted, are searched by dichotomy.
+     */
+    private void showFocusedRow() {
         final TableFocusModel<?, ?> fm = getFocusModel();
         if (fm == null) {
             return;
         }
-        /*****************************************************************
-         * MODIFIED
-         *****************************************************************/
         final int row = fm.getFocusedIndex();
+        final List<Integer> fixedRows = spreadsheetView.getFixedRows();
         // We try to make visible the rows that may be hidden by Fixed rows
-        if (!getFlow().getCells().isEmpty()
-                && getFlow().getCells().get(spreadsheetView.getFixedRows().size()).getIndex() > row
-                && !spreadsheetView.getFixedRows().contains(row)) {
+        if (getCellsSize() > fixedRows.size() && getRow(fixedRows.size()).getIndex() > row
+                && Collections.binarySearch(fixedRows, row) < 0) {
             flow.scrollTo(row);
         } else {
             flow.show(row);
         }
         scrollHorizontally();
-        /*****************************************************************
-         * END OF MODIFIED
-         *****************************************************************/
     }
 
     @Override
@@ -713,26 +783,21 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
     }
 
     /**
-     * Return a BitSet of the rows that needs layout all the time. This
-     * includes any row containing a span, or a fixed row.
+     * Return a BitSet of the fixed rows, which need layout all the time. The
+     * rows containing a span are found lazily by isSpanRow.
      * @return 
      */
     private BitSet initRowToLayoutBitSet(){
         Grid grid =  handle.getView().getGrid();
-        BitSet bitSet = new BitSet(grid.getRowCount());
-        for(int row = 0;row<grid.getRowCount();++row){
-            if(spreadsheetView.getFixedRows().contains(row)){
-                bitSet.set(row);
-                continue;
-            }
-            List<SpreadsheetCell> myRow = grid.getRows().get(row);
-            for(SpreadsheetCell cell:myRow){
-                
-                if(cell.getRowSpan()>1 /*|| cell.getColumnSpan() >1*/){
-                    bitSet.set(row);
-                    break;
-                }
-            }
+        spanRows = new BitSet();
+        spanRowsComputed = new BitSet();
+        // Without span, the rows are not created just to be scanned.
+        if (!grid.isSpanSupported()) {
+            spanRowsComputed.set(0, grid.getRowCount());
+        }
+        BitSet bitSet = new BitSet();
+        for (Integer fixedRow : spreadsheetView.getFixedRows()) {
+            bitSet.set(fixedRow);
         }
         return bitSet;
     }
@@ -762,18 +827,8 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
                     }
                 } else {
                     for (Integer unfixedRow : c.getRemoved()) {
-                        rowToLayout.set(unfixedRow, false);
-                    //If the grid permits it, we check the spanning in order not
-                        //to remove a row that might need layout.
-                        if (spreadsheetView.getGrid().getRows().size() > unfixedRow) {
-                            List<SpreadsheetCell> myRow = spreadsheetView.getGrid().getRows().get(unfixedRow);
-                            for (SpreadsheetCell cell : myRow) {
-                                if (cell.getRowSpan() > 1 || cell.getColumnSpan() > 1) {
-                                    rowToLayout.set(unfixedRow, true);
-                                    break;
-                                }
-                            }
-                        }
+                        //The row still needs layout if it has a span, see isRowToLayout.
+                        rowToLayout.clear(unfixedRow);
                     }
 
                     //We check for the newly fixedRow
@@ -805,7 +860,7 @@ public class GridViewSkin extends TableViewSkin<ObservableList<SpreadsheetCell>>
     private void computeFixedRowHeight() {
         fixedRowHeight = 0;
         for (int i : getCurrentlyFixedRow()) {
-            fixedRowHeight += getRowHeight(i);
+            fixedRowHeight += getModelRowHeight(i);
         }
     }
 
@@ -29,46 +29,23 @@ package impl.org.controlsfx.spreadsheet;
 import com.sun.javafx.scene.control.skin.VirtualFlow;
 import com.sun.javafx.scene.control.skin.VirtualScrollBar;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ListChangeListener;
-import javafx.collections.ObservableList;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.control.IndexedCell;
-import javafx.scene.control.TableRow;
 import javafx.scene.layout.Region;
 import javafx.scene.shape.Rectangle;
-import org.controlsfx.control.spreadsheet.SpreadsheetCell;
 import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.controlsfx.tools.Metrics;
 
 final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
     
-    /**
-     * With that comparator we can lay out our rows in the reverse order. That
-     * is to say from the bottom to the very top. In that manner we are sure
-     * that our spanning cells will COVER the cell below so we don't have any
-     * problems with missing hovering, the editor jammed etc.
-     * <br/>
-     *
-     * The only problem is for the fixed column but the {@link #getTopRow(int) }
-     * now returns the very first row and allow us to put some priviledge
-     * TableCell in it if they feel the need to be on top in term of z-order.
-     *
-     * FIXME The best would be to put a TreeList of something like that in order
-     * not to sort the rows everytime, need investigation..
-     */
-    private static final Comparator<GridRow> ROWCMP = new Comparator<GridRow>() {
-        @Override
-        public int compare(GridRow firstRow, GridRow secondRow) {
-            //o1.getIndex() < o2.getIndex() ? -1 : +1;
-            return secondRow.getIndex() - firstRow.getIndex();
-        }
-    };
-
     /***************************************************************************
      * * Private Fields * *
      **************************************************************************/
@@ -76,9 +53,10 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
     private final GridViewSkin gridViewSkin;
     /**
      * Store the fixedRow in order to place them at the top when necessary.
-     * That is to say, when the VirtualFlow has not already placed one.
+     * That is to say, when the VirtualFlow has not already placed one. They
+     * are indexed by their row so we can find them directly.
      */
-    private final ArrayList<T> myFixedCells = new ArrayList<>();
+    private final Map<Integer, T> myFixedCells = new HashMap<>();
     public final List<Node> sheetChildren;
     
     /***************************************************************************
@@ -125,14 +103,10 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
 					if(change.wasRemoved()){
 						List<? extends Integer> list = change.getRemoved();
 						for(Integer i:list){
-							for(T cell:myFixedCells){
-								if(cell.getIndex() == i){
-									cell.setManaged(false);
-									cell.setVisible(false);
-//                                                                        sheetChildren.remove(cell);
-									myFixedCells.remove(cell);
-									break;
-								}
+							T cell = myFixedCells.remove(i);
+							if(cell != null){
+								cell.setManaged(false);
+								cell.setVisible(false);
 							}
 						}
 					}
@@ -156,7 +130,7 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
     		
 			while(offset >=0 && index >0){
 				index--;
-				offset-=spreadSheetView.getGrid().getRowHeight(index);
+				offset-=gridViewSkin.getRowHeight(index);
 			}
         }
         super.scrollTo(index);
@@ -192,6 +166,14 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
         }
         return null;
     }
+
+    /**
+     * @return the fixed rows created by this flow to be laid out on top of the
+     * others, which are not part of {@link #getCells()}.
+     */
+    Collection<T> getFixedCells() {
+        return myFixedCells.values();
+    }
     
     @Override
     protected void layoutChildren() {
@@ -200,10 +182,11 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
         if (spreadSheetView != null
                 && (spreadSheetView.getEditingCell() == null || spreadSheetView
                         .getEditingCell().getRow() == -1)) {
-            sortRows();
+            final long start = Metrics.start();
             super.layoutChildren();
             layoutTotal();
             layoutFixedRows();
+            Metrics.stop(Metrics.SPREADSHEET_FLOW_LAYOUT, start, getCells().size());
         }
     }
 
@@ -229,7 +212,7 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
         }
         
         for (GridRow cell : (List<GridRow>)getCells()) {
-            if (cell != null &&  (!gridViewSkin.hBarValue.get(cell.getIndex()) || gridViewSkin.rowToLayout.get(cell.getIndex()))) {
+            if (cell != null &&  (!gridViewSkin.hBarValue.get(cell.getIndex()) || gridViewSkin.isRowToLayout(cell.getIndex()))) {
                 cell.requestLayout();
             }
         }
@@ -280,7 +263,6 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
 		//We must have a cell in ViewPort because otherwise
         //we short-circuit the VirtualFlow.
         if (spreadSheetView.getFixedRows().size() > 0 && getFirstVisibleCellWithinViewPort() != null) {
-            sortRows();
             /**
              * What I do is just going after the VirtualFlow in order to ADD
              * (not replace like before) new rows at the top.
@@ -291,11 +273,11 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
              */
             T row = null;
             Integer fixedRowIndex;
+            final List<T> cells = getCells();
+            final T lastCell = getLastVisibleCellWithinViewPort();
             
-            rows:
             for (int i = spreadSheetView.getFixedRows().size() - 1; i >= 0; i--) {
                 fixedRowIndex = spreadSheetView.getFixedRows().get(i);
-                T lastCell = getLastVisibleCellWithinViewPort();
                 //If the fixed row is out of bounds
                 if (lastCell != null && fixedRowIndex > lastCell.getIndex()) {
                     if (row != null) {
@@ -307,32 +289,28 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
                 }
 
                 //We see if the row is laid out by the VirtualFlow
-                for (T virtualFlowCells : getCells()) {
-                    if (virtualFlowCells.getIndex() > fixedRowIndex) {
-                        break;
-                    } else if (virtualFlowCells.getIndex() == fixedRowIndex) {
-                        row = containsRows(fixedRowIndex);
-                        if (row != null) {
-                            row.setVisible(false);
-                            row.setManaged(false);
-                            sheetChildren.remove(row);
-                        }
-                        /**
-                         * OLD COMMENT : We must push to Front only if the row
-                         * is at the very top and has a risk to be recovered.
-                         * This is happening only if this row is translated.
-                         *
-                         * NEW COMMENT: I'm not sure about this.. Since the
-                         * fixedColumn are not in the special top row, we don't
-                         * care if the row is pushed to front.. need
-                         * investigation
-                         */
-                        virtualFlowCells.toFront();
-                        continue rows;
+                final T virtualFlowCell = getCellIndexed(cells, fixedRowIndex);
+                if (virtualFlowCell != null) {
+                    row = myFixedCells.get(fixedRowIndex);
+                    if (row != null) {
+                        row.setVisible(false);
+                        row.setManaged(false);
+                        sheetChildren.remove(row);
                     }
+                    /**
+                     * OLD COMMENT : We must push to Front only if the row is
+                     * at the very top and has a risk to be recovered. This is
+                     * happening only if this row is translated.
+                     *
+                     * NEW COMMENT: I'm not sure about this.. Since the
+                     * fixedColumn are not in the special top row, we don't
+                     * care if the row is pushed to front.. need investigation
+                     */
+                    virtualFlowCell.toFront();
+                    continue;
                 }
                 
-                row = containsRows(fixedRowIndex);
+                row = myFixedCells.get(fixedRowIndex);
                 if (row == null) {
                     /**
                      * getAvailableCell is not added our cell to the ViewPort in some cases.
@@ -343,7 +321,7 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
                 	 
                     setCellIndex(row, fixedRowIndex);
                     resizeCellSize(row);
-                    myFixedCells.add(row);
+                    myFixedCells.put(fixedRowIndex, row);
                 }
                 
                 /**
@@ -364,26 +342,61 @@ final class GridVirtualFlow<T extends IndexedCell<?>> extends VirtualFlow<T> {
     }
 
     /**
-     * Verify if the row has been added to myFixedCell
-     * @param i
+     * @param index
+     * @return true if that row is laid out by the VirtualFlow.
+     */
+    boolean containsIndex(int index) {
+        return getCellIndexed(getCells(), index) != null;
+    }
+
+    /**
+     * Return the cell of the VirtualFlow displaying that row, or null if the
+     * row is not laid out by the VirtualFlow. The cells are always covering
+     * consecutive rows, so we can compute directly where the row should be.
+     *
+     * @param cells
+     * @param index
      * @return
      */
-    private T containsRows(int i){
-    	for(T cell:myFixedCells){
-    		if(cell.getIndex() == i)
-    			return cell;
-    	}
-    	return null;
+    private T getCellIndexed(List<T> cells, int index) {
+        if (cells.isEmpty()) {
+            return null;
+        }
+        final int position = index - cells.get(0).getIndex();
+        if (position >= 0 && position < cells.size()) {
+            final T cell = cells.get(position);
+            if (cell.getIndex() == index) {
+                return cell;
+            }
+            // Should not happen, but we don't want to miss the row.
+            for (T other : cells) {
+                if (other.getIndex() == index) {
+                    return other;
+                }
+            }
+        }
+        return null;
     }
+
     /**
-     * Sort the rows so that they stay in order for layout
+     * Put the rows in reverse order in term of z-order. That is to say from
+     * the bottom to the very top. In that manner we are sure that our spanning
+     * cells will COVER the cell below so we don't have any problems with
+     * missing hovering, the editor jammed etc.
+     * <br/>
+     *
+     * The only problem is for the fixed column but the {@link #getTopRow() }
+     * now returns the very first row and allow us to put some priviledge
+     * TableCell in it if they feel the need to be on top in term of z-order.
+     * <br/>
+     *
+     * The cells of the VirtualFlow are already sorted by index, so we just
+     * need to walk them backward.
      */
     private void sortRows() {
-        final List<GridRow> temp = (List<GridRow>) getCells();
-        final List<GridRow> tset = new ArrayList<>(temp);
-        Collections.sort(tset, ROWCMP);
-        for (final TableRow<ObservableList<SpreadsheetCell>> r : tset) {
-            r.toFront();
+        final List<T> cells = getCells();
+        for (int i = cells.size() - 1; i >= 0; --i) {
+            cells.get(i).toFront();
         }
     }
     
@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2014 ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package impl.org.controlsfx.spreadsheet;
+
+/**
+ * This class maps the rows of the model (the Grid) to the rows of the view
+ * (the TableView) when some rows are collapsed.
+ *
+ * A collapsed range adds one to the cover count of its rows, so that nested
+ * groups can be collapsed and expanded independently. A row is hidden as long
+ * as one collapsed range covers it.
+ *
+ * The counts are kept in a segment tree where each node stores how many rows
+ * of its interval are visible. Collapsing or expanding a range, translating a
+ * model row into a view row (rank) and a view row into a model row (select)
+ * are all O(log n), whatever the size of the range. The tree is only allocated
+ * when a range is collapsed for the first time.
+ */
+public class HiddenRowsIndex {
+
+    /***************************************************************************
+     * * Private Fields * *
+     **************************************************************************/
+    private final int rowCount;
+    /**
+     * Number of leaves in the tree, the smallest power of two greater or equal
+     * to the rowCount.
+     */
+    private int leafCount;
+    /**
+     * How many collapsed ranges are covering exactly the interval of each node.
+     */
+    private int[] cover;
+    /**
+     * How many rows are visible in the interval of each node.
+     */
+    private int[] visible;
+
+    /***************************************************************************
+     * * Constructor * *
+     **************************************************************************/
+    public HiddenRowsIndex(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /***************************************************************************
+     * * Public Methods * *
+     **************************************************************************/
+    /**
+     * @return true if at least one row is hidden.
+     */
+    public boolean hasHiddenRows() {
+        return visible != null && visible[1] != rowCount;
+    }
+
+    /**
+     * @return the number of rows displayed.
+     */
+    public int getVisibleCount() {
+        return visible == null ? rowCount : visible[1];
+    }
+
+    /**
+     * Hide the rows between from (inclusive) and to (exclusive).
+     *
+     * @param from
+     * @param to
+     */
+    public void collapse(int from, int to) {
+        if (cover == null) {
+            allocate();
+        }
+        update(1, 0, leafCount, from, to, 1);
+    }
+
+    /**
+     * Remove a range previously given to {@link #collapse(int, int) }. The
+     * rows are shown again if no other collapsed range covers them.
+     *
+     * @param from
+     * @param to
+     */
+    public void expand(int from, int to) {
+        if (cover == null) {
+            return;
+        }
+        update(1, 0, leafCount, from, to, -1);
+    }
+
+    /**
+     * @param modelRow
+     * @return true if this row of the Grid is not displayed.
+     */
+    public boolean isHidden(int modelRow) {
+        if (!hasHiddenRows() || modelRow < 0 || modelRow >= rowCount) {
+            return false;
+        }
+        for (int node = leafCount + modelRow; node >= 1; node >>= 1) {
+            if (cover[node] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the number of times the row is covered by a collapsed range.
+     *
+     * @param modelRow
+     * @return the number of collapsed ranges covering this row.
+     */
+    public int getCoverCount(int modelRow) {
+        if (cover == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int node = leafCount + modelRow; node >= 1; node >>= 1) {
+            count += cover[node];
+        }
+        return count;
+    }
+
+    /**
+     * Return the view row of this model row, or -1 if it is hidden.
+     *
+     * @param modelRow
+     * @return the view row of this model row, or -1 if it is hidden.
+     */
+    public int toViewRow(int modelRow) {
+        if (!hasHiddenRows()) {
+            return modelRow;
+        }
+        if (modelRow < 0 || modelRow >= rowCount || isHidden(modelRow)) {
+            return -1;
+        }
+        return rank(modelRow);
+    }
+
+    /**
+     * Return the model row displayed at this view row, or -1 if the view row
+     * is out of bounds.
+     *
+     * @param viewRow
+     * @return the model row displayed at this view row.
+     */
+    public int toModelRow(int viewRow) {
+        if (!hasHiddenRows()) {
+            return viewRow;
+        }
+        if (viewRow < 0 || viewRow >= visible[1]) {
+            return -1;
+        }
+        int node = 1;
+        int remaining = viewRow;
+        while (node < leafCount) {
+            final int left = node << 1;
+            if (remaining < visible[left]) {
+                node = left;
+            } else {
+                remaining -= visible[left];
+                node = left + 1;
+            }
+        }
+        return node - leafCount;
+    }
+
+    /**
+     * Return the number of visible rows before this model row.
+     *
+     * @param modelRow
+     * @return the number of visible rows before this model row.
+     */
+    public int rank(int modelRow) {
+        if (!hasHiddenRows()) {
+            return modelRow;
+        }
+        if (modelRow >= rowCount) {
+            return visible[1];
+        }
+        int count = 0;
+        int node = 1;
+        int start = 0;
+        int size = leafCount;
+        while (size > 1 && cover[node] == 0) {
+            size >>= 1;
+            final int left = node << 1;
+            if (modelRow < start + size) {
+                node = left;
+            } else {
+                count += visible[left];
+                start += size;
+                node = left + 1;
+            }
+        }
+        return count;
+    }
+
+    /***************************************************************************
+     * * Private Methods * *
+     **************************************************************************/
+    private void allocate() {
+        leafCount = 1;
+        while (leafCount < rowCount) {
+            leafCount <<= 1;
+        }
+        cover = new int[leafCount << 1];
+        visible = new int[leafCount << 1];
+        for (int row = 0; row < rowCount; ++row) {
+            visible[leafCount + row] = 1;
+        }
+        for (int node = leafCount - 1; node >= 1; --node) {
+            visible[node] = visible[node << 1] + visible[(node << 1) + 1];
+        }
+    }
+
+    private void update(int node, int start, int end, int from, int to, int delta) {
+        if (to <= start || end <= from) {
+            return;
+        }
+        if (from <= start && end <= to) {
+            cover[node] += delta;
+        } else {
+            final int middle = (start + end) >>> 1;
+            update(node << 1, start, middle, from, to, delta);
+            update((node << 1) + 1, middle, end, from, to, delta);
+        }
+        pull(node, start, end);
+    }
+
+    private void pull(int node, int start, int end) {
+        if (cover[node] > 0) {
+            visible[node] = 0;
+        } else if (node >= leafCount) {
+            visible[node] = start < rowCount ? 1 : 0;
+        } else {
+            visible[node] = visible[node << 1] + visible[(node << 1) + 1];
+        }
+    }
+}
@@ -131,7 +131,7 @@ public class RectangleSelection extends Rectangle {
             return;
         }
 
-        SpreadsheetCell cell = skin.spreadsheetView.getGrid().getRows().get(maxRow).get(maxColumn);
+        SpreadsheetCell cell = skin.getSkinnable().getItems().get(maxRow).get(maxColumn);
         handleHorizontalPositioning(minColumn, maxColumn, cell.getColumnSpan());
 
         //If we are out of sight
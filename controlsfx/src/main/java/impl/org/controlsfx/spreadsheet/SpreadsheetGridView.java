@@ -30,6 +30,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.control.TableView;
 
 import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+import org.controlsfx.control.spreadsheet.SpreadsheetView;
 
 public class SpreadsheetGridView extends TableView<ObservableList<SpreadsheetCell>> {
 	private final SpreadsheetHandle handle;
@@ -66,6 +67,10 @@ public class SpreadsheetGridView extends TableView<ObservableList<SpreadsheetCel
 	public GridViewSkin getGridViewSkin() {
 		return handle.getCellsViewSkin();
 	}
+
+	public SpreadsheetView getSpreadsheetView() {
+		return handle.getView();
+	}
 	
 	public boolean getEditWithEnter(){
 	    return editWithEnter;
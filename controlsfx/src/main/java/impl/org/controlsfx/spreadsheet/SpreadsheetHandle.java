@@ -39,4 +39,8 @@ public abstract class SpreadsheetHandle {
 	protected abstract SpreadsheetGridView getGridView();
 	/** Accesses the grid view (ie cell table view). */
 	protected abstract GridViewSkin getCellsViewSkin();
+	/** Verifies the row about to be displayed, if the grid is lazily validated. */
+	protected abstract void verifyDisplayedRow(int row);
+	/** Accesses the rows hidden by the collapsed groups, may be null. */
+	protected abstract HiddenRowsIndex getHiddenRowsIndex();
 }
@@ -52,6 +52,7 @@ import javafx.util.Duration;
 import javafx.util.Pair;
 import org.controlsfx.control.spreadsheet.SpreadsheetCell;
 import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.controlsfx.tools.Metrics;
 
 /**
  *
@@ -331,12 +332,15 @@ public class SpreadsheetViewSelectionModel extends
         if (!drag && key && getCellsViewSkin().getCellsSize() != 0 && spreadsheetView.getFixedRows().size() != 0) {
 
             int start = getCellsViewSkin().getRow(0).getIndex();
+            final double fixedRowHeight = getCellsViewSkin().getFixedRowHeight();
             double posFinalOffset = 0;
-            for (int j = start; j < posFinal.getRow(); ++j) {
+            // We only need to know whether the fixed rows are covering the
+            // row, so we stop as soon as we are below them.
+            for (int j = start; j < posFinal.getRow() && posFinalOffset < fixedRowHeight; ++j) {
                 posFinalOffset += getSpreadsheetViewSkin().getRowHeight(j);
             }
 
-            if (getCellsViewSkin().getFixedRowHeight() > posFinalOffset) {
+            if (fixedRowHeight > posFinalOffset) {
                 cellsView.scrollTo(posFinal.getRow());
             }
         }
@@ -397,7 +401,7 @@ public class SpreadsheetViewSelectionModel extends
             // We store all the selectedColumn and Rows, we will update
             // just once at the end
             final SpreadsheetCell cell = cellsView.getItems().get(pos.getRow()).get(pos.getColumn());
-            for (int i = cell.getRow(); i < cell.getRowSpan() + cell.getRow(); ++i) {
+            for (int i = spreadsheetView.getViewRow(cell.getRow()), maxRow = i + cell.getRowSpan(); i < maxRow; ++i) {
                 selectedColumns.add(i);
                 for (int j = cell.getColumn(); j < cell.getColumnSpan() + cell.getColumn(); ++j) {
                     selectedRows.add(j);
@@ -429,6 +433,7 @@ public class SpreadsheetViewSelectionModel extends
             select(maxRow, maxColumn);
             return;
         }
+        final long start = Metrics.start();
         SpreadsheetCell cell;
         
         makeAtomic = true;
@@ -470,7 +475,7 @@ public class SpreadsheetViewSelectionModel extends
                 // We store all the selectedColumn and Rows, we will update
                 // just once at the end
                cell = cellsView.getItems().get(pos.getRow()).get(pos.getColumn());
-                for (int i = cell.getRow(); i < cell.getRowSpan() + cell.getRow(); ++i) {
+                for (int i = spreadsheetView.getViewRow(cell.getRow()), maxRow = i + cell.getRowSpan(); i < maxRow; ++i) {
                     selectedColumns.add(i);
                     for (int j = cell.getColumn(); j < cell.getColumnSpan() + cell.getColumn(); ++j) {
                         selectedRows.add(j);
@@ -502,6 +507,7 @@ public class SpreadsheetViewSelectionModel extends
         setSelectedIndex(maxRow);
         setSelectedItem(getModelItem(maxRow));
         if (getTableView().getFocusModel() == null) {
+            Metrics.stop(Metrics.SPREADSHEET_SELECTION, start, selectedCellsMap.size());
             return;
         }
 
@@ -513,6 +519,7 @@ public class SpreadsheetViewSelectionModel extends
                 (TableColumn<ObservableList<SpreadsheetCell>, ?>) maxColumn));
         handleSelectedCellsListChangeEvent(new NonIterableChange.SimpleAddChange<>(startChangeIndex,
                 endChangeIndex + 1, selectedCellsSeq));
+        Metrics.stop(Metrics.SPREADSHEET_SELECTION, start, selectedCellsMap.size());
     }
 
     @Override
@@ -521,6 +528,7 @@ public class SpreadsheetViewSelectionModel extends
             return;
         }
 
+        final long start = Metrics.start();
         quietClearSelection();
 
         List<TablePosition<ObservableList<SpreadsheetCell>, ?>> indices = new ArrayList<>();
@@ -543,7 +551,7 @@ public class SpreadsheetViewSelectionModel extends
         }
 
         ArrayList<Integer> selectedRows = new ArrayList<>();
-        for (int row = 0; row < spreadsheetView.getGrid().getRowCount(); row++) {
+        for (int row = 0; row < cellsView.getItems().size(); row++) {
             selectedRows.add(row);
         }
         getSpreadsheetViewSkin().getSelectedRows().addAll(selectedRows);
@@ -553,6 +561,7 @@ public class SpreadsheetViewSelectionModel extends
             select(tp.getRow(), tp.getTableColumn());
             getTableView().getFocusModel().focus(tp.getRow(), tp.getTableColumn());
         }
+        Metrics.stop(Metrics.SPREADSHEET_SELECTION, start, selectedCellsMap.size());
     }
 
     @Override
@@ -592,7 +601,7 @@ public class SpreadsheetViewSelectionModel extends
         }
 
         final SpreadsheetCell cellSpan = cellsView.getItems().get(row).get(col);
-        final int infRow = cellSpan.getRow();
+        final int infRow = spreadsheetView.getViewRow(cellSpan.getRow());
         final int supRow = infRow + cellSpan.getRowSpan();
 
         final int infCol = cellSpan.getColumn();
@@ -618,7 +627,7 @@ public class SpreadsheetViewSelectionModel extends
             return;
         }
         final SpreadsheetCell cell = cellsView.getItems().get(position.getRow()).get(position.getColumn());
-        for (int i = cell.getRow(); i < cell.getRowSpan() + cell.getRow(); ++i) {
+        for (int i = spreadsheetView.getViewRow(cell.getRow()), maxRow = i + cell.getRowSpan(); i < maxRow; ++i) {
             skin.getSelectedRows().add(i);
             for (int j = cell.getColumn(); j < cell.getColumnSpan() + cell.getColumn(); ++j) {
                 skin.getSelectedColumns().add(j);
@@ -628,7 +637,7 @@ public class SpreadsheetViewSelectionModel extends
 
     private void removeSelectedRowsAndColumns(TablePosition<?, ?> position) {
         final SpreadsheetCell cell = cellsView.getItems().get(position.getRow()).get(position.getColumn());
-        for (int i = cell.getRow(); i < cell.getRowSpan() + cell.getRow(); ++i) {
+        for (int i = spreadsheetView.getViewRow(cell.getRow()), maxRow = i + cell.getRowSpan(); i < maxRow; ++i) {
             getSpreadsheetViewSkin().getSelectedRows().remove(Integer.valueOf(i));
             for (int j = cell.getColumn(); j < cell.getColumnSpan() + cell.getColumn(); ++j) {
                 getSpreadsheetViewSkin().getSelectedColumns().remove(Integer.valueOf(j));
@@ -777,6 +786,9 @@ public class SpreadsheetViewSelectionModel extends
      * of the span cell if it's visible, or it can be the first row visible if
      * we have scrolled
      *
+     * A cell that does not span is returned directly, without computing its
+     * SpanType, since it is the most typical case when moving with the keys.
+     *
      * @param row
      * @param column
      * @param col
@@ -784,6 +796,10 @@ public class SpreadsheetViewSelectionModel extends
      */
     private TablePosition<ObservableList<SpreadsheetCell>, ?> getVisibleCell(int row,
             TableColumn<ObservableList<SpreadsheetCell>, ?> column, int col) {
+        final SpreadsheetCell cellSpan = cellsView.getItems().get(row).get(col);
+        if (cellSpan.getRowSpan() == 1 && cellSpan.getColumnSpan() == 1) {
+            return new TablePosition<>(cellsView, row, column);
+        }
         final SpreadsheetView.SpanType spanType = spreadsheetView.getSpanType(row, col);
         switch (spanType) {
             case NORMAL_CELL:
@@ -793,15 +809,12 @@ public class SpreadsheetViewSelectionModel extends
             case COLUMN_SPAN_INVISIBLE:
             case ROW_SPAN_INVISIBLE:
             default:
-                final SpreadsheetCell cellSpan = cellsView.getItems().get(row).get(col);
-                if (getCellsViewSkin().getCellsSize() != 0 && getNonFixedRow(0).getIndex() <= cellSpan.getRow()) {
-                    return new TablePosition<>(cellsView, cellSpan.getRow(), cellsView.getColumns().get(
-                            cellSpan.getColumn()));
-
-                } else { // If it's not, then it's the firstkey
-                    return new TablePosition<>(cellsView, getNonFixedRow(0).getIndex(), cellsView.getColumns().get(
-                            cellSpan.getColumn()));
-                }
+                final int spanRow = spreadsheetView.getViewRow(cellSpan.getRow());
+                // If the origin is scrolled above the first row laid out, then
+                // it's the first row.
+                final int firstRow = getCellsViewSkin().getCellsSize() == 0 ? spanRow : getNonFixedRow(0).getIndex();
+                return new TablePosition<>(cellsView, Math.max(spanRow, firstRow), cellsView.getColumns().get(
+                        cellSpan.getColumn()));
         }
     }
 
@@ -58,6 +58,7 @@ import javafx.scene.shape.Rectangle;
 import javafx.stage.WindowEvent;
 import org.controlsfx.control.spreadsheet.SpreadsheetCell;
 import org.controlsfx.control.spreadsheet.SpreadsheetView;
+import org.controlsfx.tools.Metrics;
 
 /**
  * Display the vertical header on the left of the cells (view), the index of the
@@ -196,6 +197,7 @@ public class VerticalHeader extends StackPane {
             return;
         }
         if ((spreadsheetView.isShowRowHeader() || !spreadsheetView.getRowPickers().isEmpty()) && skin.getCellsSize() > 0) {
+            final long start = Metrics.start();
 
             double x = snappedLeftInset();
             /**
@@ -251,6 +253,7 @@ public class VerticalHeader extends StackPane {
                 label.setContextMenu(blankContextMenu);
                 getChildren().add(label);
             }
+            Metrics.stop(Metrics.SPREADSHEET_HEADER_LAYOUT, start, rowCount);
         } else {
             getChildren().clear();
         }
@@ -314,20 +317,22 @@ public class VerticalHeader extends StackPane {
 
         Label label;
         // We don't want to add Label if there are no rows associated with.
-        final int modelRowCount = spreadsheetView.getGrid().getRowCount();
+        final int viewRowCount = handle.getGridView().getItems().size();
 
         int i = 0;
 
         GridRow row = skin.getRow(i);
 
         // We iterate over the visibleRows
-        while (cellSize != 0 && row != null && row.getIndex() < modelRowCount) {
+        while (cellSize != 0 && row != null && row.getIndex() < viewRowCount) {
             rowIndex = row.getIndex();
+            // The pickers, headers and fixed rows refer to the rows of the Grid.
+            final int modelRowIndex = spreadsheetView.getModelRow(rowIndex);
             /**
              * Picker
              */
-            if (spreadsheetView.getRowPickers().contains(rowIndex)) {
-                Label picker = getPicker(rowIndex);
+            if (spreadsheetView.getRowPickers().contains(modelRowIndex)) {
+                Label picker = getPicker(modelRowIndex);
                 picker.resize(PICKER_SIZE, row.getHeight());
                 picker.layoutYProperty().bind(row.layoutYProperty().add(horizontalHeaderHeight));
                 getChildren().add(picker);
@@ -336,11 +341,11 @@ public class VerticalHeader extends StackPane {
             if (spreadsheetView.isShowRowHeader()) {
                 label = getLabel(rowCount++);
 
-                label.setText(getRowHeader(rowIndex));
+                label.setText(getRowHeader(modelRowIndex));
                 label.resize(spreadsheetView.getRowHeaderWidth(), row.getHeight());
                 label.setLayoutX(x);
                 label.layoutYProperty().bind(row.layoutYProperty().add(horizontalHeaderHeight));
-                label.setContextMenu(getRowContextMenu(rowIndex));
+                label.setContextMenu(getRowContextMenu(modelRowIndex));
 
                 getChildren().add(label);
                 // We want to highlight selected rows
@@ -350,7 +355,7 @@ public class VerticalHeader extends StackPane {
                 } else {
                     css.removeAll("selected"); //$NON-NLS-1$
                 }
-                if (spreadsheetView.getFixedRows().contains(rowIndex)) {
+                if (spreadsheetView.getFixedRows().contains(modelRowIndex)) {
                     css.addAll("fixed"); //$NON-NLS-1$
                 } else {
                     css.removeAll("fixed"); //$NON-NLS-1$
@@ -408,7 +413,7 @@ public class VerticalHeader extends StackPane {
         Double newHeight = gridRow.getHeight() + delta;
         if(newHeight < 0)
             return;
-        handle.getCellsViewSkin().rowHeightMap.put(gridRow.getIndex(), newHeight);
+        handle.getCellsViewSkin().rowHeightMap.put(spreadsheetView.getModelRow(gridRow.getIndex()), newHeight);
         label.resize(spreadsheetView.getRowHeaderWidth(), newHeight);
         gridRow.setPrefHeight(newHeight);
         gridRow.requestLayout();
@@ -446,7 +451,7 @@ public class VerticalHeader extends StackPane {
                                 .getSelectionModel();
                         TableViewFocusModel<ObservableList<SpreadsheetCell>> fm = handle.getGridView()
                                 .getFocusModel();
-                        sm.clearAndSelect(row - 1, fm.getFocusedCell().getTableColumn());
+                        sm.clearAndSelect(spreadsheetView.getViewRow(row - 1), fm.getFocusedCell().getTableColumn());
                     } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
 
                     }
@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2014 ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package impl.org.controlsfx.spreadsheet;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.collections.WeakListChangeListener;
+
+import org.controlsfx.control.spreadsheet.SpreadsheetCell;
+
+/**
+ * The items of the TableView inside the SpreadsheetView. This list is a view
+ * over the rows of the Grid where the collapsed rows are skipped.
+ *
+ * Nothing is copied when rows are collapsed or expanded, the position of a row
+ * is translated on the fly by the {@link HiddenRowsIndex}. A single change is
+ * fired for each operation, and the removed rows are only computed if a
+ * listener asks for them.
+ *
+ * The changes of the rows of the Grid are forwarded. When rows are added or
+ * removed while some are collapsed, the collapsed rows cannot be matched
+ * anymore, so the reset callback is called and this list stops following the
+ * Grid.
+ */
+public class VisibleRowsList extends ObservableListBase<ObservableList<SpreadsheetCell>> {
+
+    /***************************************************************************
+     * * Private Fields * *
+     **************************************************************************/
+    private final ObservableList<ObservableList<SpreadsheetCell>> source;
+    private final Runnable resetCallback;
+    private HiddenRowsIndex index;
+
+    private final ListChangeListener<ObservableList<SpreadsheetCell>> sourceListener = new ListChangeListener<ObservableList<SpreadsheetCell>>() {
+        @Override
+        public void onChanged(Change<? extends ObservableList<SpreadsheetCell>> c) {
+            sourceChanged(c);
+        }
+    };
+    private final WeakListChangeListener<ObservableList<SpreadsheetCell>> weakSourceListener = new WeakListChangeListener<>(sourceListener);
+
+    /***************************************************************************
+     * * Constructor * *
+     **************************************************************************/
+    /**
+     * @param rows the rows of the Grid.
+     * @param resetCallback called when the collapsed rows have been discarded
+     * because rows have been added or removed in the Grid.
+     */
+    public VisibleRowsList(ObservableList<ObservableList<SpreadsheetCell>> rows, Runnable resetCallback) {
+        this.source = rows;
+        this.resetCallback = resetCallback;
+        this.index = new HiddenRowsIndex(source.size());
+        source.addListener(weakSourceListener);
+    }
+
+    /***************************************************************************
+     * * Public Methods * *
+     **************************************************************************/
+    @Override
+    public ObservableList<SpreadsheetCell> get(int viewRow) {
+        final int modelRow = index.toModelRow(viewRow);
+        if (modelRow < 0) {
+            throw new IndexOutOfBoundsException("Row " + viewRow + " is not displayed."); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return source.get(modelRow);
+    }
+
+    @Override
+    public int size() {
+        return index.getVisibleCount();
+    }
+
+    /**
+     * Stop following the rows of the Grid.
+     */
+    public void dispose() {
+        source.removeListener(weakSourceListener);
+    }
+
+    /**
+     * @return the index translating view rows into model rows.
+     */
+    public HiddenRowsIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Hide the model rows between from (inclusive) and to (exclusive).
+     *
+     * @param from
+     * @param to
+     */
+    public void collapse(final int from, final int to) {
+        final int viewFrom = index.rank(from);
+        final int visibleBefore = index.rank(to) - viewFrom;
+        index.collapse(from, to);
+        final int removedSize = visibleBefore - (index.rank(to) - index.rank(from));
+        if (removedSize == 0) {
+            return;
+        }
+        beginChange();
+        nextRemove(viewFrom, new AbstractList<ObservableList<SpreadsheetCell>>() {
+            private List<ObservableList<SpreadsheetCell>> removed;
+
+            @Override
+            public ObservableList<SpreadsheetCell> get(int i) {
+                // The removed rows are only computed once, if a listener asks
+                // for them.
+                if (removed == null) {
+                    removed = new ArrayList<>(removedSize);
+                    // A removed row is only covered by the range we just collapsed.
+                    for (int row = from; row < to; ++row) {
+                        if (index.getCoverCount(row) == 1) {
+                            removed.add(source.get(row));
+                        }
+                    }
+                }
+                return removed.get(i);
+            }
+
+            @Override
+            public int size() {
+                return removedSize;
+            }
+        });
+        endChange();
+    }
+
+    /**
+     * Show again the model rows between from (inclusive) and to (exclusive)
+     * previously hidden with {@link #collapse(int, int) }.
+     *
+     * @param from
+     * @param to
+     */
+    public void expand(int from, int to) {
+        final int visibleBefore = index.rank(to) - index.rank(from);
+        index.expand(from, to);
+        final int viewFrom = index.rank(from);
+        final int addedSize = index.rank(to) - viewFrom - visibleBefore;
+        if (addedSize == 0) {
+            return;
+        }
+        beginChange();
+        nextAdd(viewFrom, viewFrom + addedSize);
+        endChange();
+    }
+
+    /***************************************************************************
+     * * Private Methods * *
+     **************************************************************************/
+    private void sourceChanged(ListChangeListener.Change<? extends ObservableList<SpreadsheetCell>> c) {
+        if (!index.hasHiddenRows()) {
+            // The view is the same as the model, the change is forwarded as is.
+            if (index.getVisibleCount() != source.size()) {
+                index = new HiddenRowsIndex(source.size());
+            }
+            beginChange();
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    final int[] permutation = new int[c.getTo() - c.getFrom()];
+                    for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                        permutation[i - c.getFrom()] = c.getPermutation(i);
+                    }
+                    nextPermutation(c.getFrom(), c.getTo(), permutation);
+                } else if (c.wasUpdated()) {
+                    for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                        nextUpdate(i);
+                    }
+                } else if (c.wasReplaced()) {
+                    nextReplace(c.getFrom(), c.getTo(), c.getRemoved());
+                } else if (c.wasRemoved()) {
+                    nextRemove(c.getFrom(), c.getRemoved());
+                } else if (c.wasAdded()) {
+                    nextAdd(c.getFrom(), c.getTo());
+                }
+            }
+            endChange();
+            return;
+        }
+
+        while (c.next()) {
+            if (c.wasPermutated() || c.getAddedSize() != c.getRemovedSize()) {
+                dispose();
+                if (resetCallback != null) {
+                    resetCallback.run();
+                }
+                return;
+            }
+        }
+        c.reset();
+
+        // Only replaced or updated rows, we forward the displayed ones.
+        beginChange();
+        while (c.next()) {
+            for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                final int viewRow = index.toViewRow(i);
+                if (viewRow < 0) {
+                    continue;
+                }
+                if (c.wasUpdated()) {
+                    nextUpdate(viewRow);
+                } else {
+                    nextSet(viewRow, c.getRemoved().get(i - c.getFrom()));
+                }
+            }
+        }
+        endChange();
+    }
+}
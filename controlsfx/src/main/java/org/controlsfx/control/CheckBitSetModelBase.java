@@ -26,7 +26,15 @@
  */
 package org.controlsfx.control;
 
-import java.util.BitSet;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javafx.beans.InvalidationListener;
@@ -49,9 +57,26 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
      *                                                                     *
      **********************************************************************/
 
-    private final Map<T, BooleanProperty> itemBooleanMap;
+    /**
+     * The properties handed out for the items, only held weakly: the checked
+     * state lives in the checkedIndices, a property is only needed while a
+     * cell or the application holds it.
+     */
+    private final Map<T, ItemBooleanReference<T>> itemBooleanMap = new HashMap<>();
+    private final ReferenceQueue<BooleanProperty> itemBooleanQueue = new ReferenceQueue<>();
+    /**
+     * Set while the properties are following the checkedIndices, so that they
+     * do not report the change back.
+     */
+    private boolean updatingItemBooleans;
+    /**
+     * Set while the checked indices move along with the items, so that the
+     * checked items are notified of the items actually removed instead of the
+     * items now found at the old indices.
+     */
+    private boolean itemsChanging;
     
-    private final BitSet checkedIndices;
+    private final RankSelectBitSet checkedIndices;
     private final ReadOnlyUnbackedObservableList<Integer> checkedIndicesList;
     private final ReadOnlyUnbackedObservableList<T> checkedItemsList;
     
@@ -63,22 +88,12 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
      *                                                                     *
      **********************************************************************/
 
-    CheckBitSetModelBase(final Map<T, BooleanProperty> itemBooleanMap) {
-        this.itemBooleanMap = itemBooleanMap;
-        
-        this.checkedIndices = new BitSet();
+    CheckBitSetModelBase() {
+        this.checkedIndices = new RankSelectBitSet();
         
         this.checkedIndicesList = new ReadOnlyUnbackedObservableList<Integer>() {
             @Override public Integer get(int index) {
-                if (index < 0 || index >= getItemCount()) return -1;
-
-                for (int pos = 0, val = checkedIndices.nextSetBit(0);
-                    val >= 0 || pos == index;
-                    pos++, val = checkedIndices.nextSetBit(val+1)) {
-                        if (pos == index) return val;
-                }
-
-                return -1;
+                return checkedIndices.select(index);
             }
 
             @Override public int size() {
@@ -90,12 +105,15 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
                     Number n = (Number) o;
                     int index = n.intValue();
 
-                    return index >= 0 && index < checkedIndices.length() &&
-                            checkedIndices.get(index);
+                    return checkedIndices.get(index);
                 }
 
                 return false;
             }
+
+            @Override public int indexOf(Object o) {
+                return contains(o) ? checkedIndices.rank(((Number) o).intValue()) : -1;
+            }
         };
         
         this.checkedItemsList = new ReadOnlyUnbackedObservableList<T>() {
@@ -121,7 +139,7 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
                     hasRealChangeOccurred = c.wasAdded() || c.wasRemoved();
                 }
 
-                if (hasRealChangeOccurred) {
+                if (hasRealChangeOccurred && !itemsChanging) {
                     c.reset();
                     checkedItemsList.callObservers(new MappingChange<>(c, map, checkedItemsList));
                 }
@@ -134,24 +152,33 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
         // this it won't happen!).
         getCheckedItems().addListener(new ListChangeListener<T>() {
             @Override public void onChanged(ListChangeListener.Change<? extends T> c) {
-                while (c.next()) {
-                    if (c.wasAdded()) {
-                        for (T item : c.getAddedSubList()) {
-                            BooleanProperty p = getItemBooleanProperty(item);
-                            if (p != null) {
-                                p.set(true);
+                // Only the properties already handed out are updated.
+                if (itemBooleanMap.isEmpty()) {
+                    return;
+                }
+                updatingItemBooleans = true;
+                try {
+                    while (c.next()) {
+                        if (c.wasAdded()) {
+                            for (T item : c.getAddedSubList()) {
+                                BooleanProperty p = peekItemBooleanProperty(item);
+                                if (p != null) {
+                                    p.set(true);
+                                }
                             }
-                        }
-                    } 
-                    
-                    if (c.wasRemoved()) {
-                        for (T item : c.getRemoved()) {
-                            BooleanProperty p = getItemBooleanProperty(item);
-                            if (p != null) {
-                                p.set(false);
+                        } 
+                        
+                        if (c.wasRemoved()) {
+                            for (T item : c.getRemoved()) {
+                                BooleanProperty p = peekItemBooleanProperty(item);
+                                if (p != null) {
+                                    p.set(false);
+                                }
                             }
                         }
                     }
+                } finally {
+                    updatingItemBooleans = false;
                 }
             }
         });
@@ -174,8 +201,28 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
     @Override
     public abstract int getItemIndex(T item);
     
+    /**
+     * Returns the property following the checked state of the item, created
+     * on the first call. Toggling the property checks or unchecks the item.
+     */
     BooleanProperty getItemBooleanProperty(T item) {
-        return itemBooleanMap.get(item);
+        final BooleanProperty property = peekItemBooleanProperty(item);
+        if (property != null) {
+            return property;
+        }
+        final int index = getItemIndex(item);
+        return index < 0 ? null : createItemBooleanProperty(item, index);
+    }
+
+    /**
+     * Returns the property following the checked state of the item at this
+     * index, created on the first call.
+     */
+    BooleanProperty getItemBooleanProperty(int index) {
+        if (index < 0 || index >= getItemCount()) return null;
+        final T item = getItem(index);
+        final BooleanProperty property = peekItemBooleanProperty(item);
+        return property != null ? property : createItemBooleanProperty(item, index);
     }
     
     
@@ -201,12 +248,26 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
         return checkedItemsList;
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * A single change is fired for all the items that were not checked.
+     */
     @Override
     public void checkAll() {
-        for (int i = 0; i < getItemCount(); i++) {
-            check(i);
+        final int itemCount = getItemCount();
+        final RangeChange change = new RangeChange(true);
+        for (int from = checkedIndices.nextClearBit(0); from < itemCount; from = checkedIndices.nextClearBit(from)) {
+            final int next = checkedIndices.nextSetBit(from);
+            final int to = next < 0 || next > itemCount ? itemCount : next;
+            change.addRange(from, to);
+            from = to;
         }
+        if (change.isEmpty()) {
+            return;
+        }
+        checkedIndices.set(0, itemCount);
+        checkedIndicesList.callObservers(change.computePositions());
     }
 
     /** {@inheritDoc} */
@@ -223,21 +284,33 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
         clearCheck(index);        
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * A single change is fired for all the items that were checked.
+     */
     @Override
     public void clearChecks() {
-        for( int index = 0; index < checkedIndices.length(); index++) {
-            clearCheck(index);
+        final RangeChange change = new RangeChange(false);
+        for (int from = checkedIndices.nextSetBit(0); from >= 0; from = checkedIndices.nextSetBit(from)) {
+            final int to = checkedIndices.nextClearBit(from);
+            change.addRange(from, to);
+            from = to;
+        }
+        if (change.isEmpty()) {
+            return;
         }
+        checkedIndices.clear();
+        checkedIndicesList.callObservers(change.computePositions());
     }
 
     /** {@inheritDoc} */
     @Override
     public void clearCheck(int index) {
         if (index < 0 || index >= getItemCount()) return;
-        checkedIndices.clear(index);
+        if (!checkedIndices.clear(index)) return;
         
-        final int changeIndex = checkedIndicesList.indexOf(index);
+        final int changeIndex = checkedIndices.rank(index);
         checkedIndicesList.callObservers(new NonIterableChange.SimpleRemovedChange<>(changeIndex, changeIndex, index, checkedIndicesList));
     }
     
@@ -263,8 +336,8 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
     @Override
     public void check(int index) {
         if (index < 0 || index >= getItemCount()) return;
-        checkedIndices.set(index);
-        final int changeIndex = checkedIndicesList.indexOf(index);
+        if (!checkedIndices.set(index)) return;
+        final int changeIndex = checkedIndices.rank(index);
         checkedIndicesList.callObservers(new NonIterableChange.SimpleAddChange<>(changeIndex, changeIndex+1, checkedIndicesList));
     }
 
@@ -284,32 +357,290 @@ abstract class CheckBitSetModelBase<T> implements IndexedCheckModel<T> {
      *                                                                     *
      **********************************************************************/
     
-    protected void updateMap() {
-        // reset the map
-        itemBooleanMap.clear();
-        for (int i = 0; i < getItemCount(); i++) {
-            final int index = i;
-            final T item = getItem(index);
-            
-            final BooleanProperty booleanProperty = new SimpleBooleanProperty(item, "selected", false); //$NON-NLS-1$
-            itemBooleanMap.put(item, booleanProperty);
-            
-            // this is where we listen to changes to the boolean properties,
-            // updating the selected indices list (and therefore indirectly
-            // the selected items list) when the checkbox is toggled
-            booleanProperty.addListener(new InvalidationListener() {
-                @Override public void invalidated(Observable o) {
-                    if (booleanProperty.get()) {
-                        checkedIndices.set(index);
-                        final int changeIndex = checkedIndicesList.indexOf(index);
-                        checkedIndicesList.callObservers(new NonIterableChange.SimpleAddChange<>(changeIndex, changeIndex+1, checkedIndicesList));                            
-                    } else {
-                        final int changeIndex = checkedIndicesList.indexOf(index);
-                        checkedIndices.clear(index);
-                        checkedIndicesList.callObservers(new NonIterableChange.SimpleRemovedChange<>(changeIndex, changeIndex, index, checkedIndicesList));
+    /**
+     * Move the checked indices along with their items. The checked items that
+     * were removed are unchecked.
+     */
+    protected void itemsChanged(ListChangeListener.Change<? extends T> c) {
+        final int[] indices = new int[checkedIndices.cardinality()];
+        final CheckedItemsChange itemsChange = new CheckedItemsChange();
+        boolean moved = false;
+        int count = 0;
+        int position = 0;
+        for (int index = checkedIndices.nextSetBit(0); index >= 0; index = checkedIndices.nextSetBit(index + 1), ++position) {
+            int newIndex = index;
+            T removedItem = null;
+            c.reset();
+            while (newIndex >= 0 && c.next()) {
+                final int from = c.getFrom();
+                if (c.wasPermutated()) {
+                    if (newIndex >= from && newIndex < c.getTo()) {
+                        newIndex = c.getPermutation(newIndex);
                     }
+                } else if (newIndex >= from + c.getRemovedSize()) {
+                    newIndex += c.getAddedSize() - c.getRemovedSize();
+                } else if (newIndex >= from && c.wasRemoved()) {
+                    // The items list no longer holds it, the change does.
+                    removedItem = c.getRemoved().get(newIndex - from);
+                    newIndex = -1;
+                }
+            }
+            moved |= newIndex != index;
+            if (newIndex >= 0) {
+                indices[count++] = newIndex;
+            } else {
+                itemsChange.addRemoved(position, removedItem);
+            }
+        }
+        c.reset();
+        if (!moved) {
+            return;
+        }
+        itemsChange.addPermutation(indices, count);
+
+        // The indices have moved, so all of them are removed and added again.
+        itemsChanging = true;
+        try {
+            clearChecks();
+            final RangeChange change = new RangeChange(true);
+            for (int i = 0; i < count; i++) {
+                checkedIndices.set(indices[i]);
+            }
+            for (int from = checkedIndices.nextSetBit(0); from >= 0; from = checkedIndices.nextSetBit(from)) {
+                final int to = checkedIndices.nextClearBit(from);
+                change.addRange(from, to);
+                from = to;
+            }
+            if (!change.isEmpty()) {
+                checkedIndicesList.callObservers(change.computePositions());
+            }
+        } finally {
+            itemsChanging = false;
+        }
+        if (!itemsChange.isEmpty()) {
+            checkedItemsList.callObservers(itemsChange);
+        }
+    }
+
+    private BooleanProperty peekItemBooleanProperty(T item) {
+        expungeStaleItemBooleans();
+        final ItemBooleanReference<T> reference = itemBooleanMap.get(item);
+        return reference == null ? null : reference.get();
+    }
+
+    private BooleanProperty createItemBooleanProperty(final T item, int index) {
+        final BooleanProperty booleanProperty = new SimpleBooleanProperty(item, "selected", isChecked(index)); //$NON-NLS-1$
+        itemBooleanMap.put(item, new ItemBooleanReference<>(item, booleanProperty, itemBooleanQueue));
+
+        // this is where we listen to changes to the boolean properties,
+        // updating the checked indices list (and therefore indirectly
+        // the checked items list) when the checkbox is toggled
+        booleanProperty.addListener(new InvalidationListener() {
+            @Override public void invalidated(Observable o) {
+                if (updatingItemBooleans) {
+                    return;
+                }
+                // The items may have moved since the property was created.
+                final int itemIndex = getItemIndex(item);
+                if (booleanProperty.get()) {
+                    check(itemIndex);
+                } else {
+                    clearCheck(itemIndex);
+                }
+            }
+        });
+        return booleanProperty;
+    }
+
+    private void expungeStaleItemBooleans() {
+        for (Reference<? extends BooleanProperty> reference; (reference = itemBooleanQueue.poll()) != null;) {
+            // Only the ItemBooleanReferences are registered with the queue.
+            final Object item = ((ItemBooleanReference<?>) reference).item;
+            if (itemBooleanMap.get(item) == reference) {
+                itemBooleanMap.remove(item);
+            }
+        }
+    }
+
+    private static final class ItemBooleanReference<T> extends WeakReference<BooleanProperty> {
+        private final T item;
+
+        ItemBooleanReference(T item, BooleanProperty property, ReferenceQueue<BooleanProperty> queue) {
+            super(property, queue);
+            this.item = item;
+        }
+    }
+
+    /**
+     * The change of the checked items when the items change. The items still
+     * checked are only moved, so the sub-changes are the checked items that
+     * were removed, and then the reordering of the remaining ones when the
+     * items were permuted.
+     */
+    private final class CheckedItemsChange extends ListChangeListener.Change<T> {
+        private final List<Integer> froms = new ArrayList<>();
+        private final List<List<T>> removed = new ArrayList<>();
+        private int[] permutation;
+        private int lastRemovedPosition = -2;
+        private int removedCount;
+        private int cursor = -1;
+
+        CheckedItemsChange() {
+            super(checkedItemsList);
+        }
+
+        /**
+         * Add a checked item that was removed, in increasing positions. The
+         * consecutive positions are fired as one sub-change.
+         *
+         * @param position the position of the item in the checked items
+         * before the change.
+         * @param item
+         */
+        void addRemoved(int position, T item) {
+            if (position != lastRemovedPosition + 1) {
+                // Positioned in the list where the previous ranges are removed.
+                froms.add(position - removedCount);
+                removed.add(new ArrayList<>());
+            }
+            removed.get(removed.size() - 1).add(item);
+            lastRemovedPosition = position;
+            ++removedCount;
+        }
+
+        /**
+         * Add the reordering of the remaining checked items, if any.
+         *
+         * @param indices the new indices of the remaining checked items, in
+         * their order before the change.
+         * @param count
+         */
+        void addPermutation(int[] indices, int count) {
+            final int[] sorted = Arrays.copyOf(indices, count);
+            Arrays.sort(sorted);
+            final int[] positions = new int[count];
+            boolean reordered = false;
+            for (int i = 0; i < count; i++) {
+                positions[i] = Arrays.binarySearch(sorted, indices[i]);
+                reordered |= positions[i] != i;
+            }
+            if (reordered) {
+                permutation = positions;
+            }
+        }
+
+        boolean isEmpty() {
+            return froms.isEmpty() && permutation == null;
+        }
+
+        private boolean isPermutation() {
+            return cursor == froms.size();
+        }
+
+        @Override public boolean next() {
+            return ++cursor < froms.size() + (permutation == null ? 0 : 1);
+        }
+
+        @Override public void reset() {
+            cursor = -1;
+        }
+
+        @Override public int getFrom() {
+            return isPermutation() ? 0 : froms.get(cursor);
+        }
+
+        @Override public int getTo() {
+            return isPermutation() ? permutation.length : froms.get(cursor);
+        }
+
+        @Override public List<T> getRemoved() {
+            return isPermutation() ? Collections.<T> emptyList() : removed.get(cursor);
+        }
+
+        @Override protected int[] getPermutation() {
+            return isPermutation() ? permutation : new int[0];
+        }
+    }
+
+    /**
+     * A change made of ranges of indices that were all checked or all
+     * unchecked, fired as one sub-change per range. The positions are those in
+     * the list after the change, which is what a listener expects for
+     * successive sub-changes in both cases.
+     */
+    private final class RangeChange extends ListChangeListener.Change<Integer> {
+        private final boolean added;
+        private int[] starts = new int[4];
+        private int[] ends = new int[4];
+        private int[] positions;
+        private int rangeCount;
+        private int cursor = -1;
+
+        RangeChange(boolean added) {
+            super(checkedIndicesList);
+            this.added = added;
+        }
+
+        void addRange(int from, int to) {
+            if (rangeCount == starts.length) {
+                starts = Arrays.copyOf(starts, rangeCount * 2);
+                ends = Arrays.copyOf(ends, rangeCount * 2);
+            }
+            starts[rangeCount] = from;
+            ends[rangeCount] = to;
+            rangeCount++;
+        }
+
+        boolean isEmpty() {
+            return rangeCount == 0;
+        }
+
+        /**
+         * Called once the indices are checked or unchecked.
+         */
+        RangeChange computePositions() {
+            positions = new int[rangeCount];
+            for (int i = 0; i < rangeCount; i++) {
+                positions[i] = checkedIndices.rank(starts[i]);
+            }
+            return this;
+        }
+
+        @Override public boolean next() {
+            return ++cursor < rangeCount;
+        }
+
+        @Override public void reset() {
+            cursor = -1;
+        }
+
+        @Override public int getFrom() {
+            return positions[cursor];
+        }
+
+        @Override public int getTo() {
+            return added ? positions[cursor] + ends[cursor] - starts[cursor] : positions[cursor];
+        }
+
+        @Override public List<Integer> getRemoved() {
+            if (added) {
+                return Collections.emptyList();
+            }
+            final int start = starts[cursor];
+            final int size = ends[cursor] - start;
+            return new AbstractList<Integer>() {
+                @Override public Integer get(int index) {
+                    return start + index;
                 }
-            });
+
+                @Override public int size() {
+                    return size;
+                }
+            };
+        }
+
+        @Override protected int[] getPermutation() {
+            return new int[0];
         }
     }
 }
\ No newline at end of file
@@ -28,9 +28,6 @@ package org.controlsfx.control;
 
 import impl.org.controlsfx.skin.CheckComboBoxSkin;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -87,7 +84,6 @@ public class CheckComboBox<T> extends ControlsFXControl {
      **************************************************************************/
     
     private final ObservableList<T> items;
-    private final Map<T, BooleanProperty> itemBooleanMap;
     
 
     
@@ -111,11 +107,8 @@ public class CheckComboBox<T> extends ControlsFXControl {
      * @param items The items to display within the CheckComboBox.
      */
     public CheckComboBox(final ObservableList<T> items) {
-        final int initialSize = items == null ? 32 : items.size();
-        
-        this.itemBooleanMap = new HashMap<>(initialSize);
         this.items = items == null ? FXCollections.<T>observableArrayList() : items;
-        setCheckModel(new CheckComboBoxBitSetCheckModel<>(this.items, itemBooleanMap));
+        setCheckModel(new CheckComboBoxBitSetCheckModel<>(this.items));
     }
     
     
@@ -142,18 +135,27 @@ public class CheckComboBox<T> extends ControlsFXControl {
     /**
      * Returns the {@link BooleanProperty} for a given item index in the 
      * CheckComboBox. This is useful if you want to bind to the property.
+     * The property is created on demand and only held weakly by the
+     * CheckComboBox, the checked state being kept by the check model, so a
+     * reference to the property must be kept as long as it is used.
      */
     public BooleanProperty getItemBooleanProperty(int index) {
-        if (index < 0 || index >= items.size()) return null;
-        return getItemBooleanProperty(getItems().get(index));
+        IndexedCheckModel<T> checkModel = getCheckModel();
+        return checkModel instanceof CheckBitSetModelBase ? 
+                ((CheckBitSetModelBase<T>) checkModel).getItemBooleanProperty(index) : null;
     }
     
     /**
      * Returns the {@link BooleanProperty} for a given item in the 
      * CheckComboBox. This is useful if you want to bind to the property.
+     * The property is created on demand and only held weakly by the
+     * CheckComboBox, the checked state being kept by the check model, so a
+     * reference to the property must be kept as long as it is used.
      */
     public BooleanProperty getItemBooleanProperty(T item) {
-        return itemBooleanMap.get(item);
+        IndexedCheckModel<T> checkModel = getCheckModel();
+        return checkModel instanceof CheckBitSetModelBase ? 
+                ((CheckBitSetModelBase<T>) checkModel).getItemBooleanProperty(item) : null;
     }
     
     
@@ -261,17 +263,13 @@ public class CheckComboBox<T> extends ControlsFXControl {
          *                                                                     *
          **********************************************************************/
         
-        CheckComboBoxBitSetCheckModel(final ObservableList<T> items, final Map<T, BooleanProperty> itemBooleanMap) {
-            super(itemBooleanMap);
-            
+        CheckComboBoxBitSetCheckModel(final ObservableList<T> items) {
             this.items = items;
             this.items.addListener(new ListChangeListener<T>() {
                 @Override public void onChanged(Change<? extends T> c) {
-                    updateMap();
+                    itemsChanged(c);
                 }
             });
-            
-            updateMap();
         }
         
         
@@ -26,9 +26,6 @@
  */
 package org.controlsfx.control;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -82,16 +79,6 @@ import javafx.util.Callback;
  */
 public class CheckListView<T> extends ListView<T> {
     
-    /**************************************************************************
-     * 
-     * Private fields
-     * 
-     **************************************************************************/
-    
-    private final Map<T, BooleanProperty> itemBooleanMap;
-    
-
-    
     /**************************************************************************
      * 
      * Constructors
@@ -113,11 +100,10 @@ public class CheckListView<T> extends ListView<T> {
      */
     public CheckListView(ObservableList<T> items) {
         super(items);
-        this.itemBooleanMap = new HashMap<>();
         
-        setCheckModel(new CheckListViewBitSetCheckModel<>(getItems(), itemBooleanMap));
+        setCheckModel(new CheckListViewBitSetCheckModel<>(getItems()));
         itemsProperty().addListener(ov -> {
-            setCheckModel(new CheckListViewBitSetCheckModel<>(getItems(), itemBooleanMap));
+            setCheckModel(new CheckListViewBitSetCheckModel<>(getItems()));
         });
         
         setCellFactory(listView -> new CheckBoxListCell<>(new Callback<T, ObservableValue<Boolean>>() {
@@ -138,18 +124,27 @@ public class CheckListView<T> extends ListView<T> {
     /**
      * Returns the {@link BooleanProperty} for a given item index in the 
      * CheckListView. This is useful if you want to bind to the property.
+     * The property is created on demand and only held weakly by the
+     * CheckListView, the checked state being kept by the check model, so a
+     * reference to the property must be kept as long as it is used.
      */
     public BooleanProperty getItemBooleanProperty(int index) {
-        if (index < 0 || index >= getItems().size()) return null;
-        return getItemBooleanProperty(getItems().get(index));
+        IndexedCheckModel<T> checkModel = getCheckModel();
+        return checkModel instanceof CheckBitSetModelBase ? 
+                ((CheckBitSetModelBase<T>) checkModel).getItemBooleanProperty(index) : null;
     }
     
     /**
      * Returns the {@link BooleanProperty} for a given item in the 
      * CheckListView. This is useful if you want to bind to the property.
+     * The property is created on demand and only held weakly by the
+     * CheckListView, the checked state being kept by the check model, so a
+     * reference to the property must be kept as long as it is used.
      */
     public BooleanProperty getItemBooleanProperty(T item) {
-        return itemBooleanMap.get(item);
+        IndexedCheckModel<T> checkModel = getCheckModel();
+        return checkModel instanceof CheckBitSetModelBase ? 
+                ((CheckBitSetModelBase<T>) checkModel).getItemBooleanProperty(item) : null;
     }
     
     
@@ -228,17 +223,13 @@ public class CheckListView<T> extends ListView<T> {
          *                                                                     *
          **********************************************************************/
         
-        CheckListViewBitSetCheckModel(final ObservableList<T> items, final Map<T, BooleanProperty> itemBooleanMap) {
-            super(itemBooleanMap);
-            
+        CheckListViewBitSetCheckModel(final ObservableList<T> items) {
             this.items = items;
             this.items.addListener(new ListChangeListener<T>() {
                 @Override public void onChanged(Change<? extends T> c) {
-                    updateMap();
+                    itemsChanged(c);
                 }
             });
-            
-            updateMap();
         }
         
         
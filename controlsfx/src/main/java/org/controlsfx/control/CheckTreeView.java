@@ -26,13 +26,22 @@
  */
 package org.controlsfx.control;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.CheckBoxTreeItem;
@@ -135,7 +144,34 @@ public class CheckTreeView<T> extends TreeView<T> {
         CheckBoxTreeItem<T> treeItem = (CheckBoxTreeItem<T>) getTreeItem(index);
         return treeItem.selectedProperty();
     }
-    
+
+    /**
+     * Checks the given item and all of its descendants. The subtree is walked
+     * once, and the checked items of the check model are changed in a single
+     * change, whatever the size of the subtree.
+     *
+     * @param item The root of the subtree to check.
+     */
+    public void checkSubtree(TreeItem<T> item) {
+        check(item, null);
+    }
+
+    /**
+     * Checks every item of the tree accepted by the given predicate, in a
+     * single pass over the tree and a single change of the checked items.
+     * On large trees the predicate is evaluated concurrently, so it must not
+     * modify the tree nor rely on being called on the JavaFX Application
+     * Thread.
+     *
+     * @param predicate Returns true for the items to check.
+     */
+    public void checkIf(Predicate<? super TreeItem<T>> predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("The predicate cannot be null"); //$NON-NLS-1$
+        }
+        check(getRoot(), predicate);
+    }
+
     
     
     /**************************************************************************
@@ -185,6 +221,42 @@ public class CheckTreeView<T> extends TreeView<T> {
      * 
      **************************************************************************/
     
+    private void check(TreeItem<T> item, Predicate<? super TreeItem<T>> predicate) {
+        final CheckModel<TreeItem<T>> model = getCheckModel();
+        if (model instanceof CheckTreeViewCheckModel) {
+            ((CheckTreeViewCheckModel<T>) model).check(item, predicate);
+        } else if (model != null) {
+            for (TreeItem<T> node : collect(item)) {
+                if (predicate == null || predicate.test(node)) {
+                    model.check(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the item and all of its descendants, in depth-first order. The
+     * tree is walked without recursion so that deep trees are supported.
+     */
+    private static <T> List<TreeItem<T>> collect(TreeItem<T> item) {
+        if (item == null) return Collections.emptyList();
+
+        final List<TreeItem<T>> nodes = new ArrayList<>();
+        final Deque<TreeItem<T>> stack = new ArrayDeque<>();
+        stack.push(item);
+        while (!stack.isEmpty()) {
+            final TreeItem<T> node = stack.pop();
+            nodes.add(node);
+            final List<TreeItem<T>> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                final TreeItem<T> child = children.get(i);
+                if (child != null) {
+                    stack.push(child);
+                }
+            }
+        }
+        return nodes;
+    }
     
     
     
@@ -202,11 +274,30 @@ public class CheckTreeView<T> extends TreeView<T> {
          *                                                                     *
          **********************************************************************/
         
+        /**
+         * Above this number of items, the predicate of a bulk check is
+         * evaluated in parallel.
+         */
+        private static final int PARALLEL_THRESHOLD = 10000;
+        
         private final CheckTreeView<T> treeView;
         private final TreeItem<T> root;
         
         private ObservableList<TreeItem<T>> checkedItems = FXCollections.observableArrayList();
         
+        /**
+         * The content of the checkedItems, so that an item is looked up
+         * without going through the whole list.
+         */
+        private final Set<TreeItem<T>> checkedItemsSet = new HashSet<>();
+        
+        /**
+         * Set while a bulk operation updates the tree items, so that the
+         * events of each item are ignored and the checked items are changed
+         * once at the end.
+         */
+        private boolean bulkUpdating;
+        
         
         
         /***********************************************************************
@@ -218,7 +309,18 @@ public class CheckTreeView<T> extends TreeView<T> {
         CheckTreeViewCheckModel(final CheckTreeView<T> treeView) {
             this.treeView = treeView;
             this.root = treeView.getRoot();
+            this.checkedItems.addListener((ListChangeListener<TreeItem<T>>) c -> {
+                while (c.next()) {
+                    for (TreeItem<T> item : c.getRemoved()) {
+                        checkedItemsSet.remove(item);
+                    }
+                    for (TreeItem<T> item : c.getAddedSubList()) {
+                        checkedItemsSet.add(item);
+                    }
+                }
+            });
             this.root.addEventHandler(CheckBoxTreeItem.<T>checkBoxSelectionChangedEvent(), e -> {
+                if (bulkUpdating) return;
                 CheckBoxTreeItem<T> treeItem = e.getTreeItem();
                 
                 if (treeItem.isSelected()) { // && ! treeItem.isIndeterminate()) {
@@ -258,7 +360,7 @@ public class CheckTreeView<T> extends TreeView<T> {
         }
 
         @Override public void checkAll() {
-            iterateOverTree(this::check);
+            check(root, null);
         }
 
         @Override public void clearCheck(TreeItem<T> item) {
@@ -269,7 +371,21 @@ public class CheckTreeView<T> extends TreeView<T> {
         }
 
         @Override public void clearChecks() {
-            checkedItems.stream().forEach(this::clearCheck);
+            if (checkedItems.isEmpty()) return;
+            
+            // Unchecking a CheckBoxTreeItem may uncheck its descendants, which
+            // are all in the checkedItems already.
+            bulkUpdating = true;
+            try {
+                for (TreeItem<T> item : new ArrayList<>(checkedItems)) {
+                    if (item instanceof CheckBoxTreeItem) {
+                        ((CheckBoxTreeItem<T>)item).setSelected(false);
+                    }
+                }
+            } finally {
+                bulkUpdating = false;
+            }
+            checkedItems.clear();
         }
 
         @Override public boolean isEmpty() {
@@ -277,18 +393,64 @@ public class CheckTreeView<T> extends TreeView<T> {
         }
 
         @Override public boolean isChecked(TreeItem<T> item) {
-            return checkedItems.contains(item);
+            return checkedItemsSet.contains(item);
         }
 
         @Override public void check(TreeItem<T> item) {
             if (item instanceof CheckBoxTreeItem) {
                 ((CheckBoxTreeItem<T>)item).setSelected(true);
             }
-            if (!checkedItems.contains(item)) {
+            if (!checkedItemsSet.contains(item)) {
                 checkedItems.add(item);
             }
         }
         
+        /**
+         * Checks the item and its descendants accepted by the predicate, or
+         * all of them if the predicate is null. The subtree is walked once to
+         * find the items to check, and once more after they have been
+         * selected to pick up the items selected by the CheckBoxTreeItem
+         * cascade, so that all of them are added in a single change.
+         */
+        void check(TreeItem<T> item, Predicate<? super TreeItem<T>> predicate) {
+            final List<TreeItem<T>> nodes = collect(item);
+            final List<TreeItem<T>> targets;
+            if (predicate == null) {
+                targets = nodes;
+            } else if (nodes.size() >= PARALLEL_THRESHOLD) {
+                targets = nodes.parallelStream().filter(predicate).collect(Collectors.toList());
+            } else {
+                targets = nodes.stream().filter(predicate).collect(Collectors.toList());
+            }
+            if (targets.isEmpty()) return;
+            
+            final Set<TreeItem<T>> added = new LinkedHashSet<>();
+            bulkUpdating = true;
+            try {
+                for (TreeItem<T> target : targets) {
+                    if (target instanceof CheckBoxTreeItem) {
+                        ((CheckBoxTreeItem<T>)target).setSelected(true);
+                    } else if (!checkedItemsSet.contains(target)) {
+                        added.add(target);
+                    }
+                }
+            } finally {
+                bulkUpdating = false;
+            }
+            
+            // Selecting an item selects its descendants, and its ancestors
+            // once all their children are selected.
+            for (TreeItem<T> node : nodes) {
+                addIfSelected(node, added);
+            }
+            for (TreeItem<T> parent = item.getParent(); parent != null; parent = parent.getParent()) {
+                addIfSelected(parent, added);
+            }
+            if (!added.isEmpty()) {
+                checkedItems.addAll(added);
+            }
+        }
+        
         
         
         /***********************************************************************
@@ -297,20 +459,11 @@ public class CheckTreeView<T> extends TreeView<T> {
          *                                                                     *
          **********************************************************************/
         
-        private void iterateOverTree(Consumer<TreeItem<T>> consumer) {
-            processNode(consumer, root);
-        }
-        
-        private void processNode(Consumer<TreeItem<T>> consumer, TreeItem<T> node) {
-            if (node == null) return;
-            consumer.accept(node);
-            processChildren(consumer, node.getChildren());
-        }
-        
-        private void processChildren(Consumer<TreeItem<T>> consumer, List<TreeItem<T>> children) {
-            if (children == null) return;
-            for (TreeItem<T> child : children) {
-                processNode(consumer, child);
+        private void addIfSelected(TreeItem<T> item, Set<TreeItem<T>> added) {
+            if (item instanceof CheckBoxTreeItem 
+                    && ((CheckBoxTreeItem<T>)item).isSelected()
+                    && !checkedItemsSet.contains(item)) {
+                added.add(item);
             }
         }
     }
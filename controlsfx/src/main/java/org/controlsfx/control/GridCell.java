@@ -27,13 +27,22 @@
 package org.controlsfx.control;
 
 import impl.org.controlsfx.skin.GridCellSkin;
+import impl.org.controlsfx.skin.GridViewSkin;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
+import javafx.beans.WeakInvalidationListener;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.scene.control.IndexedCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.Skin;
 import javafx.scene.control.TableView;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseDragEvent;
+import javafx.scene.input.MouseEvent;
 
 /**
  * A GridCell is created to represent items in the {@link GridView} 
@@ -74,12 +83,35 @@ public class GridCell<T> extends IndexedCell<T> {
                 final GridView<T> gridView = getGridView();
                 if (gridView == null) return;
                 
-                T item = gridView.getItems().get(getIndex());
+                // A cell set aside by its row is given the index -1.
+                final int index = getIndex();
+                if (index < 0 || index >= gridView.getItems().size()) {
+                    updateItem(null, true);
+                    return;
+                }
+                T item = gridView.getItems().get(index);
                 
 //                updateIndex(getIndex());
                 updateItem(item, item == null);
+                updateSelection();
             }
         });
+
+        gridView.addListener((observable, oldGridView, newGridView) -> {
+            if (oldGridView != null) {
+                oldGridView.selectionModelProperty().removeListener(weakSelectionModelListener);
+                unhookSelectionModel(oldGridView.getSelectionModel());
+            }
+            if (newGridView != null) {
+                newGridView.selectionModelProperty().addListener(weakSelectionModelListener);
+                hookSelectionModel(newGridView.getSelectionModel());
+            }
+            updateSelection();
+        });
+
+        addEventHandler(MouseEvent.MOUSE_PRESSED, e -> mousePressed(e));
+        addEventHandler(MouseEvent.DRAG_DETECTED, e -> dragDetected(e));
+        addEventHandler(MouseDragEvent.MOUSE_DRAG_ENTERED, e -> mouseDragEntered());
 	}
 	
 	/**
@@ -119,4 +151,107 @@ public class GridCell<T> extends IndexedCell<T> {
     public GridView<T> getGridView() {
         return gridView.get();
     }
+
+
+
+    /**************************************************************************
+     * 
+     * Selection
+     * 
+     **************************************************************************/
+
+    private final InvalidationListener selectionListener = observable -> updateSelection();
+    private final WeakInvalidationListener weakSelectionListener = new WeakInvalidationListener(selectionListener);
+
+    private final ChangeListener<MultipleSelectionModel<T>> selectionModelListener = (observable, oldModel, newModel) -> {
+        unhookSelectionModel(oldModel);
+        hookSelectionModel(newModel);
+        updateSelection();
+    };
+    private final WeakChangeListener<MultipleSelectionModel<T>> weakSelectionModelListener = new WeakChangeListener<>(selectionModelListener);
+
+    private void hookSelectionModel(MultipleSelectionModel<T> model) {
+        if (model != null) {
+            model.getSelectedIndices().addListener(weakSelectionListener);
+        }
+    }
+
+    private void unhookSelectionModel(MultipleSelectionModel<T> model) {
+        if (model != null) {
+            model.getSelectedIndices().removeListener(weakSelectionListener);
+        }
+    }
+
+    private MultipleSelectionModel<T> getSelectionModel() {
+        final GridView<T> gridView = getGridView();
+        return gridView == null ? null : gridView.getSelectionModel();
+    }
+
+    private void updateSelection() {
+        final MultipleSelectionModel<T> model = getSelectionModel();
+        final int index = getIndex();
+        final boolean selected = model != null && index >= 0 && !isEmpty() && model.isSelected(index);
+        if (selected != isSelected()) {
+            updateSelected(selected);
+        }
+    }
+
+    private void mousePressed(MouseEvent e) {
+        final MultipleSelectionModel<T> model = getSelectionModel();
+        final int index = getIndex();
+        if (model == null || e.getButton() != MouseButton.PRIMARY || isEmpty() || index < 0) {
+            return;
+        }
+        final GridViewBitSetSelectionModel<T> bitSetModel = model instanceof GridViewBitSetSelectionModel
+                ? (GridViewBitSetSelectionModel<T>) model : null;
+        final boolean multiple = model.getSelectionMode() == SelectionMode.MULTIPLE;
+
+        if (e.isShiftDown() && multiple) {
+            int anchor = bitSetModel != null ? bitSetModel.getAnchor() : model.getSelectedIndex();
+            if (anchor < 0) {
+                anchor = index;
+            }
+            if (!e.isShortcutDown()) {
+                model.clearSelection();
+            }
+            // Selected from the anchor, so that the clicked cell is the last one.
+            model.selectRange(anchor, anchor <= index ? index + 1 : index - 1);
+        } else {
+            if (e.isShortcutDown() && model.isSelected(index)) {
+                model.clearSelection(index);
+            } else if (e.isShortcutDown()) {
+                model.select(index);
+            } else {
+                model.clearAndSelect(index);
+            }
+            if (bitSetModel != null) {
+                bitSetModel.setAnchor(index);
+            }
+        }
+        if (bitSetModel != null) {
+            bitSetModel.beginRubberBand(e.isShortcutDown());
+        }
+    }
+
+    private void dragDetected(MouseEvent e) {
+        final MultipleSelectionModel<T> model = getSelectionModel();
+        if (model instanceof GridViewBitSetSelectionModel && e.getButton() == MouseButton.PRIMARY
+                && model.getSelectionMode() == SelectionMode.MULTIPLE) {
+            // The other cells receive MOUSE_DRAG_ENTERED during the gesture.
+            startFullDrag();
+        }
+    }
+
+    private void mouseDragEntered() {
+        final MultipleSelectionModel<T> model = getSelectionModel();
+        final int index = getIndex();
+        if (!(model instanceof GridViewBitSetSelectionModel) || isEmpty() || index < 0
+                || !(getGridView().getSkin() instanceof GridViewSkin)) {
+            return;
+        }
+        // The justified rows do not form columns.
+        final int columnCount = getGridView().getItemAspectRatio() != null ? 0
+                : ((GridViewSkin<?>) getGridView().getSkin()).computeMaxCellsInRow();
+        ((GridViewBitSetSelectionModel<T>) model).selectRubberBand(index, columnCount);
+    }
 }
\ No newline at end of file
@@ -31,9 +31,12 @@ import impl.org.controlsfx.skin.GridViewSkin;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -45,7 +48,9 @@ import javafx.css.StyleableProperty;
 import javafx.scene.Node;
 import javafx.scene.control.Cell;
 import javafx.scene.control.Control;
+import javafx.scene.control.IndexRange;
 import javafx.scene.control.ListCell;
+import javafx.scene.control.MultipleSelectionModel;
 import javafx.scene.control.Skin;
 import javafx.scene.paint.Color;
 import javafx.util.Callback;
@@ -429,6 +434,183 @@ public class GridView<T> extends ControlsFXControl {
         return items == null ? null : items.get();
     }
 
+
+    
+    // --- selection model
+    /**
+     * Property representing the selection model of the GridView. It is null
+     * by default, in which case the cells cannot be selected. Selection is
+     * enabled by setting a model, such as a
+     * {@link GridViewBitSetSelectionModel}:
+     *
+     * <pre>
+     * {@code
+     * myGrid.setSelectionModel(new GridViewBitSetSelectionModel<>(myGrid));
+     * }</pre>
+     *
+     * Cells can then be selected with the mouse: a click selects a cell, a
+     * shortcut-click toggles it, a shift-click selects the cells between the
+     * last clicked one and this one, and dragging the mouse selects the
+     * rectangle of cells it spans. The selected cells have the
+     * {@code :selected} pseudo-class.
+     */
+    public final ObjectProperty<MultipleSelectionModel<T>> selectionModelProperty() {
+        return selectionModel;
+    }
+    private final ObjectProperty<MultipleSelectionModel<T>> selectionModel =
+            new SimpleObjectProperty<>(this, "selectionModel"); //$NON-NLS-1$
+
+    /**
+     * Sets the selection model of the GridView.
+     */
+    public final void setSelectionModel(MultipleSelectionModel<T> value) {
+        selectionModel.set(value);
+    }
+
+    /**
+     * Returns the selection model of the GridView.
+     */
+    public final MultipleSelectionModel<T> getSelectionModel() {
+        return selectionModel.get();
+    }
+
+    
+    // --- item aspect ratio
+    /**
+     * Property representing the callback returning the aspect ratio (the
+     * width divided by the height) of an item. When it is set, the GridView
+     * lays out its items in justified rows instead of a uniform grid: the
+     * cells of a row keep the aspect ratio of their item and are scaled so
+     * that the row fills the width of the GridView, the
+     * {@link #cellHeightProperty() cell height} being the height of a row
+     * before it is scaled. The callback is called once per item, so the
+     * aspect ratio of an item must not change while it is in the GridView.
+     * The rows are still virtualised, and appending items only lays out again
+     * the last row.
+     */
+    public final ObjectProperty<Callback<T, Double>> itemAspectRatioProperty() {
+        if (itemAspectRatio == null) {
+            itemAspectRatio = new SimpleObjectProperty<>(this, "itemAspectRatio"); //$NON-NLS-1$
+        }
+        return itemAspectRatio;
+    }
+    private ObjectProperty<Callback<T, Double>> itemAspectRatio;
+
+    /**
+     * Sets the callback returning the aspect ratio of an item, or null for a
+     * uniform grid.
+     */
+    public final void setItemAspectRatio(Callback<T, Double> value) {
+        itemAspectRatioProperty().set(value);
+    }
+
+    /**
+     * Returns the callback returning the aspect ratio of an item.
+     */
+    public final Callback<T, Double> getItemAspectRatio() {
+        return itemAspectRatio == null ? null : itemAspectRatio.get();
+    }
+
+    
+    // --- prefetch row count
+    /**
+     * Property representing how many rows beyond the visible area, in the
+     * direction of the scroll, are announced to the
+     * {@link #onPrefetchProperty() prefetch callback}. The default value is 2.
+     */
+    public final IntegerProperty prefetchRowCountProperty() {
+        if (prefetchRowCount == null) {
+            prefetchRowCount = new SimpleIntegerProperty(this, "prefetchRowCount", 2); //$NON-NLS-1$
+        }
+        return prefetchRowCount;
+    }
+    private IntegerProperty prefetchRowCount;
+
+    /**
+     * Sets how many rows beyond the visible area are announced to the
+     * prefetch callback.
+     */
+    public final void setPrefetchRowCount(int value) {
+        prefetchRowCountProperty().set(value);
+    }
+
+    /**
+     * Returns how many rows beyond the visible area are announced to the
+     * prefetch callback.
+     */
+    public final int getPrefetchRowCount() {
+        return prefetchRowCount == null ? 2 : prefetchRowCount.get();
+    }
+
+    
+    // --- on prefetch
+    /**
+     * Property representing the callback receiving the ranges of
+     * {@link #getItems() items} that are about to be displayed. When the
+     * GridView is scrolled, the {@link #prefetchRowCountProperty() rows}
+     * following the visible area in the direction of the scroll form a
+     * look-ahead window, and the indices entering this window are given to
+     * this callback, so that slow or remote items can be loaded before their
+     * cells are rendered. Each range is given once while it stays in the
+     * window. The indices are those of the items list, the end of the
+     * {@link IndexRange} being exclusive.
+     */
+    public final ObjectProperty<Consumer<IndexRange>> onPrefetchProperty() {
+        if (onPrefetch == null) {
+            onPrefetch = new SimpleObjectProperty<>(this, "onPrefetch"); //$NON-NLS-1$
+        }
+        return onPrefetch;
+    }
+    private ObjectProperty<Consumer<IndexRange>> onPrefetch;
+
+    /**
+     * Sets the callback receiving the ranges of items about to be displayed.
+     */
+    public final void setOnPrefetch(Consumer<IndexRange> value) {
+        onPrefetchProperty().set(value);
+    }
+
+    /**
+     * Returns the callback receiving the ranges of items about to be
+     * displayed.
+     */
+    public final Consumer<IndexRange> getOnPrefetch() {
+        return onPrefetch == null ? null : onPrefetch.get();
+    }
+
+    
+    // --- on cancel prefetch
+    /**
+     * Property representing the callback receiving the ranges of items that
+     * were given to the {@link #onPrefetchProperty() prefetch callback} and
+     * that left the look-ahead window without being displayed, for example
+     * because the user scrolled the other way. The loading of these items can
+     * be cancelled.
+     */
+    public final ObjectProperty<Consumer<IndexRange>> onCancelPrefetchProperty() {
+        if (onCancelPrefetch == null) {
+            onCancelPrefetch = new SimpleObjectProperty<>(this, "onCancelPrefetch"); //$NON-NLS-1$
+        }
+        return onCancelPrefetch;
+    }
+    private ObjectProperty<Consumer<IndexRange>> onCancelPrefetch;
+
+    /**
+     * Sets the callback receiving the ranges of items that left the
+     * look-ahead window without being displayed.
+     */
+    public final void setOnCancelPrefetch(Consumer<IndexRange> value) {
+        onCancelPrefetchProperty().set(value);
+    }
+
+    /**
+     * Returns the callback receiving the ranges of items that left the
+     * look-ahead window without being displayed.
+     */
+    public final Consumer<IndexRange> getOnCancelPrefetch() {
+        return onCancelPrefetch == null ? null : onCancelPrefetch.get();
+    }
+
     
     
     
@@ -0,0 +1,755 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.control.SelectionMode;
+
+import com.sun.javafx.collections.MappingChange;
+import com.sun.javafx.scene.control.ReadOnlyUnbackedObservableList;
+
+/**
+ * A selection model for the {@link GridView}, allowing several cells to be
+ * selected. A GridView has no selection model by default, see
+ * {@link GridView#selectionModelProperty()}.
+ *
+ * The selected indices are kept in a {@link BitSet}, and each operation fires
+ * at most one change for the removed indices and one for the added ones,
+ * made of one sub-change per contiguous range. Selecting a range therefore
+ * costs the same whatever its size, nothing being allocated per item.
+ */
+public class GridViewBitSetSelectionModel<T> extends MultipleSelectionModel<T> {
+
+    /***********************************************************************
+     *                                                                     *
+     * Internal properties                                                 *
+     *                                                                     *
+     **********************************************************************/
+
+    private final GridView<T> gridView;
+
+    private final BitSet selectedBits = new BitSet();
+    private int selectedCount;
+
+    private final SelectedIndicesList selectedIndices = new SelectedIndicesList();
+    private final ReadOnlyUnbackedObservableList<T> selectedItems;
+
+    /**
+     * The cell from which shift-clicks and rubber bands are extended.
+     */
+    private int anchor = -1;
+
+    /**
+     * The selection when the rubber band started, the band being added to it.
+     */
+    private BitSet gestureBase;
+
+    /**
+     * Whether the selected indices move along with the items. The selected
+     * items are then notified of the items actually removed, instead of the
+     * items now found at the moved indices.
+     */
+    private boolean itemsChanging = false;
+
+    private final ListChangeListener<T> itemsListener = c -> itemsChanged(c);
+
+    private final ChangeListener<ObservableList<T>> itemsPropertyListener = (observable, oldItems, newItems) -> {
+        if (oldItems != null) {
+            oldItems.removeListener(itemsListener);
+        }
+        if (newItems != null) {
+            newItems.addListener(itemsListener);
+        }
+        anchor = -1;
+        clearSelection();
+    };
+
+
+
+    /***********************************************************************
+     *                                                                     *
+     * Constructors                                                        *
+     *                                                                     *
+     **********************************************************************/
+
+    /**
+     * Creates a selection model for the given GridView, in
+     * {@link SelectionMode#MULTIPLE} mode.
+     *
+     * @param gridView
+     */
+    public GridViewBitSetSelectionModel(GridView<T> gridView) {
+        this.gridView = gridView;
+        setSelectionMode(SelectionMode.MULTIPLE);
+
+        this.selectedItems = new ReadOnlyUnbackedObservableList<T>() {
+            @Override public T get(int i) {
+                return getItem(selectedIndices.get(i));
+            }
+
+            @Override public int size() {
+                return selectedCount;
+            }
+        };
+
+        final MappingChange.Map<Integer, T> map = f -> getItem(f);
+        selectedIndices.addListener(new ListChangeListener<Integer>() {
+            @Override public void onChanged(Change<? extends Integer> c) {
+                if (!itemsChanging) {
+                    selectedItems.callObservers(new MappingChange<>(c, map, selectedItems));
+                }
+            }
+        });
+
+        selectionModeProperty().addListener(o -> {
+            if (getSelectionMode() == SelectionMode.SINGLE && selectedCount > 1) {
+                final int index = getSelectedIndex();
+                clearAndSelect(isSelected(index) ? index : selectedBits.nextSetBit(0));
+            }
+        });
+
+        gridView.itemsProperty().addListener(itemsPropertyListener);
+        if (gridView.getItems() != null) {
+            gridView.getItems().addListener(itemsListener);
+        }
+    }
+
+
+
+    /***********************************************************************
+     *                                                                     *
+     * Public selection API                                                *
+     *                                                                     *
+     **********************************************************************/
+
+    /** {@inheritDoc} */
+    @Override public ObservableList<Integer> getSelectedIndices() {
+        return selectedIndices;
+    }
+
+    /** {@inheritDoc} */
+    @Override public ObservableList<T> getSelectedItems() {
+        return selectedItems;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void selectIndices(int index, int... indices) {
+        if (getSelectionMode() == SelectionMode.SINGLE) {
+            int last = isValid(index) ? index : -1;
+            for (int i : indices) {
+                if (isValid(i)) {
+                    last = i;
+                }
+            }
+            if (last >= 0) {
+                clearAndSelect(last);
+            }
+            return;
+        }
+
+        final BitSet bits = new BitSet();
+        int last = -1;
+        if (isValid(index)) {
+            bits.set(index);
+            last = index;
+        }
+        for (int i : indices) {
+            if (isValid(i)) {
+                bits.set(i);
+                last = i;
+            }
+        }
+        add(bits);
+        if (last >= 0) {
+            setSelected(last);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The range is selected at once, firing a single change.
+     */
+    @Override public void selectRange(int start, int end) {
+        if (start == end) {
+            return;
+        }
+        // As in MultipleSelectionModel, the end is excluded in both directions.
+        final int from = Math.max(0, start < end ? start : end + 1);
+        final int to = Math.min(getItemCount(), start < end ? end : start + 1);
+        final int last = start < end ? end - 1 : end + 1;
+        if (from >= to) {
+            return;
+        }
+        if (getSelectionMode() == SelectionMode.SINGLE) {
+            if (isValid(last)) {
+                clearAndSelect(last);
+            }
+            return;
+        }
+        final BitSet bits = new BitSet();
+        bits.set(from, to);
+        add(bits);
+        setSelected(isValid(last) ? last : to - 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void selectAll() {
+        if (getSelectionMode() == SelectionMode.SINGLE) {
+            return;
+        }
+        final int count = getItemCount();
+        if (count > 0) {
+            selectRange(0, count);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void selectFirst() {
+        if (getItemCount() > 0) {
+            clearAndSelect(0);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void selectLast() {
+        final int count = getItemCount();
+        if (count > 0) {
+            clearAndSelect(count - 1);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clearAndSelect(int index) {
+        if (!isValid(index)) {
+            return;
+        }
+        final BitSet bits = new BitSet();
+        bits.set(index);
+        replace(bits);
+        setSelected(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void select(int index) {
+        if (!isValid(index)) {
+            return;
+        }
+        if (getSelectionMode() == SelectionMode.SINGLE) {
+            clearAndSelect(index);
+            return;
+        }
+        final BitSet bits = new BitSet();
+        bits.set(index);
+        add(bits);
+        setSelected(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void select(T obj) {
+        final ObservableList<T> items = gridView.getItems();
+        final int index = items == null ? -1 : items.indexOf(obj);
+        if (index >= 0) {
+            select(index);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clearSelection(int index) {
+        if (index < 0 || !selectedBits.get(index)) {
+            return;
+        }
+        final BitSet bits = new BitSet();
+        bits.set(index);
+        remove(bits);
+        if (getSelectedIndex() == index) {
+            final int previous = selectedBits.previousSetBit(index);
+            setSelected(previous >= 0 ? previous : selectedBits.nextSetBit(index));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void clearSelection() {
+        remove((BitSet) selectedBits.clone());
+        setSelected(-1);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isSelected(int index) {
+        return index >= 0 && selectedBits.get(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean isEmpty() {
+        return selectedCount == 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void selectPrevious() {
+        final int index = getSelectedIndex();
+        if (index == -1) {
+            selectLast();
+        } else if (index > 0) {
+            select(index - 1);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void selectNext() {
+        final int index = getSelectedIndex();
+        if (index == -1) {
+            selectFirst();
+        } else if (index < getItemCount() - 1) {
+            select(index + 1);
+        }
+    }
+
+
+
+    /***********************************************************************
+     *                                                                     *
+     * Rubber band                                                         *
+     *                                                                     *
+     **********************************************************************/
+
+    /**
+     * @return the cell from which shift-clicks and rubber bands are extended,
+     * or -1 if there is none.
+     */
+    int getAnchor() {
+        return anchor;
+    }
+
+    /**
+     * Set the cell from which shift-clicks and rubber bands are extended.
+     *
+     * @param index the index of the cell, or -1 to clear the anchor.
+     */
+    void setAnchor(int index) {
+        anchor = isValid(index) ? index : -1;
+    }
+
+    /**
+     * Start a rubber band from the anchor.
+     *
+     * @param additive whether the band is added to the current selection or
+     * replaces it.
+     */
+    void beginRubberBand(boolean additive) {
+        gestureBase = additive ? (BitSet) selectedBits.clone() : null;
+    }
+
+    /**
+     * Select the rectangle of cells between the anchor and the given index,
+     * with the selection present when the rubber band started.
+     *
+     * @param index
+     * @param columnCount the number of cells in a row, or 0 if the rows do not
+     * hold the same number of cells, in which case the cells from the anchor
+     * to the index are selected.
+     */
+    void selectRubberBand(int index, int columnCount) {
+        if (!isValid(anchor) || !isValid(index) || getSelectionMode() == SelectionMode.SINGLE) {
+            return;
+        }
+        if (columnCount <= 0) {
+            final BitSet bits = gestureBase == null ? new BitSet() : (BitSet) gestureBase.clone();
+            bits.set(Math.min(anchor, index), Math.max(anchor, index) + 1);
+            replace(bits);
+            setSelected(index);
+            return;
+        }
+        final int fromRow = Math.min(anchor, index) / columnCount;
+        final int toRow = Math.max(anchor, index) / columnCount;
+        final int fromColumn = Math.min(anchor % columnCount, index % columnCount);
+        final int toColumn = Math.max(anchor % columnCount, index % columnCount);
+
+        final BitSet bits = gestureBase == null ? new BitSet() : (BitSet) gestureBase.clone();
+        for (int row = fromRow; row <= toRow; ++row) {
+            bits.set(row * columnCount + fromColumn, Math.min(getItemCount(), row * columnCount + toColumn + 1));
+        }
+        replace(bits);
+        setSelected(index);
+    }
+
+
+
+    /***********************************************************************
+     *                                                                     *
+     * Private implementation                                              *
+     *                                                                     *
+     **********************************************************************/
+
+    private int getItemCount() {
+        final ObservableList<T> items = gridView.getItems();
+        return items == null ? 0 : items.size();
+    }
+
+    private T getItem(int index) {
+        final ObservableList<T> items = gridView.getItems();
+        return items == null || index < 0 || index >= items.size() ? null : items.get(index);
+    }
+
+    private boolean isValid(int index) {
+        return index >= 0 && index < getItemCount();
+    }
+
+    private void setSelected(int index) {
+        setSelectedIndex(index);
+        setSelectedItem(getItem(index));
+    }
+
+    /**
+     * Make the given bits the selection, firing the removed indices and then
+     * the added ones. The given BitSet is consumed.
+     */
+    private void replace(BitSet bits) {
+        final BitSet removed = (BitSet) selectedBits.clone();
+        removed.andNot(bits);
+        remove(removed);
+        add(bits);
+    }
+
+    /**
+     * Select the given bits. The given BitSet is consumed.
+     */
+    private void add(BitSet bits) {
+        bits.andNot(selectedBits);
+        if (bits.isEmpty()) {
+            return;
+        }
+        selectedBits.or(bits);
+        selectedCount += bits.cardinality();
+        selectedIndices.fireChange(bits, true);
+    }
+
+    /**
+     * Clear the given bits. The given BitSet is consumed.
+     */
+    private void remove(BitSet bits) {
+        bits.and(selectedBits);
+        if (bits.isEmpty()) {
+            return;
+        }
+        selectedBits.andNot(bits);
+        selectedCount -= bits.cardinality();
+        selectedIndices.fireChange(bits, false);
+    }
+
+    /**
+     * Move the selected indices along with their items.
+     */
+    private void itemsChanged(ListChangeListener.Change<? extends T> c) {
+        BitSet bits = (BitSet) selectedBits.clone();
+        int selectedIndex = getSelectedIndex();
+        final SelectedItemsChange itemsChange = new SelectedItemsChange();
+        while (c.next()) {
+            final int from = c.getFrom();
+            if (c.wasPermutated()) {
+                final BitSet permuted = bits.get(0, from);
+                for (int i = bits.nextSetBit(from); i >= 0; i = bits.nextSetBit(i + 1)) {
+                    permuted.set(i < c.getTo() ? c.getPermutation(i) : i);
+                }
+                itemsChange.addPermutation(bits, permuted, c);
+                bits = permuted;
+                if (selectedIndex >= from && selectedIndex < c.getTo()) {
+                    selectedIndex = c.getPermutation(selectedIndex);
+                }
+            } else if (c.wasAdded() || c.wasRemoved()) {
+                final int removedEnd = from + c.getRemovedSize();
+                final int shift = c.getAddedSize() - c.getRemovedSize();
+                // The selected items removed are taken from the change, since
+                // the items list no longer holds them.
+                final int firstRemoved = bits.nextSetBit(from);
+                if (firstRemoved >= 0 && firstRemoved < removedEnd) {
+                    final List<? extends T> removedItems = c.getRemoved();
+                    final List<T> removed = new ArrayList<>();
+                    for (int i = firstRemoved; i >= 0 && i < removedEnd; i = bits.nextSetBit(i + 1)) {
+                        removed.add(removedItems.get(i - from));
+                    }
+                    itemsChange.addRemoved(bits.get(0, from).cardinality(), removed);
+                }
+                final BitSet shifted = bits.get(0, from);
+                for (int i = bits.nextSetBit(removedEnd); i >= 0; i = bits.nextSetBit(i + 1)) {
+                    shifted.set(i + shift);
+                }
+                bits = shifted;
+                if (selectedIndex >= removedEnd) {
+                    selectedIndex += shift;
+                } else if (selectedIndex >= from) {
+                    selectedIndex = -1;
+                }
+            }
+        }
+        if (anchor >= getItemCount()) {
+            anchor = -1;
+        }
+        if (!bits.equals(selectedBits)) {
+            // The indices have moved, so the whole selection is replaced.
+            itemsChanging = true;
+            try {
+                remove((BitSet) selectedBits.clone());
+                add(bits);
+            } finally {
+                itemsChanging = false;
+            }
+            if (itemsChange.hasNext()) {
+                selectedItems.callObservers(itemsChange);
+            }
+        }
+        setSelected(selectedIndex);
+    }
+
+    /**
+     * The change of the selected items when the items of the GridView change.
+     * The items still selected are only moved, so the sub-changes are the
+     * selected items removed along with their items, and the reordering of
+     * the selected items when the items are permuted.
+     */
+    private final class SelectedItemsChange extends ListChangeListener.Change<T> {
+        private final List<Integer> froms = new ArrayList<>();
+        private final List<List<T>> removed = new ArrayList<>();
+        private final List<int[]> permutations = new ArrayList<>();
+        private int cursor = -1;
+
+        SelectedItemsChange() {
+            super(selectedItems);
+        }
+
+        /**
+         * @param from the position of the first item removed in the selected
+         * items.
+         * @param items the selected items removed.
+         */
+        void addRemoved(int from, List<T> items) {
+            froms.add(from);
+            removed.add(items);
+            permutations.add(null);
+        }
+
+        /**
+         * Add the reordering of the selected items, the selected indices going
+         * from the given bits to the permuted ones.
+         */
+        void addPermutation(BitSet bits, BitSet permuted, ListChangeListener.Change<? extends T> c) {
+            final int count = bits.cardinality();
+            final int[] permutation = new int[count];
+            boolean moved = false;
+            int position = 0;
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1), ++position) {
+                final int index = i >= c.getFrom() && i < c.getTo() ? c.getPermutation(i) : i;
+                permutation[position] = index;
+            }
+            // The indices are turned into positions in the permuted selection.
+            final int[] sorted = permutation.clone();
+            Arrays.sort(sorted);
+            for (position = 0; position < count; ++position) {
+                permutation[position] = Arrays.binarySearch(sorted, permutation[position]);
+                moved |= permutation[position] != position;
+            }
+            if (moved) {
+                froms.add(0);
+                removed.add(Collections.<T> emptyList());
+                permutations.add(permutation);
+            }
+        }
+
+        boolean hasNext() {
+            return cursor + 1 < froms.size();
+        }
+
+        @Override public boolean next() {
+            return ++cursor < froms.size();
+        }
+
+        @Override public void reset() {
+            cursor = -1;
+        }
+
+        @Override public int getFrom() {
+            return froms.get(cursor);
+        }
+
+        @Override public int getTo() {
+            final int[] permutation = permutations.get(cursor);
+            return permutation == null ? getFrom() : permutation.length;
+        }
+
+        @Override public List<T> getRemoved() {
+            return removed.get(cursor);
+        }
+
+        @Override protected int[] getPermutation() {
+            final int[] permutation = permutations.get(cursor);
+            return permutation == null ? new int[0] : permutation;
+        }
+    }
+
+    /**
+     * The selected indices, in ascending order.
+     */
+    private final class SelectedIndicesList extends ReadOnlyUnbackedObservableList<Integer> {
+        /**
+         * The last position read and its value, so that iterating over the
+         * list does not scan the BitSet from the start each time.
+         */
+        private int lastPosition = -1;
+        private int lastValue = -1;
+
+        @Override public Integer get(int index) {
+            if (index < 0 || index >= selectedCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + selectedCount); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            int position = 0;
+            int value = selectedBits.nextSetBit(0);
+            if (lastPosition >= 0 && lastPosition <= index && selectedBits.get(lastValue)) {
+                position = lastPosition;
+                value = lastValue;
+            }
+            for (; position < index; ++position) {
+                value = selectedBits.nextSetBit(value + 1);
+            }
+            lastPosition = position;
+            lastValue = value;
+            return value;
+        }
+
+        @Override public int size() {
+            return selectedCount;
+        }
+
+        @Override public boolean contains(Object o) {
+            return o instanceof Integer && isSelected((Integer) o);
+        }
+
+        @Override public int indexOf(Object o) {
+            if (!contains(o)) {
+                return -1;
+            }
+            final int index = (Integer) o;
+            return index == 0 ? 0 : selectedBits.get(0, index).cardinality();
+        }
+
+        /**
+         * Fire the given bits, already added to or removed from the selection,
+         * as one sub-change per contiguous range.
+         */
+        void fireChange(BitSet bits, boolean added) {
+            lastPosition = -1;
+            callObservers(new RangeChange(bits, added, this));
+        }
+    }
+
+    /**
+     * A change made of contiguous ranges of indices that were all added or all
+     * removed. The positions are computed on the list after the change, which
+     * is what a listener expects for successive sub-changes in both cases.
+     */
+    private final class RangeChange extends ListChangeListener.Change<Integer> {
+        private final boolean added;
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] positions;
+        private final int rangeCount;
+        private int cursor = -1;
+
+        RangeChange(BitSet bits, boolean added, ObservableList<Integer> list) {
+            super(list);
+            this.added = added;
+
+            int count = 0;
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(bits.nextClearBit(i))) {
+                ++count;
+            }
+            rangeCount = count;
+            starts = new int[count];
+            ends = new int[count];
+            positions = new int[count];
+
+            int range = 0;
+            int previousStart = 0;
+            int position = 0;
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(ends[range - 1])) {
+                starts[range] = i;
+                ends[range] = bits.nextClearBit(i);
+                // The selected indices before this range, counted from the
+                // previous one.
+                position += selectedBits.get(previousStart, i).cardinality();
+                positions[range] = position;
+                previousStart = i;
+                ++range;
+            }
+        }
+
+        @Override public boolean next() {
+            return ++cursor < rangeCount;
+        }
+
+        @Override public void reset() {
+            cursor = -1;
+        }
+
+        @Override public int getFrom() {
+            return positions[cursor];
+        }
+
+        @Override public int getTo() {
+            return added ? positions[cursor] + ends[cursor] - starts[cursor] : positions[cursor];
+        }
+
+        @Override public List<Integer> getRemoved() {
+            if (added) {
+                return Collections.emptyList();
+            }
+            final int start = starts[cursor];
+            final int size = ends[cursor] - start;
+            return new AbstractList<Integer>() {
+                @Override public Integer get(int index) {
+                    return start + index;
+                }
+
+                @Override public int size() {
+                    return size;
+                }
+            };
+        }
+
+        @Override protected int[] getPermutation() {
+            return new int[0];
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control;
+
+import java.util.Arrays;
+
+/**
+ * A set of bits which also answers how many bits are set before an index
+ * (rank) and which index holds the nth set bit (select), in constant time
+ * once its tables are up to date.
+ *
+ * The bits are kept in words of 64 bits, along with two block popcount
+ * tables: the number of bits set before each word, and the word holding
+ * every 64th set bit. Setting or clearing a bit only marks the tables as
+ * stale from its word on, and the next query brings them up to date in one
+ * pass over the words after it, so a batch of changes costs one pass. A
+ * select then reads the sampled word, and only needs a binary search when
+ * the set bits are too sparse for the next sample to be in the same or the
+ * next word.
+ */
+// not public API
+final class RankSelectBitSet {
+
+    /**
+     * The index of the kth set bit of a byte, at [byte * 8 + k], or 8.
+     */
+    private static final byte[] SELECT_IN_BYTE = new byte[256 * 8];
+    static {
+        for (int value = 0; value < 256; ++value) {
+            Arrays.fill(SELECT_IN_BYTE, value * 8, value * 8 + 8, (byte) 8);
+            int k = 0;
+            for (int bit = 0; bit < 8; ++bit) {
+                if ((value & (1 << bit)) != 0) {
+                    SELECT_IN_BYTE[value * 8 + k++] = (byte) bit;
+                }
+            }
+        }
+    }
+
+    private long[] words = new long[1];
+    /**
+     * The number of bits set before each word, up to date up to and
+     * including validWords.
+     */
+    private int[] ranks = new int[2];
+    private int validWords = 1;
+    /**
+     * The word holding the set bit 64 * k at k, up to date below validSamples.
+     * The samples up to date always point before validWords.
+     */
+    private int[] samples = new int[1];
+    private int validSamples;
+    private int cardinality;
+
+    /**
+     * @param index
+     * @return true if the bit is set.
+     */
+    boolean get(int index) {
+        final int word = index >> 6;
+        return index >= 0 && word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * Set the bit at this index.
+     *
+     * @param index
+     * @return true if the bit was not set.
+     */
+    boolean set(int index) {
+        final int word = index >> 6;
+        ensureCapacity(word + 1);
+        if ((words[word] & (1L << index)) != 0) {
+            return false;
+        }
+        words[word] |= 1L << index;
+        ++cardinality;
+        invalidate(word);
+        return true;
+    }
+
+    /**
+     * Clear the bit at this index.
+     *
+     * @param index
+     * @return true if the bit was set.
+     */
+    boolean clear(int index) {
+        if (!get(index)) {
+            return false;
+        }
+        final int word = index >> 6;
+        words[word] &= ~(1L << index);
+        --cardinality;
+        invalidate(word);
+        return true;
+    }
+
+    /**
+     * Set all the bits from (inclusive) to (exclusive).
+     *
+     * @param from
+     * @param to
+     */
+    void set(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        ensureCapacity(((to - 1) >> 6) + 1);
+        final int firstWord = from >> 6;
+        final int lastWord = (to - 1) >> 6;
+        final long firstMask = -1L << from;
+        final long lastMask = -1L >>> -to;
+        for (int word = firstWord; word <= lastWord; ++word) {
+            long mask = -1L;
+            if (word == firstWord) {
+                mask &= firstMask;
+            }
+            if (word == lastWord) {
+                mask &= lastMask;
+            }
+            cardinality += Long.bitCount(mask & ~words[word]);
+            words[word] |= mask;
+        }
+        invalidate(firstWord);
+    }
+
+    /**
+     * Clear all the bits.
+     */
+    void clear() {
+        Arrays.fill(words, 0);
+        Arrays.fill(ranks, 0);
+        validWords = words.length;
+        validSamples = 0;
+        cardinality = 0;
+    }
+
+    /**
+     * @return the number of bits set.
+     */
+    int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return true if no bit is set.
+     */
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @param from
+     * @return the first set bit at or after from, or -1.
+     */
+    int nextSetBit(int from) {
+        int word = from >> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * @param from
+     * @return the first clear bit at or after from.
+     */
+    int nextClearBit(int from) {
+        int word = from >> 6;
+        if (word >= words.length) {
+            return from;
+        }
+        long bits = ~words[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == words.length) {
+                return word << 6;
+            }
+            bits = ~words[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * @param index
+     * @return the number of bits set before this index.
+     */
+    int rank(int index) {
+        if (index <= 0) {
+            return 0;
+        }
+        final int word = index >> 6;
+        if (word >= words.length) {
+            return cardinality;
+        }
+        updateRanks(word);
+        return ranks[word] + Long.bitCount(words[word] & ~(-1L << index));
+    }
+
+    /**
+     * @param n
+     * @return the index of the nth set bit, starting from 0, or -1 if less
+     * bits are set.
+     */
+    int select(int n) {
+        if (n < 0 || n >= cardinality) {
+            return -1;
+        }
+        updateSamples();
+        // The word is the last one with at most n bits set before it, from
+        // the sampled word to the one holding the next sample.
+        final int sample = n >> 6;
+        int low = samples[sample];
+        int high = sample + 1 < validSamples ? samples[sample + 1] : words.length - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (ranks[middle] <= n) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return (low << 6) + selectInWord(words[low], n - ranks[low]);
+    }
+
+    /**
+     * @return the index of the kth set bit of the word, found a byte at a
+     * time.
+     */
+    private static int selectInWord(long bits, int k) {
+        for (int shift = 0;; shift += 8) {
+            final int value = (int) (bits >>> shift) & 0xFF;
+            final int count = Integer.bitCount(value);
+            if (k < count) {
+                return shift + SELECT_IN_BYTE[value * 8 + k];
+            }
+            k -= count;
+        }
+    }
+
+    /**
+     * Mark the tables as stale from this word on.
+     */
+    private void invalidate(int word) {
+        if (word < validWords) {
+            validWords = word;
+            validSamples = Math.min(validSamples, (ranks[word] + 63) >>> 6);
+        }
+    }
+
+    /**
+     * Bring the number of bits set before each word up to date, up to and
+     * including this word.
+     */
+    private void updateRanks(int word) {
+        for (; validWords < word; ++validWords) {
+            ranks[validWords + 1] = ranks[validWords] + Long.bitCount(words[validWords]);
+        }
+    }
+
+    /**
+     * Bring both tables up to date.
+     */
+    private void updateSamples() {
+        updateRanks(words.length);
+        final int sampleCount = (cardinality + 63) >>> 6;
+        if (validSamples == sampleCount) {
+            return;
+        }
+        if (samples.length < sampleCount) {
+            samples = Arrays.copyOf(samples, Math.max(sampleCount, samples.length * 2));
+        }
+        int word = validSamples == 0 ? 0 : samples[validSamples - 1];
+        for (; validSamples < sampleCount; ++word) {
+            while (validSamples < sampleCount && (validSamples << 6) < ranks[word + 1]) {
+                samples[validSamples++] = word;
+            }
+        }
+    }
+
+    private void ensureCapacity(int wordCount) {
+        if (wordCount > words.length) {
+            words = Arrays.copyOf(words, Math.max(wordCount, words.length * 2));
+            // The new words are empty, and brought up to date on the next
+            // query.
+            ranks = Arrays.copyOf(ranks, words.length + 1);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.cell;
+
+import java.io.File;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import org.controlsfx.control.GridCell;
+import org.controlsfx.control.GridView;
+
+/**
+ * A {@link GridCell} showing the image found at a URL or a file path, the
+ * image being decoded in the background.
+ *
+ * <p>
+ * Unlike {@link ImageGridCell}, the items of the {@link GridView} are not
+ * decoded images but their location, so a GridView can hold thousands of
+ * images without decoding them up front. When a cell is given an item, the
+ * image is decoded at the size of the cells of the GridView by a small pool
+ * of background threads, the most recently requested images being decoded
+ * first. A placeholder image is shown until the image is ready, or if it
+ * cannot be loaded. When a cell is reused for another item before its image
+ * is ready, the previous load is cancelled.
+ *
+ * <h3> Code Sample </h3>
+ * <pre>
+ * GridView&lt;String&gt; gridView = new GridView&lt;&gt;(urls);
+ * gridView.setCellFactory(view -&gt; new AsyncImageGridCell(placeholder));
+ * </pre>
+ *
+ * @see GridView
+ */
+public class AsyncImageGridCell extends GridCell<String> {
+
+    /**************************************************************************
+     * 
+     * Static fields
+     * 
+     **************************************************************************/
+
+    private static final int LOADER_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * The loads waiting for a thread are taken last in first out, so that the
+     * cells the user has just scrolled to are shown first.
+     */
+    private static final ThreadPoolExecutor LOADER = new ThreadPoolExecutor(LOADER_COUNT, LOADER_COUNT, 5,
+            TimeUnit.SECONDS, new LinkedBlockingDeque<Runnable>() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public boolean offer(Runnable runnable) {
+                    return offerFirst(runnable);
+                }
+            }, runnable -> {
+                final Thread thread = new Thread(runnable, "AsyncImageGridCell loader"); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    static {
+        LOADER.allowCoreThreadTimeOut(true);
+    }
+
+    /**************************************************************************
+     * 
+     * Private fields
+     * 
+     **************************************************************************/
+
+    private final ImageView imageView;
+    private final ThumbnailCache cache;
+
+    /**
+     * The item whose image is displayed or being loaded.
+     */
+    private String currentItem;
+    private Future<?> pendingLoad;
+    /**
+     * Incremented for each load, so that a late result is not displayed.
+     */
+    private long generation;
+
+    /**************************************************************************
+     * 
+     * Constructors
+     * 
+     **************************************************************************/
+
+    /**
+     * Creates an AsyncImageGridCell without placeholder.
+     */
+    public AsyncImageGridCell() {
+        this(null);
+    }
+
+    /**
+     * Creates an AsyncImageGridCell showing the given placeholder while the
+     * image is loaded.
+     * 
+     * @param placeholder
+     */
+    public AsyncImageGridCell(Image placeholder) {
+        this(placeholder, null);
+    }
+
+    /**
+     * Creates an AsyncImageGridCell showing the given placeholder while the
+     * image is loaded, and taking the images from the given cache. The cells
+     * of a GridView should share the same cache, so that an image already
+     * decoded is shown at once when it is scrolled back into view.
+     * 
+     * @param placeholder
+     * @param cache the cache of the decoded images, or null to decode the
+     *            image each time it is displayed.
+     */
+    public AsyncImageGridCell(Image placeholder, ThumbnailCache cache) {
+        this.cache = cache;
+        getStyleClass().add("image-grid-cell"); //$NON-NLS-1$
+        setPlaceholder(placeholder);
+
+        imageView = new ImageView();
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(true);
+        imageView.fitHeightProperty().bind(heightProperty());
+        imageView.fitWidthProperty().bind(widthProperty());
+    }
+
+    /**************************************************************************
+     * 
+     * Properties
+     * 
+     **************************************************************************/
+
+    // --- placeholder
+    private final ObjectProperty<Image> placeholder = new SimpleObjectProperty<>(this, "placeholder"); //$NON-NLS-1$
+
+    /**
+     * The image shown while the image of the item is loaded, or when it
+     * cannot be loaded.
+     * 
+     * @return the property of the placeholder.
+     */
+    public final ObjectProperty<Image> placeholderProperty() {
+        return placeholder;
+    }
+
+    /**
+     * Sets the image shown while the image of the item is loaded.
+     * 
+     * @param value
+     */
+    public final void setPlaceholder(Image value) {
+        placeholder.set(value);
+    }
+
+    /**
+     * @return the image shown while the image of the item is loaded.
+     */
+    public final Image getPlaceholder() {
+        return placeholder.get();
+    }
+
+    /**************************************************************************
+     * 
+     * Public API
+     * 
+     **************************************************************************/
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override protected void updateItem(String item, boolean empty) {
+        super.updateItem(item, empty);
+
+        if (empty || item == null) {
+            cancelLoad();
+            currentItem = null;
+            imageView.setImage(null);
+            setGraphic(null);
+        } else if (item.equals(currentItem)) {
+            // The GridCell is updated each time its index is set.
+            setGraphic(imageView);
+        } else {
+            cancelLoad();
+            currentItem = item;
+            setGraphic(imageView);
+            load(item);
+        }
+    }
+
+    /**************************************************************************
+     * 
+     * Implementation
+     * 
+     **************************************************************************/
+
+    private void load(String item) {
+        final long loadGeneration = ++generation;
+        final String url = toUrl(item);
+        final GridView<String> gridView = getGridView();
+        // The image is decoded at the size it will be displayed.
+        final double width = gridView == null ? 0 : gridView.getCellWidth();
+        final double height = gridView == null ? 0 : gridView.getCellHeight();
+
+        final Image cached = cache == null ? null : cache.getIfPresent(url, width, height);
+        if (cached != null) {
+            imageView.setImage(cached);
+            return;
+        }
+        imageView.setImage(getPlaceholder());
+
+        pendingLoad = LOADER.submit(() -> {
+            final Image image = cache == null ? new Image(url, width, height, true, true, false)
+                    : cache.get(url, width, height);
+            Platform.runLater(() -> {
+                if (generation == loadGeneration) {
+                    pendingLoad = null;
+                    if (!image.isError()) {
+                        imageView.setImage(image);
+                    }
+                }
+            });
+        });
+    }
+
+    private void cancelLoad() {
+        ++generation;
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
+            // A cancelled load waiting in the queue is removed right away.
+            LOADER.remove((Runnable) pendingLoad);
+            pendingLoad = null;
+        }
+    }
+
+    /**
+     * A file path is turned into a URL, other items are supposed to be URLs.
+     * A Windows path starts with a drive letter, so it is not taken for a
+     * scheme.
+     */
+    private static String toUrl(String item) {
+        final int colon = item.indexOf(':');
+        if (colon > 1 && item.indexOf('/') > colon) {
+            return item;
+        }
+        return new File(item).toURI().toString();
+    }
+}
@@ -26,8 +26,14 @@
  */
 package org.controlsfx.control.cell;
 
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
+import javafx.scene.media.MediaPlayer.Status;
 import javafx.scene.media.MediaView;
 
 import org.controlsfx.control.GridCell;
@@ -37,39 +43,89 @@ import org.controlsfx.control.GridView;
  * A {@link GridCell} that can be used to show media (i.e. movies) inside the 
  * {@link GridView} control.
  *
+ * <p>
+ * The {@link MediaPlayer}s are taken from a {@link MediaPlayerPool}, and a
+ * cell only holds one while it is fully visible inside the GridView. The
+ * other cells show the poster frame kept by the pool for their media, which
+ * is captured once a player is ready and has rendered its first frame. A
+ * partly visible cell whose media has no poster yet holds a player until its
+ * poster is captured. The cells created with the default constructor share
+ * the same pool.
+ *
  * @see GridView
+ * @see MediaPlayerPool
  */
 public class MediaImageCell extends GridCell<Media> {
 	
-	private MediaPlayer mediaPlayer;
+	private static MediaPlayerPool defaultPool;
+	
+	private final MediaPlayerPool pool;
 	private final MediaView mediaView;
+	private final ImageView posterView;
+	
+	private MediaPlayer mediaPlayer;
+	/**
+	 * The media displayed by this cell, which may not have a player.
+	 */
+	private Media currentMedia;
+	/**
+	 * Whether {@link #play()} was called, the playback starting once the cell
+	 * is fully visible.
+	 */
+	private boolean playRequested;
+	
+	private final InvalidationListener visibilityListener = observable -> updatePlayer();
+	private final InvalidationListener statusListener = observable -> capturePosterWhenReady();
 	
 	/**
 	 * Creates a default MediaGridCell instance.
 	 */
 	public MediaImageCell() {
+		this(getDefaultPool());
+	}
+	
+	/**
+	 * Creates a MediaGridCell taking its players from the given pool.
+	 * 
+	 * @param pool
+	 */
+	public MediaImageCell(MediaPlayerPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("The pool cannot be null."); //$NON-NLS-1$
+		}
+		this.pool = pool;
 		getStyleClass().add("media-grid-cell"); //$NON-NLS-1$
 		
 		mediaView = new MediaView();
-		mediaView.setMediaPlayer(mediaPlayer);
         mediaView.fitHeightProperty().bind(heightProperty());
         mediaView.fitWidthProperty().bind(widthProperty());
-        mediaView.setMediaPlayer(mediaPlayer);
+	
+		posterView = new ImageView();
+		posterView.setPreserveRatio(true);
+		posterView.fitHeightProperty().bind(heightProperty());
+		posterView.fitWidthProperty().bind(widthProperty());
+	
+		// The cell moves with its row when the GridView is scrolled.
+		localToSceneTransformProperty().addListener(visibilityListener);
+		layoutBoundsProperty().addListener(visibilityListener);
 	}
 	
 	/**
 	 * Pauses the media player inside this cell.
 	 */
 	public void pause() {
+		playRequested = false;
 		if(mediaPlayer != null) {
 			mediaPlayer.pause();
 		}
 	}
 	
 	/**
-     * Starts playing the media player inside this cell.
+	 * Starts playing the media player inside this cell. The playback only
+	 * starts once the cell is fully visible.
      */
 	public void play() {
+		playRequested = true;
 		if(mediaPlayer != null) {
 			mediaPlayer.play();
 		}
@@ -79,6 +135,7 @@ public class MediaImageCell extends GridCell<Media> {
      * Stops playing the media player inside this cell.
      */
 	public void stop() {
+		playRequested = false;
 		if(mediaPlayer != null) {
 			mediaPlayer.stop();
 		}
@@ -90,17 +147,113 @@ public class MediaImageCell extends GridCell<Media> {
 	@Override protected void updateItem(Media item, boolean empty) {
 	    super.updateItem(item, empty);
 	    
-	    getChildren().clear();
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
+		if (!empty && item != null && item == currentMedia) {
+			// The GridCell is updated each time its index is set.
+			updatePlayer();
+			return;
         }
 	    
-	    if (empty) {
+		releasePlayer();
+		playRequested = false;
+		if (empty || item == null) {
+			currentMedia = null;
+			posterView.setImage(null);
 	        setGraphic(null);
 	    } else {
-	        mediaPlayer = new MediaPlayer(item);
+			currentMedia = item;
+			posterView.setImage(pool.getPoster(item));
+			setGraphic(posterView);
+			updatePlayer();
+		}
+	}
+	
+	/**
+	 * Take a player while the cell is fully visible, or while it is partly
+	 * visible without a poster, and give it back otherwise.
+	 */
+	private void updatePlayer() {
+		if (currentMedia == null) {
+			return;
+		}
+		final boolean fullyVisible = isVisibleInView(true);
+		final boolean posterNeeded = !fullyVisible && pool.getPoster(currentMedia) == null && isVisibleInView(false);
+		if ((fullyVisible || posterNeeded) && mediaPlayer == null) {
+			mediaPlayer = pool.acquire(currentMedia);
+			mediaPlayer.statusProperty().addListener(statusListener);
 	        mediaView.setMediaPlayer(mediaPlayer);
 	        setGraphic(mediaView);
+			if (fullyVisible && playRequested) {
+				mediaPlayer.play();
+			}
+			capturePosterWhenReady();
+		} else if (!fullyVisible && !posterNeeded && mediaPlayer != null) {
+			releasePlayer();
+			posterView.setImage(pool.getPoster(currentMedia));
+			setGraphic(posterView);
 	    }
 	}
+	
+	/**
+	 * Keep the first frame of the media as its poster if it has none, once
+	 * the player is ready. The frame is rendered by the MediaView during the
+	 * next pulse, so it is captured afterwards.
+	 */
+	private void capturePosterWhenReady() {
+		if (mediaPlayer == null || pool.getPoster(currentMedia) != null) {
+			return;
+		}
+		final Status status = mediaPlayer.getStatus();
+		if (status == Status.READY || status == Status.PAUSED || status == Status.PLAYING) {
+			final MediaPlayer player = mediaPlayer;
+			Platform.runLater(() -> {
+				if (player == mediaPlayer && pool.getPoster(currentMedia) == null) {
+					pool.putPoster(currentMedia, mediaView.snapshot(null, null));
+					// A player only taken for the poster is given back.
+					updatePlayer();
+				}
+			});
+		}
+	}
+	
+	private void releasePlayer() {
+		if (mediaPlayer == null) {
+			return;
+		}
+		mediaPlayer.statusProperty().removeListener(statusListener);
+		final Status status = mediaPlayer.getStatus();
+		if (status == Status.PLAYING || status == Status.PAUSED) {
+			// The frame currently displayed becomes the poster of the media.
+			pool.putPoster(currentMedia, mediaView.snapshot(null, null));
+		}
+		mediaView.setMediaPlayer(null);
+		pool.release(mediaPlayer);
+		mediaPlayer = null;
+	}
+	
+	/**
+	 * @param fully true if the whole cell must be inside the GridView.
+	 * @return true if the cell is inside the viewport of the GridView.
+	 */
+	private boolean isVisibleInView(boolean fully) {
+		final GridView<Media> gridView = getGridView();
+		if (gridView == null || getScene() == null || getIndex() < 0) {
+			return false;
+		}
+		// The VirtualFlow hides the rows it keeps aside.
+		for (Node node = this; node != gridView; node = node.getParent()) {
+			if (node == null || !node.isVisible()) {
+				return false;
+			}
+		}
+		final Bounds cellBounds = localToScene(getLayoutBounds());
+		final Bounds viewBounds = gridView.localToScene(gridView.getLayoutBounds());
+		return fully ? viewBounds.contains(cellBounds) : viewBounds.intersects(cellBounds);
+	}
+	
+	private static MediaPlayerPool getDefaultPool() {
+		if (defaultPool == null) {
+			defaultPool = new MediaPlayerPool();
+		}
+		return defaultPool;
+	}
 }
\ No newline at end of file
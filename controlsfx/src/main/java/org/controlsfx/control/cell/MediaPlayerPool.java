@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.cell;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.scene.image.Image;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+
+/**
+ * A bounded pool of {@link MediaPlayer}s and a cache of poster frames, shared
+ * by the {@link MediaImageCell}s of a {@link org.controlsfx.control.GridView}.
+ *
+ * <p>
+ * A MediaPlayer holds native resources, so creating one for each cell reuse
+ * is costly when a gallery of videos is scrolled. A cell takes a player from
+ * the pool only while it is fully visible, and gives it back afterwards. The
+ * players given back are kept idle, so that a cell scrolled back into view
+ * gets its player at once, the least recently used ones being disposed when
+ * there are more idle players than the capacity of the pool.
+ *
+ * <p>
+ * When a cell gives back its player, the frame it displays is kept as a
+ * poster, which is shown by the cells that do not have a player.
+ *
+ * <p>
+ * A MediaPlayerPool must only be used from the JavaFX Application Thread.
+ */
+public class MediaPlayerPool {
+
+    /**************************************************************************
+     * 
+     * Private fields
+     * 
+     **************************************************************************/
+
+    private final int capacity;
+    private final int posterCapacity;
+
+    /**
+     * The idle players by source of their media, the least recently released
+     * first.
+     */
+    private final LinkedHashMap<String, MediaPlayer> idlePlayers = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LinkedHashMap<String, Image> posters;
+
+    /**************************************************************************
+     * 
+     * Constructors
+     * 
+     **************************************************************************/
+
+    /**
+     * Creates a pool keeping up to 8 idle players and 64 posters.
+     */
+    public MediaPlayerPool() {
+        this(8, 64);
+    }
+
+    /**
+     * Creates a pool keeping the given number of idle players and posters.
+     * 
+     * @param capacity the maximum number of idle players.
+     * @param posterCapacity the maximum number of posters.
+     */
+    public MediaPlayerPool(int capacity, final int posterCapacity) {
+        if (capacity < 0 || posterCapacity < 0) {
+            throw new IllegalArgumentException("The capacities cannot be negative: " + capacity + ", " + posterCapacity); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        this.capacity = capacity;
+        this.posterCapacity = posterCapacity;
+        this.posters = new LinkedHashMap<String, Image>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+                return size() > posterCapacity;
+            }
+        };
+    }
+
+    /**************************************************************************
+     * 
+     * Public API
+     * 
+     **************************************************************************/
+
+    /**
+     * Return a player for this media, taken from the idle players if one was
+     * released for the same source, or created otherwise. The player must be
+     * given back with {@link #release(MediaPlayer)}.
+     * 
+     * @param media
+     * @return a player for this media.
+     */
+    public MediaPlayer acquire(Media media) {
+        final MediaPlayer player = idlePlayers.remove(media.getSource());
+        return player != null ? player : new MediaPlayer(media);
+    }
+
+    /**
+     * Give back a player obtained with {@link #acquire(Media)}. The player is
+     * paused and kept idle, the least recently released idle players being
+     * disposed if there are too many of them.
+     * 
+     * @param player
+     */
+    public void release(MediaPlayer player) {
+        player.pause();
+        final MediaPlayer previous = idlePlayers.put(player.getMedia().getSource(), player);
+        if (previous != null && previous != player) {
+            previous.dispose();
+        }
+        final Iterator<MediaPlayer> iterator = idlePlayers.values().iterator();
+        while (idlePlayers.size() > capacity && iterator.hasNext()) {
+            final MediaPlayer eldest = iterator.next();
+            iterator.remove();
+            eldest.dispose();
+        }
+    }
+
+    /**
+     * @param media
+     * @return the poster kept for this media, or null if there is none.
+     */
+    public Image getPoster(Media media) {
+        return posters.get(media.getSource());
+    }
+
+    /**
+     * Keep the given image as the poster of this media.
+     * 
+     * @param media
+     * @param poster
+     */
+    public void putPoster(Media media, Image poster) {
+        posters.put(media.getSource(), poster);
+    }
+
+    /**
+     * @return the maximum number of idle players.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the maximum number of posters.
+     */
+    public int getPosterCapacity() {
+        return posterCapacity;
+    }
+
+    /**
+     * Dispose all the idle players and forget the posters. The players that
+     * are in use are not affected.
+     */
+    public void clear() {
+        for (MediaPlayer player : idlePlayers.values()) {
+            player.dispose();
+        }
+        idlePlayers.clear();
+        posters.clear();
+    }
+}
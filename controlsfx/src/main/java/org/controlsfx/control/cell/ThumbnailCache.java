@@ -0,0 +1,333 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.cell;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+/**
+ * A cache of images decoded at the size of the cells of a
+ * {@link org.controlsfx.control.GridView}, to be shared by
+ * {@link AsyncImageGridCell}s.
+ *
+ * <p>
+ * Each image is decoded with the requested size of {@link Image}, so only
+ * the downscaled bitmap is kept in memory. The images are kept as long as
+ * their total size, counted as width &times; height &times; 4 bytes, is
+ * below the byte budget, the least recently used ones being dropped first.
+ *
+ * <p>
+ * If a spill directory is given, a dropped image is written there as a raw
+ * file holding its width, its height and its ARGB pixels, so that it is read
+ * back already downscaled the next time it is needed instead of decoding the
+ * original image again. The files are not compressed, which is fine for
+ * thumbnails. The directory is not cleaned by the cache.
+ *
+ * <p>
+ * A ThumbnailCache can be used from several threads.
+ *
+ * <h3> Code Sample </h3>
+ * <pre>
+ * ThumbnailCache cache = new ThumbnailCache(64 * 1024 * 1024);
+ * gridView.setCellFactory(view -&gt; new AsyncImageGridCell(placeholder, cache));
+ * </pre>
+ */
+public class ThumbnailCache {
+
+    /**************************************************************************
+     * 
+     * Private fields
+     * 
+     **************************************************************************/
+
+    private static final Logger LOGGER = Logger.getLogger(ThumbnailCache.class.getName());
+    private static final String SPILL_EXTENSION = ".argb"; //$NON-NLS-1$
+    /**
+     * The width and the height written before the pixels.
+     */
+    private static final int SPILL_HEADER_SIZE = 8;
+
+    private final long byteBudget;
+    private final Path spillDirectory;
+    /**
+     * The images in access order, the least recently used first.
+     */
+    private final LinkedHashMap<String, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+    private long byteCount;
+
+    /**************************************************************************
+     * 
+     * Constructors
+     * 
+     **************************************************************************/
+
+    /**
+     * Creates a cache keeping its images in memory only.
+     * 
+     * @param byteBudget the maximum size of the images kept in memory.
+     */
+    public ThumbnailCache(long byteBudget) {
+        this(byteBudget, null);
+    }
+
+    /**
+     * Creates a cache writing the images dropped from memory into the given
+     * directory.
+     * 
+     * @param byteBudget the maximum size of the images kept in memory.
+     * @param spillDirectory an existing directory, or null to drop the
+     *            images for good.
+     */
+    public ThumbnailCache(long byteBudget, Path spillDirectory) {
+        if (byteBudget < 0) {
+            throw new IllegalArgumentException("The byte budget cannot be negative: " + byteBudget); //$NON-NLS-1$
+        }
+        this.byteBudget = byteBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**************************************************************************
+     * 
+     * Public API
+     * 
+     **************************************************************************/
+
+    /**
+     * Return the image found at this URL decoded at the given size, decoding
+     * it if it is not in the cache. This blocks until the image is decoded,
+     * so it should not be called on the JavaFX Application Thread.
+     * 
+     * @param url
+     * @param width the requested width, or 0 for the width of the image.
+     * @param height the requested height, or 0 for the height of the image.
+     * @return the image, which may be in error if it could not be loaded.
+     */
+    public Image get(String url, double width, double height) {
+        final String key = key(url, width, height);
+        Image image = getIfPresent(key);
+        if (image != null) {
+            return image;
+        }
+
+        final Path spilled = getSpillFile(key);
+        if (spilled != null && Files.isReadable(spilled)) {
+            image = readSpill(spilled);
+        }
+        if (image == null || image.isError()) {
+            image = new Image(url, width, height, true, true, false);
+        }
+        if (!image.isError()) {
+            put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Return the image found at this URL decoded at the given size if it is
+     * in memory. This never blocks.
+     * 
+     * @param url
+     * @param width
+     * @param height
+     * @return the image, or null if it is not in memory.
+     */
+    public Image getIfPresent(String url, double width, double height) {
+        return getIfPresent(key(url, width, height));
+    }
+
+    /**
+     * @return the size in bytes of the images currently in memory.
+     */
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * @return the maximum size in bytes of the images kept in memory.
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * Drop all the images kept in memory, without spilling them.
+     */
+    public synchronized void clear() {
+        images.clear();
+        byteCount = 0;
+    }
+
+    /**************************************************************************
+     * 
+     * Implementation
+     * 
+     **************************************************************************/
+
+    private synchronized Image getIfPresent(String key) {
+        return images.get(key);
+    }
+
+    private void put(String key, Image image) {
+        final List<Map.Entry<String, Image>> evicted = new ArrayList<>();
+        synchronized (this) {
+            final Image previous = images.put(key, image);
+            if (previous != null) {
+                byteCount -= sizeOf(previous);
+            }
+            byteCount += sizeOf(image);
+            final Iterator<Map.Entry<String, Image>> iterator = images.entrySet().iterator();
+            while (byteCount > byteBudget && iterator.hasNext()) {
+                final Map.Entry<String, Image> eldest = iterator.next();
+                iterator.remove();
+                byteCount -= sizeOf(eldest.getValue());
+                evicted.add(eldest);
+            }
+        }
+        // The files are written outside of the lock.
+        for (Map.Entry<String, Image> entry : evicted) {
+            spill(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void spill(String key, Image image) {
+        final Path file = getSpillFile(key);
+        if (file == null || Files.exists(file)) {
+            return;
+        }
+        Path temporary = null;
+        try {
+            final PixelReader reader = image.getPixelReader();
+            if (reader == null) {
+                return;
+            }
+            final int width = (int) image.getWidth();
+            final int height = (int) image.getHeight();
+            final ByteBuffer buffer = ByteBuffer.allocate(SPILL_HEADER_SIZE + width * height * 4);
+            buffer.putInt(width).putInt(height);
+            final int[] pixels = new int[width * height];
+            reader.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            buffer.asIntBuffer().put(pixels);
+            buffer.rewind();
+
+            temporary = Files.createTempFile(spillDirectory, null, SPILL_EXTENSION);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            // Another thread may be reading the file, so it appears at once.
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.FINE, "Cannot spill a thumbnail to " + file, ex); //$NON-NLS-1$
+        } finally {
+            // Once moved, the temporary file is gone. Otherwise it would pile
+            // up in the spill directory.
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ex) {
+                    LOGGER.log(Level.FINE, "Cannot delete " + temporary, ex); //$NON-NLS-1$
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the image written by {@link #spill(String, Image)}, or null if
+     * the file cannot be read.
+     */
+    private static Image readSpill(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // A short file is rejected below.
+            }
+            buffer.flip();
+            if (buffer.remaining() < SPILL_HEADER_SIZE) {
+                return null;
+            }
+            final int width = buffer.getInt();
+            final int height = buffer.getInt();
+            final IntBuffer pixels = buffer.asIntBuffer();
+            if (width <= 0 || height <= 0 || pixels.remaining() != width * height) {
+                return null;
+            }
+            final WritableImage image = new WritableImage(width, height);
+            image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, width);
+            return image;
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.FINE, "Cannot read the thumbnail " + file, ex); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    private Path getSpillFile(String key) {
+        if (spillDirectory == null) {
+            return null;
+        }
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+            final StringBuilder name = new StringBuilder(digest.length * 2 + SPILL_EXTENSION.length());
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return spillDirectory.resolve(name.append(SPILL_EXTENSION).toString());
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform provides SHA-1.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String key(String url, double width, double height) {
+        return (long) width + "x" + (long) height + ' ' + url; //$NON-NLS-1$
+    }
+
+    private static long sizeOf(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+}
@@ -0,0 +1,667 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.spreadsheet;
+
+import com.sun.javafx.collections.NonIterableChange;
+import com.sun.javafx.event.EventHandlerManager;
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.collections.transformation.TransformationList;
+import javafx.event.Event;
+import javafx.event.EventDispatchChain;
+import javafx.event.EventHandler;
+import javafx.event.EventTarget;
+import javafx.event.EventType;
+import javafx.util.Callback;
+import org.controlsfx.control.spreadsheet.SpreadsheetView.SpanType;
+
+/**
+ * A {@link Grid} reading its values directly from a list of domain objects.
+ *
+ * <p>
+ * Each {@link Column} declares how to read, and optionally write, one value
+ * of an item. Nothing is copied: a {@link SpreadsheetCell} is only created
+ * when a row is requested by the {@link SpreadsheetView}, and is released
+ * with its row once that row is scrolled away. The changes of the items list
+ * are forwarded as row changes, so adding or removing one item only updates
+ * that row.
+ *
+ * <p>
+ * When the user edits a cell, the value is converted by the
+ * {@link SpreadsheetCellType} of the column and given to the setter of the
+ * column. A {@link GridChange} event is fired just like with {@link GridBase}.
+ * The columns without setter are not editable.
+ *
+ * <p>
+ * This Grid does not support spans, {@link #spanRow(int, int, int)} and
+ * {@link #spanColumn(int, int, int)} throw an
+ * {@link UnsupportedOperationException}. The rows are computed from the items,
+ * so {@link #setRows(Collection)} is not supported either, you must modify
+ * {@link #getItems()} instead.
+ *
+ * <h3> Code Sample </h3>
+ * <pre>
+ * ObservableList&lt;Person&gt; persons = ...;
+ * BeanGrid&lt;Person&gt; grid = new BeanGrid&lt;&gt;(persons, Arrays.asList(
+ *         new BeanGrid.Column&lt;&gt;("Name", SpreadsheetCellType.STRING, Person::getName, Person::setName),
+ *         new BeanGrid.Column&lt;&gt;("Age", SpreadsheetCellType.INTEGER, Person::getAge, null),
+ *         BeanGrid.Column.forProperty(MethodHandles.lookup(), Person.class, "birthday", SpreadsheetCellType.DATE)));
+ * SpreadsheetView spv = new SpreadsheetView(grid);
+ * </pre>
+ *
+ * @param <T> the type of the items.
+ * @see Grid
+ */
+public class BeanGrid<T> implements Grid, EventTarget {
+
+    /***************************************************************************
+     *
+     * Inner Classes
+     *
+     **************************************************************************/
+    /**
+     * The declaration of one column of a {@link BeanGrid}.
+     *
+     * @param <T> the type of the items.
+     * @param <V> the type of the value of this column.
+     */
+    public static final class Column<T, V> {
+
+        private final String header;
+        private final SpreadsheetCellType<V> type;
+        private final Function<? super T, ? extends V> getter;
+        private final BiConsumer<? super T, ? super V> setter;
+
+        /**
+         * Creates a column reading its values with the getter and writing
+         * them with the setter.
+         *
+         * @param header the text displayed in the column header.
+         * @param type the type of the cells of this column.
+         * @param getter the function reading the value of an item.
+         * @param setter the function writing the value of an item, or null if
+         * this column is read-only.
+         */
+        public Column(String header, SpreadsheetCellType<V> type, Function<? super T, ? extends V> getter,
+                BiConsumer<? super T, ? super V> setter) {
+            this.header = header;
+            this.type = Objects.requireNonNull(type);
+            this.getter = Objects.requireNonNull(getter);
+            this.setter = setter;
+        }
+
+        /**
+         * Creates a column bound to the JavaBean property of the given class.
+         * The accessors are found with the given {@link MethodHandles.Lookup}
+         * and turned into functions by the {@link LambdaMetafactory}, so
+         * reading a value costs the same as calling the getter directly.
+         *
+         * @param lookup a lookup having access to the accessors of the bean,
+         * usually {@code MethodHandles.lookup()} in the calling class.
+         * @param beanClass the class of the items.
+         * @param property the name of the property.
+         * @param type the type of the cells of this column.
+         * @return a column using the name of the property as header.
+         * @throws IllegalArgumentException if the property has no getter or if
+         * the accessors cannot be accessed.
+         */
+        public static <T, V> Column<T, V> forProperty(MethodHandles.Lookup lookup, Class<T> beanClass,
+                String property, SpreadsheetCellType<V> type) {
+            final PropertyDescriptor descriptor = findProperty(beanClass, property);
+            if (descriptor.getReadMethod() == null) {
+                throw new IllegalArgumentException("The property " + property + " of " + beanClass.getName() //$NON-NLS-1$ //$NON-NLS-2$
+                        + " has no getter."); //$NON-NLS-1$
+            }
+            try {
+                final Function<T, V> getter = toFunction(lookup, lookup.unreflect(descriptor.getReadMethod()));
+                final BiConsumer<T, V> setter = descriptor.getWriteMethod() == null ? null
+                        : toBiConsumer(lookup, lookup.unreflect(descriptor.getWriteMethod()));
+                return new Column<>(property, type, getter, setter);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalArgumentException("The accessors of the property " + property + " of " //$NON-NLS-1$ //$NON-NLS-2$
+                        + beanClass.getName() + " cannot be accessed.", ex); //$NON-NLS-1$
+            }
+        }
+
+        /**
+         * @return the text displayed in the column header.
+         */
+        public String getHeader() {
+            return header;
+        }
+
+        /**
+         * @return the type of the cells of this column.
+         */
+        public SpreadsheetCellType<V> getType() {
+            return type;
+        }
+
+        /**
+         * @return true if the values of this column can be written.
+         */
+        public boolean isEditable() {
+            return setter != null;
+        }
+
+        private V read(T item) {
+            return getter.apply(item);
+        }
+
+        private Object write(T item, Object value) {
+            final V convertedValue = type.convertValue(value);
+            setter.accept(item, convertedValue);
+            return convertedValue;
+        }
+    }
+
+    /***************************************************************************
+     *
+     * Private Fields
+     *
+     **************************************************************************/
+    private final ObservableList<T> items;
+    private final List<Column<T, ?>> columns;
+    private final BeanRows rows;
+    private Callback<Integer, Double> rowHeightFactory;
+    private final EventHandlerManager eventHandlerManager = new EventHandlerManager(this);
+    private final ObservableList<String> rowsHeader;
+    private final ObservableList<String> columnsHeader;
+
+    /***************************************************************************
+     *
+     * Constructor
+     *
+     **************************************************************************/
+    /**
+     * Creates a Grid displaying the items, one per row, with the given
+     * columns.
+     *
+     * @param items the items to display.
+     * @param columns the columns to display.
+     */
+    public BeanGrid(ObservableList<T> items, List<? extends Column<T, ?>> columns) {
+        this.items = Objects.requireNonNull(items);
+        this.columns = new ArrayList<>(columns);
+        rowsHeader = FXCollections.observableArrayList();
+        columnsHeader = FXCollections.observableArrayList();
+        for (Column<T, ?> column : this.columns) {
+            columnsHeader.add(column.getHeader());
+        }
+        rowHeightFactory = new GridBase.MapBasedRowHeightFactory(new HashMap<>());
+        rows = new BeanRows(items);
+    }
+
+    /***************************************************************************
+     *
+     * Public Methods (Inherited from Grid)
+     *
+     **************************************************************************/
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowCount() {
+        return items.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The rows are created on demand from the items, and kept only as long as
+     * they are used.
+     */
+    @Override
+    public ObservableList<ObservableList<SpreadsheetCell>> getRows() {
+        return rows;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The value is given to the setter of the column, nothing happens if the
+     * column is read-only.
+     */
+    @Override
+    public void setCellValue(int row, int column, Object value) {
+        if (row < 0 || row >= items.size() || column < 0 || column >= columns.size()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        final Column<T, Object> beanColumn = (Column<T, Object>) columns.get(column);
+        if (!beanColumn.isEditable()) {
+            return;
+        }
+        final T item = items.get(row);
+        final Object previousItem = beanColumn.read(item);
+        final Object convertedValue = beanColumn.write(item, value);
+        if (!Objects.equals(previousItem, convertedValue)) {
+            // The displayed cell, if any, is updated in place.
+            final BeanRow beanRow = rows.getCachedRow(row);
+            if (beanRow != null) {
+                beanRow.refresh(column);
+            }
+            GridChange cellChange = new GridChange(row, column, previousItem, convertedValue);
+            Event.fireEvent(this, cellChange);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A BeanGrid has no span.
+     */
+    @Override
+    public SpanType getSpanType(SpreadsheetView spv, int row, int column) {
+        return SpanType.NORMAL_CELL;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A BeanGrid has no span.
+     */
+    @Override
+    public boolean isSpanSupported() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getRowHeight(int row) {
+        return rowHeightFactory.call((Integer) row);
+    }
+
+    /**
+     * Set a new {@link Callback} for this grid in order to specify height of
+     * each row.
+     *
+     * @param rowHeight
+     */
+    public void setRowHeightCallback(Callback<Integer, Double> rowHeight) {
+        this.rowHeightFactory = rowHeight;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ObservableList<String> getRowHeaders() {
+        return rowsHeader;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ObservableList<String> getColumnHeaders() {
+        return columnsHeader;
+    }
+
+    /**
+     * Not supported, a BeanGrid has no span.
+     *
+     * @throws UnsupportedOperationException
+     */
+    @Override
+    public void spanRow(int count, int rowIndex, int colIndex) {
+        throw new UnsupportedOperationException("A BeanGrid cannot span its cells."); //$NON-NLS-1$
+    }
+
+    /**
+     * Not supported, a BeanGrid has no span.
+     *
+     * @throws UnsupportedOperationException
+     */
+    @Override
+    public void spanColumn(int count, int rowIndex, int colIndex) {
+        throw new UnsupportedOperationException("A BeanGrid cannot span its cells."); //$NON-NLS-1$
+    }
+
+    /**
+     * Not supported, the rows are computed from the items. Modify
+     * {@link #getItems()} instead.
+     *
+     * @throws UnsupportedOperationException
+     */
+    @Override
+    public void setRows(Collection<ObservableList<SpreadsheetCell>> rows) {
+        throw new UnsupportedOperationException("The rows of a BeanGrid are computed from its items."); //$NON-NLS-1$
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends GridChange> void addEventHandler(EventType<E> eventType, EventHandler<E> eventHandler) {
+        eventHandlerManager.addEventHandler(eventType, eventHandler);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <E extends GridChange> void removeEventHandler(EventType<E> eventType, EventHandler<E> eventHandler) {
+        eventHandlerManager.removeEventHandler(eventType, eventHandler);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public EventDispatchChain buildEventDispatchChain(EventDispatchChain tail) {
+        return tail.append(eventHandlerManager);
+    }
+
+    /***************************************************************************
+     *
+     * Public Methods
+     *
+     **************************************************************************/
+    /**
+     * @return the items displayed, one per row.
+     */
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return an unmodifiable view of the columns displayed.
+     */
+    public List<Column<T, ?>> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /***************************************************************************
+     *
+     * Private implementation
+     *
+     **************************************************************************/
+    private static PropertyDescriptor findProperty(Class<?> beanClass, String property) {
+        try {
+            final BeanInfo info = Introspector.getBeanInfo(beanClass);
+            for (PropertyDescriptor descriptor : info.getPropertyDescriptors()) {
+                if (descriptor.getName().equals(property)) {
+                    return descriptor;
+                }
+            }
+        } catch (IntrospectionException ex) {
+            throw new IllegalArgumentException("Cannot introspect " + beanClass.getName(), ex); //$NON-NLS-1$
+        }
+        throw new IllegalArgumentException("The property " + property + " does not exist in " //$NON-NLS-1$ //$NON-NLS-2$
+                + beanClass.getName());
+    }
+
+    /**
+     * Generate a {@link Function} calling directly the getter. If the lookup
+     * does not allow it, the {@link MethodHandle} is invoked instead.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T, V> Function<T, V> toFunction(MethodHandles.Lookup lookup, MethodHandle getter) {
+        try {
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "apply", //$NON-NLS-1$
+                    MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                    getter, getter.type().wrap());
+            return (Function<T, V>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            final MethodHandle handle = getter.asType(MethodType.methodType(Object.class, Object.class));
+            return item -> {
+                try {
+                    return (V) handle.invokeExact((Object) item);
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Generate a {@link BiConsumer} calling directly the setter. If the lookup
+     * does not allow it, the {@link MethodHandle} is invoked instead.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T, V> BiConsumer<T, V> toBiConsumer(MethodHandles.Lookup lookup, MethodHandle setter) {
+        try {
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "accept", //$NON-NLS-1$
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    setter, setter.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<T, V>) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            final MethodHandle handle = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (item, value) -> {
+                try {
+                    handle.invokeExact((Object) item, (Object) value);
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * The rows of the Grid, computed from the items. A row is created when
+     * it is requested and kept through a weak reference, so the rows that are
+     * not displayed anymore are collected with their cells.
+     */
+    private final class BeanRows extends TransformationList<ObservableList<SpreadsheetCell>, T> {
+
+        private final Map<Integer, RowReference> cache = new HashMap<>();
+        private final ReferenceQueue<BeanRow> queue = new ReferenceQueue<>();
+
+        BeanRows(ObservableList<T> source) {
+            super(source);
+        }
+
+        @Override
+        public ObservableList<SpreadsheetCell> get(int index) {
+            BeanRow row = getCachedRow(index);
+            if (row == null) {
+                row = new BeanRow(index, items.get(index));
+                cache.put(index, new RowReference(index, row, queue));
+            }
+            return row;
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+        @Override
+        public int getSourceIndex(int index) {
+            return index;
+        }
+
+        BeanRow getCachedRow(int index) {
+            purge();
+            final RowReference reference = cache.get(index);
+            return reference == null ? null : reference.get();
+        }
+
+        @Override
+        protected void sourceChanged(ListChangeListener.Change<? extends T> c) {
+            // A single removal, like clear(), is fired directly: the change
+            // builder would copy the removed rows, creating all of them.
+            if (c.next() && c.wasRemoved() && !c.wasAdded() && !c.next()) {
+                c.reset();
+                c.next();
+                final int from = c.getFrom();
+                cache.clear();
+                fireChange(new NonIterableChange.GenericAddRemoveChange<>(from, from,
+                        removedRows(from, c.getRemoved()), this));
+                return;
+            }
+            c.reset();
+
+            beginChange();
+            while (c.next()) {
+                final int from = c.getFrom();
+                if (c.wasPermutated()) {
+                    // The cells know their row, they cannot be moved.
+                    cache.clear();
+                    final int[] permutation = new int[c.getTo() - from];
+                    for (int i = from; i < c.getTo(); ++i) {
+                        permutation[i - from] = c.getPermutation(i);
+                    }
+                    nextPermutation(from, c.getTo(), permutation);
+                } else if (c.wasUpdated()) {
+                    // A new row is given so that the view reads the item again.
+                    for (int i = from; i < c.getTo(); ++i) {
+                        final BeanRow previous = getCachedRow(i);
+                        cache.remove(i);
+                        nextSet(i, previous == null ? new BeanRow(i, items.get(i)) : previous);
+                    }
+                } else {
+                    final List<ObservableList<SpreadsheetCell>> removed = removedRows(from, c.getRemoved());
+                    if (c.getAddedSize() == c.getRemovedSize()) {
+                        // Replaced items, the following rows are not moved.
+                        for (int i = from; i < c.getTo(); ++i) {
+                            cache.remove(i);
+                        }
+                    } else {
+                        // The following rows are shifted and know their old row.
+                        cache.clear();
+                    }
+                    if (c.wasReplaced()) {
+                        nextReplace(from, c.getTo(), removed);
+                    } else if (c.wasRemoved()) {
+                        nextRemove(from, removed);
+                    } else {
+                        nextAdd(from, c.getTo());
+                    }
+                }
+            }
+            endChange();
+        }
+
+        /**
+         * The rows of the removed items, only created when they are read.
+         */
+        private List<ObservableList<SpreadsheetCell>> removedRows(final int from, final List<? extends T> removedItems) {
+            return new AbstractList<ObservableList<SpreadsheetCell>>() {
+                @Override
+                public ObservableList<SpreadsheetCell> get(int index) {
+                    return new BeanRow(from + index, removedItems.get(index));
+                }
+
+                @Override
+                public int size() {
+                    return removedItems.size();
+                }
+            };
+        }
+
+        /**
+         * Remove from the cache the rows that have been collected.
+         */
+        private void purge() {
+            RowReference reference;
+            while ((reference = (RowReference) queue.poll()) != null) {
+                if (cache.get(reference.index) == reference) {
+                    cache.remove(reference.index);
+                }
+            }
+        }
+    }
+
+    private final class RowReference extends WeakReference<BeanRow> {
+
+        private final int index;
+
+        RowReference(int index, BeanRow row, ReferenceQueue<BeanRow> queue) {
+            super(row, queue);
+            this.index = index;
+        }
+    }
+
+    /**
+     * One row of the Grid, its cells are created the first time they are
+     * requested.
+     */
+    private final class BeanRow extends ObservableListBase<SpreadsheetCell> {
+
+        private final int row;
+        private final T item;
+        private final SpreadsheetCellBase[] cells;
+
+        BeanRow(int row, T item) {
+            this.row = row;
+            this.item = item;
+            this.cells = new SpreadsheetCellBase[columns.size()];
+        }
+
+        @Override
+        public SpreadsheetCell get(int column) {
+            SpreadsheetCellBase cell = cells[column];
+            if (cell == null) {
+                final Column<T, ?> beanColumn = columns.get(column);
+                cell = new SpreadsheetCellBase(row, column, 1, 1, beanColumn.getType());
+                cell.setItem(beanColumn.read(item));
+                cell.setEditable(beanColumn.isEditable());
+                cells[column] = cell;
+            }
+            return cell;
+        }
+
+        @Override
+        public int size() {
+            return cells.length;
+        }
+
+        /**
+         * Read again the value of a cell if it has been created.
+         *
+         * @param column
+         */
+        void refresh(int column) {
+            final SpreadsheetCellBase cell = cells[column];
+            if (cell != null) {
+                // The bean is the reference, even for a cell not editable.
+                cell.updateItem(columns.get(column).read(item));
+            }
+        }
+    }
+}
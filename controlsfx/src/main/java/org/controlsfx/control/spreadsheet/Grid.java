@@ -106,6 +106,9 @@ public interface Grid {
     
     /**
      * Return the {@link SpanType} for a given cell row/column intersection.
+     * The row is the index displayed by the SpreadsheetView, which differs
+     * from the index in the Grid when some rows are collapsed. See
+     * {@link SpreadsheetView#getModelRow(int) }.
      * @param spv
      * @param row
      * @param column
@@ -157,6 +160,19 @@ public interface Grid {
      */
     public void spanColumn(int count, int rowIndex, int colIndex);
     
+    /**
+     * Return true if the cells of this Grid may span several rows or
+     * columns. When false, the {@link SpreadsheetView} never scans the rows
+     * looking for spans, so a Grid creating its rows on demand does not have
+     * every row created. The default implementation returns true.
+     * 
+     * @return true if the cells of this Grid may span several rows or
+     * columns.
+     */
+    public default boolean isSpanSupported() {
+        return true;
+    }
+    
     /**
      * This method sets the rows used by the grid, and updates the rowCount.
      * @param rows
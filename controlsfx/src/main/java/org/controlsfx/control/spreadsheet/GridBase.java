@@ -28,13 +28,14 @@ package org.controlsfx.control.spreadsheet;
 
 import com.sun.javafx.event.EventHandlerManager;
 import impl.org.controlsfx.spreadsheet.GridViewSkin;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.Event;
 import javafx.event.EventDispatchChain;
@@ -106,6 +107,18 @@ public class GridBase implements Grid, EventTarget {
     private final ObservableList<String> rowsHeader;
     private final ObservableList<String> columnsHeader;
 
+    /**
+     * Copy-on-write storage of the cell items used by {@link #takeSnapshot()}.
+     * It is lazily built on the first snapshot and shared with every snapshot
+     * taken since. A chunk whose generation differs from the current one is
+     * shared and must be copied before being written.
+     */
+    private Object[][][] snapshotColumns;
+    private int[] snapshotColumnGenerations;
+    private int[][] snapshotChunkGenerations;
+    private int snapshotTableGeneration;
+    private int snapshotGeneration;
+
     /***************************************************************************
      * 
      * Constructor
@@ -126,8 +139,13 @@ public class GridBase implements Grid, EventTarget {
         locked = new SimpleBooleanProperty(false);
         rowHeightFactory = new MapBasedRowHeightFactory(new HashMap<>());
         rows = FXCollections.observableArrayList();
-        rows.addListener((Observable observable) -> {
+        rows.addListener((ListChangeListener.Change<? extends ObservableList<SpreadsheetCell>> c) -> {
             setRowCount(rows.size());
+            int from = rowCount;
+            while (c.next()) {
+                from = Math.min(from, c.getFrom());
+            }
+            rebuildSnapshotStorage(from);
         });
     }
 
@@ -152,6 +170,7 @@ public class GridBase implements Grid, EventTarget {
             Object convertedValue = cell.getCellType().convertValue(value);
             cell.setItem(convertedValue);
             if (!java.util.Objects.equals(previousItem, cell.getItem())) {
+                updateSnapshotStorage(cell);
                 GridChange cellChange = new GridChange(row, column, previousItem, convertedValue);
                 Event.fireEvent(this, cellChange);
             }
@@ -173,17 +192,19 @@ public class GridBase implements Grid, EventTarget {
     /** {@inheritDoc} */
     @Override
     public SpanType getSpanType(final SpreadsheetView spv, final int row, final int column) {
-        if (row < 0 || column < 0 || row >= rowCount || column >= columnCount) {
+        //The row given is the one displayed, we need the one in the Grid.
+        final int modelRow = spv.getModelRow(row);
+        if (modelRow < 0 || column < 0 || modelRow >= rowCount || column >= columnCount) {
             return SpanType.NORMAL_CELL;
         }
         
-        final SpreadsheetCell cell =  getRows().get(row).get(column);
+        final SpreadsheetCell cell =  getRows().get(modelRow).get(column);
 
         final int cellColumn = cell.getColumn();
         final int cellRow = cell.getRow();
         final int cellRowSpan = cell.getRowSpan();
 
-        if (cellColumn == column && cellRow == row && cellRowSpan == 1) {
+        if (cellColumn == column && cellRow == modelRow && cellRowSpan == 1) {
             return SpanType.NORMAL_CELL;
         }
 
@@ -195,15 +216,15 @@ public class GridBase implements Grid, EventTarget {
         final GridViewSkin skin = spv.getCellsViewSkin();
         final boolean containsRowMinusOne = skin == null ? true : skin.containsRow(row - 1);
         if (containsRowMinusOne && cellColumnSpan > 1 && cellColumn != column && cellRowSpan > 1
-                && cellRow != row) {
+                && cellRow != modelRow) {
             return SpanType.BOTH_INVISIBLE;
         } else if (cellRowSpan > 1 && cellColumn == column) {
-            if ((cellRow == row || !containsRowMinusOne)) {
+            if ((cellRow == modelRow || !containsRowMinusOne)) {
                 return SpanType.ROW_VISIBLE;
             } else {
                 return SpanType.ROW_SPAN_INVISIBLE;
             }
-        } else if (cellColumnSpan > 1 && cellColumn != column && (cellRow == row || !containsRowMinusOne)) {
+        } else if (cellColumnSpan > 1 && cellColumn != column && (cellRow == modelRow || !containsRowMinusOne)) {
             return SpanType.COLUMN_SPAN_INVISIBLE;
         } else {
             return SpanType.NORMAL_CELL;
@@ -291,6 +312,8 @@ public class GridBase implements Grid, EventTarget {
                 }
             }
         }
+        // The covered positions now hold the item of the spanning cell.
+        updateSnapshotStorage(cell);
     }
 
     /** {@inheritDoc} */
@@ -310,11 +333,15 @@ public class GridBase implements Grid, EventTarget {
                 }
             }
         }
+        // The covered positions now hold the item of the spanning cell.
+        updateSnapshotStorage(cell);
     }
 
     /** {@inheritDoc} */
     @Override
     public void setRows(Collection<ObservableList<SpreadsheetCell>> rows) {
+        // Every row is new, the storage is built again on the next snapshot.
+        invalidateSnapshotStorage();
         this.rows.clear();
         this.rows.addAll(rows);
 
@@ -322,6 +349,34 @@ public class GridBase implements Grid, EventTarget {
         setColumnCount(rowCount == 0 ? 0 : this.rows.get(0).size());
     }
 
+    /**
+     * Take an immutable {@link GridSnapshot} of the items currently contained
+     * in this Grid. This method must be called on the thread modifying the
+     * Grid (usually the JavaFX Application Thread), but the returned snapshot
+     * can then be read from any thread.
+     * <p>
+     * The first call builds the underlying storage by reading every cell. After
+     * that, taking a snapshot does not copy anything: the storage is shared and
+     * only the modified chunks are copied by
+     * {@link #setCellValue(int, int, Object)} and by the spans. When rows are
+     * added or removed, only the chunks from the first modified row to the
+     * end are built again: appending rows costs the new rows, while inserting
+     * at the top costs as much as the first snapshot. The storage is built
+     * again entirely by {@link #setRows(java.util.Collection)}.
+     * <p>
+     * Modifications made directly on a {@link SpreadsheetCell} without going
+     * through {@link #setCellValue(int, int, Object)} are not tracked.
+     *
+     * @return an immutable snapshot of the items of this Grid.
+     */
+    public GridSnapshot takeSnapshot() {
+        if (snapshotColumns == null) {
+            buildSnapshotStorage();
+        }
+        ++snapshotGeneration;
+        return new GridSnapshot(rowCount, columnCount, snapshotColumns);
+    }
+
     /** {@inheritDoc} */
     @Override
     public <E extends GridChange> void addEventHandler(EventType<E> eventType, EventHandler<E> eventHandler) {
@@ -346,6 +401,114 @@ public class GridBase implements Grid, EventTarget {
      * 
      **************************************************************************/
 
+    /**
+     * Read every cell in order to build the snapshot storage.
+     */
+    private void buildSnapshotStorage() {
+        final int chunkCount = (rowCount + GridSnapshot.CHUNK_SIZE - 1) >> GridSnapshot.CHUNK_SHIFT;
+        snapshotColumns = new Object[columnCount][chunkCount][GridSnapshot.CHUNK_SIZE];
+        snapshotColumnGenerations = new int[columnCount];
+        snapshotChunkGenerations = new int[columnCount][chunkCount];
+        snapshotTableGeneration = 0;
+        snapshotGeneration = 0;
+        for (int row = 0; row < rowCount; ++row) {
+            final ObservableList<SpreadsheetCell> cells = rows.get(row);
+            final int chunk = row >> GridSnapshot.CHUNK_SHIFT;
+            final int offset = row & GridSnapshot.CHUNK_MASK;
+            for (int column = 0; column < columnCount && column < cells.size(); ++column) {
+                snapshotColumns[column][chunk][offset] = cells.get(column).getItem();
+            }
+        }
+    }
+
+    /**
+     * Build again the chunks of the snapshot storage from the one holding the
+     * given row, because the rows after it have moved. The chunks before are
+     * kept, and since the arrays are replaced rather than written, the
+     * snapshots already taken are not affected.
+     *
+     * @param fromRow the first row added, removed or permuted.
+     */
+    private void rebuildSnapshotStorage(int fromRow) {
+        if (snapshotColumns == null) {
+            return;
+        }
+        if (snapshotColumns.length != columnCount) {
+            invalidateSnapshotStorage();
+            return;
+        }
+        final int firstChunk = fromRow >> GridSnapshot.CHUNK_SHIFT;
+        final int chunkCount = (rowCount + GridSnapshot.CHUNK_SIZE - 1) >> GridSnapshot.CHUNK_SHIFT;
+        final Object[][][] table = new Object[columnCount][][];
+        for (int column = 0; column < columnCount; ++column) {
+            final Object[][] chunks = Arrays.copyOf(snapshotColumns[column], chunkCount);
+            final int[] chunkGenerations = Arrays.copyOf(snapshotChunkGenerations[column], chunkCount);
+            for (int chunk = firstChunk; chunk < chunkCount; ++chunk) {
+                chunks[chunk] = new Object[GridSnapshot.CHUNK_SIZE];
+                chunkGenerations[chunk] = snapshotGeneration;
+            }
+            table[column] = chunks;
+            snapshotChunkGenerations[column] = chunkGenerations;
+            snapshotColumnGenerations[column] = snapshotGeneration;
+        }
+        snapshotColumns = table;
+        snapshotTableGeneration = snapshotGeneration;
+        for (int row = firstChunk << GridSnapshot.CHUNK_SHIFT; row < rowCount; ++row) {
+            final ObservableList<SpreadsheetCell> cells = rows.get(row);
+            final int chunk = row >> GridSnapshot.CHUNK_SHIFT;
+            final int offset = row & GridSnapshot.CHUNK_MASK;
+            for (int column = 0; column < columnCount && column < cells.size(); ++column) {
+                table[column][chunk][offset] = cells.get(column).getItem();
+            }
+        }
+    }
+
+    /**
+     * Drop the snapshot storage. The snapshots already taken are not affected,
+     * and the storage will be rebuilt on the next call to
+     * {@link #takeSnapshot()}.
+     */
+    private void invalidateSnapshotStorage() {
+        snapshotColumns = null;
+        snapshotColumnGenerations = null;
+        snapshotChunkGenerations = null;
+    }
+
+    /**
+     * Report the new item of the given cell on every position it covers,
+     * copying the arrays still shared with a snapshot before writing into them.
+     *
+     * @param cell
+     */
+    private void updateSnapshotStorage(SpreadsheetCell cell) {
+        if (snapshotColumns == null) {
+            return;
+        }
+        if (snapshotTableGeneration != snapshotGeneration) {
+            snapshotColumns = snapshotColumns.clone();
+            snapshotTableGeneration = snapshotGeneration;
+        }
+        final Object item = cell.getItem();
+        final int lastRow = Math.min(cell.getRow() + cell.getRowSpan(), rowCount);
+        final int lastColumn = Math.min(cell.getColumn() + cell.getColumnSpan(), columnCount);
+        for (int column = cell.getColumn(); column < lastColumn; ++column) {
+            if (snapshotColumnGenerations[column] != snapshotGeneration) {
+                snapshotColumns[column] = snapshotColumns[column].clone();
+                snapshotColumnGenerations[column] = snapshotGeneration;
+            }
+            final Object[][] chunks = snapshotColumns[column];
+            final int[] chunkGenerations = snapshotChunkGenerations[column];
+            for (int row = cell.getRow(); row < lastRow; ++row) {
+                final int chunk = row >> GridSnapshot.CHUNK_SHIFT;
+                if (chunkGenerations[chunk] != snapshotGeneration) {
+                    chunks[chunk] = chunks[chunk].clone();
+                    chunkGenerations[chunk] = snapshotGeneration;
+                }
+                chunks[chunk][row & GridSnapshot.CHUNK_MASK] = item;
+            }
+        }
+    }
+
     /**
      * Set a new rowCount for the grid.
      * 
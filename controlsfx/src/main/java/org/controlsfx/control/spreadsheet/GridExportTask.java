@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.spreadsheet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+/**
+ * A {@link Task} writing the cells of a {@link Grid} to a
+ * {@link WritableByteChannel} as CSV or TSV.
+ *
+ * <p>
+ * The rows are streamed one after the other through a fixed size buffer, so
+ * exporting a Grid of millions of rows does not need more memory than
+ * exporting a few ones. The task is meant to be run on a background thread,
+ * its progress being the fraction of the rows already written. It can be
+ * cancelled between two rows.
+ *
+ * <p>
+ * A cell spanning over several rows or columns is written once, in its top
+ * left position, the positions it covers being left empty. A value
+ * containing the separator, a quote or a line break is put between quotes,
+ * quotes being doubled, as described by RFC 4180.
+ *
+ * <p>
+ * For a {@link GridBase}, the items are taken from a {@link GridSnapshot}
+ * created with the task, so the values can be modified while the task is
+ * running. The spans, cell types and formats are still read from the cells,
+ * and the cell types format the items on the background thread. In that case
+ * the task must be created on the thread modifying the Grid, and the rows
+ * must not be added, removed nor spanned until the task is done. Any other
+ * Grid is read from the background thread, so it must not be modified at
+ * all until the task is done. The channel is not closed by the task.
+ *
+ * <h3> Code Sample </h3>
+ * <pre>
+ * FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+ * GridExportTask task = new GridExportTask(spreadsheetView.getGrid(), channel);
+ * task.setOnSucceeded(event -&gt; channel.close());
+ * progressBar.progressProperty().bind(task.progressProperty());
+ * executor.submit(task);
+ * </pre>
+ *
+ * The task returns the number of rows written.
+ */
+public class GridExportTask extends Task<Integer> {
+
+    /***************************************************************************
+     *
+     * Static Fields
+     *
+     **************************************************************************/
+
+    /**
+     * The way the cells are separated inside a row.
+     */
+    public static enum Format {
+        /** Comma separated values. */
+        CSV(','),
+        /** Tab separated values. */
+        TSV('\t');
+
+        private final char separator;
+
+        private Format(char separator) {
+            this.separator = separator;
+        }
+
+        /**
+         * @return the character put between two cells of a row.
+         */
+        public char getSeparator() {
+            return separator;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * The progress is only updated every 2^PROGRESS_SHIFT rows.
+     */
+    private static final int PROGRESS_SHIFT = 10;
+    private static final String LINE_SEPARATOR = "\r\n"; //$NON-NLS-1$
+
+    /***************************************************************************
+     *
+     * Private Fields
+     *
+     **************************************************************************/
+    private final Grid grid;
+    /**
+     * The items of a GridBase at the creation of the task, with its rows at
+     * that time, or null for another Grid.
+     */
+    private final GridSnapshot snapshot;
+    private final List<ObservableList<SpreadsheetCell>> snapshotRows;
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final boolean formatted;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer bytes;
+
+    /***************************************************************************
+     *
+     * Constructors
+     *
+     **************************************************************************/
+    /**
+     * Creates a task writing the text displayed by the cells as UTF-8 CSV.
+     *
+     * @param grid the Grid to export.
+     * @param channel where the rows are written.
+     */
+    public GridExportTask(Grid grid, WritableByteChannel channel) {
+        this(grid, channel, Format.CSV, true, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a task writing the cells of the Grid. A {@link GridBase} is
+     * snapshotted here, so the task must be created on the thread modifying
+     * it.
+     *
+     * @param grid the Grid to export.
+     * @param channel where the rows are written.
+     * @param format whether the cells are separated by commas or tabs.
+     * @param formatted true to write the text displayed by the cells (see
+     * {@link SpreadsheetCell#getText()}), false to write their item.
+     * @param charset the charset used to encode the values.
+     */
+    public GridExportTask(Grid grid, WritableByteChannel channel, Format format, boolean formatted, Charset charset) {
+        this.grid = Objects.requireNonNull(grid);
+        if (grid instanceof GridBase) {
+            this.snapshot = ((GridBase) grid).takeSnapshot();
+            this.snapshotRows = new ArrayList<>(grid.getRows());
+        } else {
+            this.snapshot = null;
+            this.snapshotRows = null;
+        }
+        this.channel = Objects.requireNonNull(channel);
+        this.format = Objects.requireNonNull(format);
+        this.formatted = formatted;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocate((int) Math.ceil(BUFFER_SIZE * encoder.maxBytesPerChar()));
+    }
+
+    /***************************************************************************
+     *
+     * Protected Methods
+     *
+     **************************************************************************/
+    /** {@inheritDoc} */
+    @Override
+    protected Integer call() throws IOException {
+        final List<ObservableList<SpreadsheetCell>> rows = snapshot == null ? grid.getRows() : snapshotRows;
+        final int rowCount = rows.size();
+        final char separator = format.getSeparator();
+        encoder.reset();
+
+        for (int row = 0; row < rowCount; ++row) {
+            if (isCancelled()) {
+                return row;
+            }
+            final List<SpreadsheetCell> cells = rows.get(row);
+            for (int column = 0; column < cells.size(); ++column) {
+                if (column > 0) {
+                    append(separator);
+                }
+                final SpreadsheetCell cell = cells.get(column);
+                // The positions covered by a span are left empty.
+                if (cell.getRow() == row && cell.getColumn() == column) {
+                    appendValue(getValue(cell, row, column), separator);
+                }
+            }
+            append(LINE_SEPARATOR);
+            if ((row & ((1 << PROGRESS_SHIFT) - 1)) == 0) {
+                updateProgress(row + 1, rowCount);
+            }
+        }
+        flush(true);
+        updateProgress(rowCount, rowCount);
+        return rowCount;
+    }
+
+    /***************************************************************************
+     *
+     * Private Methods
+     *
+     **************************************************************************/
+    private String getValue(SpreadsheetCell cell, int row, int column) {
+        if (snapshot == null) {
+            if (formatted) {
+                return cell.getText();
+            }
+            final Object item = cell.getItem();
+            return item == null ? null : item.toString();
+        }
+        final Object item = column < snapshot.getColumnCount() ? snapshot.getItem(row, column) : null;
+        if (item == null) {
+            return null;
+        }
+        return formatted ? format(cell, item) : item.toString();
+    }
+
+    /**
+     * Format the item the way {@link SpreadsheetCell#getText()} would.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static String format(SpreadsheetCell cell, Object item) {
+        final SpreadsheetCellType type = cell.getCellType();
+        final String cellFormat = cell.getFormat();
+        return cellFormat == null || cellFormat.isEmpty() ? type.toString(item) : type.toString(item, cellFormat);
+    }
+
+    private void appendValue(String value, char separator) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!needsQuotes(value, separator)) {
+            append(value);
+            return;
+        }
+        append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                append('"');
+            }
+            append(c);
+        }
+        append('"');
+    }
+
+    private static boolean needsQuotes(String value, char separator) {
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            if (c == separator || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            flush(false);
+        }
+        chars.put(c);
+    }
+
+    private void append(String value) throws IOException {
+        int start = 0;
+        while (start < value.length()) {
+            if (!chars.hasRemaining()) {
+                flush(false);
+            }
+            final int end = Math.min(value.length(), start + chars.remaining());
+            chars.put(value, start, end);
+            start = end;
+        }
+    }
+
+    /**
+     * Encode the pending characters and write them to the channel. A
+     * surrogate pair cut by the end of the buffer is kept for the next call,
+     * unless this is the last one.
+     */
+    private void flush(boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            write();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                write();
+            }
+            write();
+        }
+        chars.compact();
+    }
+
+    private void write() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,526 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.spreadsheet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.event.EventHandler;
+
+/**
+ * An optional append-only journal that persists every {@link GridChange}
+ * happening in a {@link GridBase}, so that the content of the Grid can be
+ * recovered if the JVM dies.
+ *
+ * <p>
+ * Each change is appended to a memory-mapped log file inside the given
+ * directory. Since the log is memory-mapped, a record is handed to the
+ * operating system as soon as it is written and survives the death of the
+ * JVM. Once a certain number of changes have been logged (see
+ * {@link #setCompactionThreshold(int)}), or when {@link #checkpoint()} is
+ * called, the whole Grid is written into a checkpoint file and the previous
+ * logs are deleted. The checkpoint is written in a background thread from a
+ * {@link GridSnapshot}, so the JavaFX Application Thread is never blocked by
+ * the compaction.
+ *
+ * <p>
+ * On restart, create the Grid with the same dimensions and call
+ * {@link #recover()} before {@link #start()}. The checkpoint is applied first,
+ * then the logs written after it are replayed in order.
+ *
+ * <h3> Code Sample </h3>
+ * <pre>
+ * GridJournal journal = new GridJournal(grid, Paths.get("session"));
+ * journal.recover();
+ * journal.start();
+ * ...
+ * journal.close();
+ * </pre>
+ *
+ * Values of type String, Double, Integer and LocalDate are written in a
+ * compact form, the other values must be {@link java.io.Serializable}.
+ *
+ * @see GridChange
+ * @see GridBase#takeSnapshot()
+ */
+public class GridJournal implements AutoCloseable {
+
+    /***************************************************************************
+     *
+     * Static Fields
+     *
+     **************************************************************************/
+    private static final String LOG_PREFIX = "journal-"; //$NON-NLS-1$
+    private static final String LOG_SUFFIX = ".log"; //$NON-NLS-1$
+    private static final String CHECKPOINT_FILE = "checkpoint"; //$NON-NLS-1$
+    private static final String CHECKPOINT_TEMP_FILE = "checkpoint.tmp"; //$NON-NLS-1$
+
+    /**
+     * Size of each region of the log mapped in memory.
+     */
+    private static final int SEGMENT_SIZE = 1 << 20;
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 100_000;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_DOUBLE = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_DATE = 4;
+    private static final byte TYPE_SERIALIZED = 5;
+
+    /***************************************************************************
+     *
+     * Private Fields
+     *
+     **************************************************************************/
+    private final GridBase grid;
+    private final Path directory;
+    private final ExecutorService checkpointExecutor;
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(64);
+    private final DataOutputStream recordOutput = new DataOutputStream(recordBytes);
+
+    private FileChannel logChannel;
+    private MappedByteBuffer logBuffer;
+    private long logBufferStart;
+    private long logSequence;
+    private int changesSinceCheckpoint;
+    private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private boolean started;
+
+    private final EventHandler<GridChange> gridChangeHandler = (GridChange change) -> {
+        append(change);
+    };
+
+    /***************************************************************************
+     *
+     * Constructor
+     *
+     **************************************************************************/
+    /**
+     * Creates a journal for the given Grid, storing its files in the given
+     * directory. The directory is created if necessary. Nothing is logged
+     * until {@link #start()} is called.
+     *
+     * @param grid
+     * @param directory
+     * @throws IOException if the directory cannot be created.
+     */
+    public GridJournal(GridBase grid, Path directory) throws IOException {
+        this.grid = grid;
+        this.directory = directory;
+        Files.createDirectories(directory);
+        checkpointExecutor = Executors.newSingleThreadExecutor((Runnable runnable) -> {
+            Thread thread = new Thread(runnable, "GridJournal checkpoint"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /***************************************************************************
+     *
+     * Public Methods
+     *
+     **************************************************************************/
+    /**
+     * Apply the last checkpoint found in the directory onto the Grid, and then
+     * replay the logs written after it. This must be called on the JavaFX
+     * Application Thread before {@link #start()}. A record that was only
+     * partially written when the JVM died is ignored.
+     *
+     * @throws IOException if the files cannot be read.
+     */
+    public void recover() throws IOException {
+        final Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        long firstSequence = 0;
+        if (Files.exists(checkpoint)) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+                firstSequence = input.readLong();
+                final int rowCount = input.readInt();
+                final int columnCount = input.readInt();
+                for (int row = 0; row < rowCount; ++row) {
+                    for (int column = 0; column < columnCount; ++column) {
+                        final Object value = readValue(input);
+                        if (row < grid.getRowCount() && column < grid.getColumnCount()) {
+                            final SpreadsheetCell cell = grid.getRows().get(row).get(column);
+                            // Only the origin of a span holds the value.
+                            if (cell.getRow() == row && cell.getColumn() == column) {
+                                grid.setCellValue(row, column, value);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for (long sequence : listLogSequences()) {
+            if (sequence >= firstSequence) {
+                replayLog(getLogPath(sequence));
+            }
+            logSequence = Math.max(logSequence, sequence + 1);
+        }
+        logSequence = Math.max(logSequence, firstSequence);
+    }
+
+    /**
+     * Start logging every {@link GridChange} fired by the Grid into a new log.
+     *
+     * @throws IOException if the log cannot be created.
+     */
+    public void start() throws IOException {
+        if (started) {
+            return;
+        }
+        // Never overwrite a log that has not been recovered.
+        for (long sequence : listLogSequences()) {
+            logSequence = Math.max(logSequence, sequence + 1);
+        }
+        openLog(logSequence);
+        grid.addEventHandler(GridChange.GRID_CHANGE_EVENT, gridChangeHandler);
+        started = true;
+    }
+
+    /**
+     * Write a checkpoint of the whole Grid and delete the logs it replaces. The
+     * snapshot of the Grid is taken immediately, so this must be called on the
+     * JavaFX Application Thread, but the checkpoint itself is written in a
+     * background thread.
+     *
+     * @throws IOException if the new log cannot be created.
+     */
+    public void checkpoint() throws IOException {
+        final GridSnapshot snapshot = grid.takeSnapshot();
+        final long sequence = logSequence + 1;
+        if (started) {
+            // If the new log cannot be created, the changes keep going into
+            // the current one and no checkpoint is written.
+            openLog(sequence);
+        } else {
+            logSequence = sequence;
+        }
+        changesSinceCheckpoint = 0;
+        checkpointExecutor.execute(() -> {
+            try {
+                writeCheckpoint(snapshot, sequence);
+            } catch (IOException ex) {
+                Logger.getLogger(GridJournal.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        });
+    }
+
+    /**
+     * Set the number of changes logged after which a checkpoint is
+     * automatically written. A value inferior or equal to zero disables the
+     * automatic compaction.
+     *
+     * @param threshold
+     */
+    public void setCompactionThreshold(int threshold) {
+        this.compactionThreshold = threshold;
+    }
+
+    /**
+     * @return the number of changes logged after which a checkpoint is
+     * automatically written.
+     */
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Stop logging, force the log to the storage device and wait for the
+     * pending checkpoint to be written.
+     *
+     * @throws IOException if the log cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (started) {
+            grid.removeEventHandler(GridChange.GRID_CHANGE_EVENT, gridChangeHandler);
+            closeLog();
+            started = false;
+        }
+        checkpointExecutor.shutdown();
+        try {
+            checkpointExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /***************************************************************************
+     *
+     * Private Implementation
+     *
+     **************************************************************************/
+    /**
+     * Append a record to the log. A record is made of its length, the row, the
+     * column and the new value. The length is written last so that a record
+     * interrupted by a crash is never read back.
+     *
+     * @param change
+     */
+    private void append(GridChange change) {
+        try {
+            recordBytes.reset();
+            recordOutput.writeInt(change.getRow());
+            recordOutput.writeInt(change.getColumn());
+            writeValue(recordOutput, change.getNewValue());
+            recordOutput.flush();
+
+            final int length = recordBytes.size();
+            ensureCapacity(Integer.BYTES + length + Integer.BYTES);
+            final int position = logBuffer.position();
+            logBuffer.position(position + Integer.BYTES);
+            logBuffer.put(recordBytes.toByteArray());
+            logBuffer.putInt(position, length);
+        } catch (IOException ex) {
+            Logger.getLogger(GridJournal.class.getName()).log(Level.SEVERE, null, ex);
+            return;
+        }
+
+        if (compactionThreshold > 0 && ++changesSinceCheckpoint >= compactionThreshold) {
+            try {
+                checkpoint();
+            } catch (IOException ex) {
+                Logger.getLogger(GridJournal.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }
+    }
+
+    /**
+     * Map a new region of the log if the current one cannot hold the given
+     * number of bytes. We keep room for a zero length at the end of the region
+     * which marks the end of the log.
+     *
+     * @param bytes
+     * @throws IOException
+     */
+    private void ensureCapacity(int bytes) throws IOException {
+        if (logBuffer.remaining() >= bytes) {
+            return;
+        }
+        logBufferStart += logBuffer.position();
+        logBuffer.force();
+        logBuffer = logChannel.map(FileChannel.MapMode.READ_WRITE, logBufferStart, Math.max(SEGMENT_SIZE, bytes));
+    }
+
+    /**
+     * Open a new log and make it the current one. The current log is only
+     * closed once the new one is ready, so that it is kept if the new log
+     * cannot be created.
+     *
+     * @param sequence
+     * @throws IOException
+     */
+    private void openLog(long sequence) throws IOException {
+        final Path path = getLogPath(sequence);
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        } catch (IOException ex) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw ex;
+        }
+
+        try {
+            if (logChannel != null) {
+                closeLog();
+            }
+        } finally {
+            logSequence = sequence;
+            logChannel = channel;
+            logBufferStart = 0;
+            logBuffer = buffer;
+        }
+    }
+
+    private void closeLog() throws IOException {
+        try {
+            logBuffer.force();
+        } finally {
+            logBuffer = null;
+            logChannel.close();
+            logChannel = null;
+        }
+    }
+
+    /**
+     * Since each region is mapped right after the last record of the previous
+     * one, the records are contiguous in the file and followed by zeros.
+     *
+     * @param log
+     * @throws IOException
+     */
+    private void replayLog(Path log) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(log)))) {
+            while (true) {
+                final int length;
+                final byte[] record;
+                try {
+                    length = input.readInt();
+                    if (length <= 0) {
+                        return;
+                    }
+                    record = new byte[length];
+                    input.readFully(record);
+                } catch (EOFException ex) {
+                    return;
+                }
+                final DataInputStream recordInput = new DataInputStream(new ByteArrayInputStream(record));
+                grid.setCellValue(recordInput.readInt(), recordInput.readInt(), readValue(recordInput));
+            }
+        }
+    }
+
+    private void writeCheckpoint(GridSnapshot snapshot, long sequence) throws IOException {
+        final Path temp = directory.resolve(CHECKPOINT_TEMP_FILE);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            output.writeLong(sequence);
+            output.writeInt(snapshot.getRowCount());
+            output.writeInt(snapshot.getColumnCount());
+            for (int row = 0; row < snapshot.getRowCount(); ++row) {
+                for (int column = 0; column < snapshot.getColumnCount(); ++column) {
+                    writeValue(output, snapshot.getItem(row, column));
+                }
+            }
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        for (long oldSequence : listLogSequences()) {
+            if (oldSequence < sequence) {
+                Files.deleteIfExists(getLogPath(oldSequence));
+            }
+        }
+    }
+
+    private Path getLogPath(long sequence) {
+        return directory.resolve(LOG_PREFIX + sequence + LOG_SUFFIX);
+    }
+
+    private List<Long> listLogSequences() throws IOException {
+        final List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, LOG_PREFIX + "*" + LOG_SUFFIX)) { //$NON-NLS-1$
+            for (Path path : stream) {
+                final String name = path.getFileName().toString();
+                try {
+                    sequences.add(Long.parseLong(name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length())));
+                } catch (NumberFormatException ex) {
+                    // Not one of our logs.
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    private static void writeValue(DataOutput output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            // Not writeUTF, which is limited to 65535 bytes.
+            final byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            output.writeByte(TYPE_STRING);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        } else if (value instanceof Double) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(TYPE_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof LocalDate) {
+            output.writeByte(TYPE_DATE);
+            output.writeLong(((LocalDate) value).toEpochDay());
+        } else {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOutput = new ObjectOutputStream(bytes)) {
+                objectOutput.writeObject(value);
+            }
+            output.writeByte(TYPE_SERIALIZED);
+            output.writeInt(bytes.size());
+            output.write(bytes.toByteArray());
+        }
+    }
+
+    private static Object readValue(DataInput input) throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                final byte[] string = new byte[input.readInt()];
+                input.readFully(string);
+                return new String(string, StandardCharsets.UTF_8);
+            case TYPE_DOUBLE:
+                return input.readDouble();
+            case TYPE_INTEGER:
+                return input.readInt();
+            case TYPE_DATE:
+                return LocalDate.ofEpochDay(input.readLong());
+            case TYPE_SERIALIZED:
+                final byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                try (ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return objectInput.readObject();
+                } catch (ClassNotFoundException ex) {
+                    throw new IOException(ex);
+                }
+            default:
+                throw new IOException("Unknown value type " + type + " in the journal."); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.spreadsheet;
+
+/**
+ * An immutable image of the values contained in a {@link GridBase} at the
+ * time {@link GridBase#takeSnapshot()} was called.
+ *
+ * <p>
+ * A snapshot only holds the items of the cells, not the {@link SpreadsheetCell}
+ * themselves. It shares its storage with the Grid and with every other
+ * snapshot, the Grid copying only the chunks of a column that are modified
+ * after the snapshot was taken. Therefore taking a snapshot is cheap, and the
+ * memory used by a snapshot is released as soon as it is no longer referenced.
+ *
+ * <p>
+ * Once created, a snapshot is never modified and can safely be read from any
+ * thread, for example by a background analytics task while the user keeps
+ * editing the {@link SpreadsheetView} on the JavaFX Application Thread.
+ *
+ * <h3> Code Sample </h3>
+ * <pre>
+ * final GridSnapshot snapshot = grid.takeSnapshot();
+ * executor.submit(() -&gt; {
+ *     for (int row = 0; row &lt; snapshot.getRowCount(); ++row) {
+ *         doStuff(snapshot.getItem(row, 0));
+ *     }
+ * });
+ * </pre>
+ *
+ * @see GridBase#takeSnapshot()
+ */
+public final class GridSnapshot {
+
+    /***************************************************************************
+     *
+     * Static Fields
+     *
+     **************************************************************************/
+    /**
+     * Each column is split into chunks of 2^CHUNK_SHIFT rows.
+     */
+    static final int CHUNK_SHIFT = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /***************************************************************************
+     *
+     * Private Fields
+     *
+     **************************************************************************/
+    private final int rowCount;
+    private final int columnCount;
+    /**
+     * Indexed by [column][chunk][row inside chunk]. None of these arrays are
+     * modified once this snapshot has been created.
+     */
+    private final Object[][][] columns;
+
+    /***************************************************************************
+     *
+     * Constructor
+     *
+     **************************************************************************/
+    GridSnapshot(int rowCount, int columnCount, Object[][][] columns) {
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.columns = columns;
+    }
+
+    /***************************************************************************
+     *
+     * Public Methods
+     *
+     **************************************************************************/
+    /**
+     * @return how many rows were inside the grid when the snapshot was taken.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return how many columns were inside the grid when the snapshot was
+     * taken.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Return the item of the cell situated at the intersection when the
+     * snapshot was taken. Cells covered by a span return the item of the
+     * spanning cell.
+     *
+     * @param row
+     * @param column
+     * @return the item of the cell situated at the intersection.
+     * @throws IndexOutOfBoundsException if the row or the column is outside
+     * the snapshot.
+     */
+    public Object getItem(int row, int column) {
+        if (row < 0 || row >= rowCount || column < 0 || column >= columnCount) {
+            throw new IndexOutOfBoundsException("Row " + row + ", column " + column //$NON-NLS-1$ //$NON-NLS-2$
+                    + " is outside of a " + rowCount + "x" + columnCount + " snapshot."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+        return columns[column][row >> CHUNK_SHIFT][row & CHUNK_MASK];
+    }
+}
@@ -31,6 +31,7 @@ import java.util.Objects;
 import java.util.Optional;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringPropertyBase;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -212,7 +213,7 @@ public class SpreadsheetCellBase implements SpreadsheetCell, EventTarget{
     private int rowSpan;
     private int columnSpan;
     private final StringProperty format;
-    private final StringProperty text;
+    private final TextProperty text;
     private final ObjectProperty<Node> graphic;
     private String tooltip;
     /**
@@ -259,13 +260,13 @@ public class SpreadsheetCellBase implements SpreadsheetCell, EventTarget{
         this.rowSpan = rowSpan;
         this.columnSpan = columnSpan;
         this.type = type;
-        text = new SimpleStringProperty(""); //$NON-NLS-1$
+        text = new TextProperty();
         format = new SimpleStringProperty(""); //$NON-NLS-1$
         graphic = new SimpleObjectProperty<>();
         format.addListener(new ChangeListener<String>() {
             @Override
             public void changed(ObservableValue<? extends String> arg0, String arg1, String arg2) {
-                updateText();
+                text.invalidate();
             }
         });
         //Editable is true at the initialisation
@@ -289,7 +290,7 @@ public class SpreadsheetCellBase implements SpreadsheetCell, EventTarget{
     private final ObjectProperty<Object> item = new SimpleObjectProperty<Object>(this, "item") { //$NON-NLS-1$
         @Override
         protected void invalidated() {
-            updateText();
+            text.invalidate();
         }
     };
 
@@ -300,6 +301,16 @@ public class SpreadsheetCellBase implements SpreadsheetCell, EventTarget{
             item.set(value);
     }
 
+    /**
+     * Set the item even if the cell is not editable, for a Grid following
+     * values held elsewhere.
+     *
+     * @param value
+     */
+    final void updateItem(Object value) {
+        item.set(value);
+    }
+
     /** {@inheritDoc} */
     @Override
     public final Object getItem() {
@@ -342,7 +353,7 @@ public class SpreadsheetCellBase implements SpreadsheetCell, EventTarget{
     @Override
     public final void setFormat(String format) {
         formatProperty().set(format);
-        updateText();
+        text.invalidate();
     }
 
     /** {@inheritDoc} */
@@ -540,16 +551,54 @@ public class SpreadsheetCellBase implements SpreadsheetCell, EventTarget{
      **************************************************************************/
 
     /**
-     * Update the text for the SpreadsheetView.
+     * Compute the text for the SpreadsheetView.
      */
     @SuppressWarnings("unchecked")
-    private void updateText() {
+    private String computeText() {
         if(getItem() == null){
-            text.setValue(""); //$NON-NLS-1$
+            return ""; //$NON-NLS-1$
         }else if (!("").equals(getFormat())) { //$NON-NLS-1$
-            text.setValue(type.toString(getItem(), getFormat()));
+            return type.toString(getItem(), getFormat());
         } else {
-            text.setValue(type.toString(getItem()));
+            return type.toString(getItem());
+        }
+    }
+
+    /**
+     * The text is only computed when it is read. A change of the item or of
+     * the format only invalidates it, so a cell whose item changes many times
+     * before being displayed formats its item once. Like a binding, the
+     * invalidation listeners are not notified again until the text is read.
+     */
+    private final class TextProperty extends ReadOnlyStringPropertyBase {
+
+        private String value = ""; //$NON-NLS-1$
+        private boolean valid = true;
+
+        void invalidate() {
+            if (valid) {
+                valid = false;
+                fireValueChangedEvent();
+            }
+        }
+
+        @Override
+        public String get() {
+            if (!valid) {
+                value = computeText();
+                valid = true;
+            }
+            return value;
+        }
+
+        @Override
+        public Object getBean() {
+            return SpreadsheetCellBase.this;
+        }
+
+        @Override
+        public String getName() {
+            return "text"; //$NON-NLS-1$
         }
     }
 
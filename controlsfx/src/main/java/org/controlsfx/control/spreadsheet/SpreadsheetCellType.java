@@ -349,13 +349,35 @@ public abstract class SpreadsheetCellType<T> {
      * The {@link SpreadsheetCell} {@link String} type base class.
      */
     public static class StringType extends SpreadsheetCellType<String> {
+        private final StringDictionary dictionary;
 
         public StringType() {
             this(new DefaultStringConverter());
         }
 
         public StringType(StringConverter<String> converter) {
+            this(converter, null);
+        }
+
+        /**
+         * Creates a StringType whose values are interned inside the given
+         * dictionary, so that the cells holding the same value share it with
+         * its text.
+         * 
+         * @param converter
+         * @param dictionary the dictionary, or null to store every value as
+         *            it is given.
+         */
+        public StringType(StringConverter<String> converter, StringDictionary dictionary) {
             super(converter);
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * @return the dictionary interning the values of this type, or null.
+         */
+        public StringDictionary getDictionary() {
+            return dictionary;
         }
 
         @Override
@@ -387,7 +409,7 @@ public abstract class SpreadsheetCellType<T> {
         public SpreadsheetCell createCell(final int row, final int column, final int rowSpan, final int columnSpan,
                 final String value) {
             SpreadsheetCell cell = new SpreadsheetCellBase(row, column, rowSpan, columnSpan, this);
-            cell.setItem(value);
+            cell.setItem(dictionary == null ? value : dictionary.intern(value));
             return cell;
         }
 
@@ -402,12 +424,12 @@ public abstract class SpreadsheetCellType<T> {
             if (convertedValue == null || convertedValue.equals("")) { //$NON-NLS-1$
                 return null;
             }
-            return convertedValue;
+            return dictionary == null ? convertedValue : dictionary.intern(convertedValue);
         }
 
         @Override
         public String toString(String item) {
-            return converter.toString(item);
+            return dictionary == null ? converter.toString(item) : dictionary.getText(item, converter);
         }
 
     };
@@ -654,13 +676,18 @@ public abstract class SpreadsheetCellType<T> {
      */
     public static class ListType extends SpreadsheetCellType<String> {
         protected final List<String> items;
+        private final StringDictionary dictionary;
 
         public ListType(final List<String> items) {
+            this(items, items == null ? new StringDictionary() : new StringDictionary(items));
+        }
+
+        private ListType(final List<String> items, final StringDictionary dictionary) {
             super(new DefaultStringConverter() {
                 @Override
                 public String fromString(String str) {
-                    if (str != null && items.contains(str)) {
-                        return str;
+                    if (dictionary.contains(str)) {
+                        return dictionary.intern(str);
                     } else {
                         return null;
                     }
@@ -668,6 +695,14 @@ public abstract class SpreadsheetCellType<T> {
 
             });
             this.items = items;
+            this.dictionary = dictionary;
+        }
+
+        /**
+         * @return the dictionary interning the values of this type.
+         */
+        public StringDictionary getDictionary() {
+            return dictionary;
         }
 
         @Override
@@ -695,10 +730,10 @@ public abstract class SpreadsheetCellType<T> {
                 String value) {
             SpreadsheetCell cell = new SpreadsheetCellBase(row, column, rowSpan, columnSpan, this);
             if (items != null && items.size() > 0) {
-                if (value != null && items.contains(value)) {
-                    cell.setItem(value);
+                if (dictionary.contains(value)) {
+                    cell.setItem(dictionary.intern(value));
                 } else {
-                    cell.setItem(items.get(0));
+                    cell.setItem(dictionary.intern(items.get(0)));
                 }
             }
             return cell;
@@ -724,7 +759,7 @@ public abstract class SpreadsheetCellType<T> {
 
         @Override
         public String toString(String item) {
-            return converter.toString(item);
+            return dictionary.getText(item, converter);
         }
     }
 
@@ -274,6 +274,9 @@ public final class SpreadsheetColumn {
      * @return if it's fixable.
      */
     private boolean initCanFix(Grid grid) {
+        if (!grid.isSpanSupported()) {
+            return true;
+        }
         for (ObservableList<SpreadsheetCell> row : grid.getRows()) {
             int columnSpan = row.get(indexColumn).getColumnSpan();
             if (columnSpan > 1) {
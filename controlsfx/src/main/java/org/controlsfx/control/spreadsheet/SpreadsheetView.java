@@ -30,23 +30,36 @@ import static impl.org.controlsfx.i18n.Localization.asKey;
 import static impl.org.controlsfx.i18n.Localization.localize;
 import impl.org.controlsfx.spreadsheet.CellView;
 import impl.org.controlsfx.spreadsheet.FocusModelListener;
+import impl.org.controlsfx.spreadsheet.GridNavigator;
 import impl.org.controlsfx.spreadsheet.GridViewSkin;
+import impl.org.controlsfx.spreadsheet.HiddenRowsIndex;
 import impl.org.controlsfx.spreadsheet.SpreadsheetGridView;
 import impl.org.controlsfx.spreadsheet.SpreadsheetHandle;
 import impl.org.controlsfx.spreadsheet.SpreadsheetViewSelectionModel;
+import impl.org.controlsfx.spreadsheet.VisibleRowsList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
@@ -62,7 +75,9 @@ import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.event.WeakEventHandler;
+import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Control;
 import javafx.scene.control.Menu;
@@ -83,8 +98,10 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.paint.Color;
 import javafx.stage.WindowEvent;
 import javafx.util.Callback;
+import javafx.util.Duration;
 import javafx.util.Pair;
 import org.controlsfx.tools.Utils;
 
@@ -137,6 +154,22 @@ import org.controlsfx.tools.Utils;
  * settings. 
  * <br/>
  * 
+ * <h3>Collapsing Rows</h3>
+ * <br/>
+ * Some consecutive rows can be grouped and hidden, just like an outline in a
+ * spreadsheet application, with {@link #collapseRows(int, int) } and shown
+ * again with {@link #expandRows(int, int) }. Groups can be nested, a row stays
+ * hidden as long as one collapsed group contains it. The rows are never
+ * removed from the {@link Grid}, the SpreadsheetView only skips them. 
+ * <br/>
+ * Therefore, once some rows are collapsed, the row indexes used by the
+ * TableView, the {@link #getSelectionModel() } and
+ * {@link #getSpanType(int, int) } are the displayed ones. Use
+ * {@link #getModelRow(int) } and {@link #getViewRow(int) } to translate them.
+ * A group cannot cut through a row span, and must be situated below every
+ * fixed row.
+ * <br/>
+ * 
  * <h3>Headers</h3>
  * <br/>
  * You can also access and toggle header's visibility by using the methods
@@ -273,10 +306,61 @@ public class SpreadsheetView extends Control {
         BOTH_INVISIBLE;
     }
 
+    /**
+     * The way the rows of a new {@link Grid} are verified by
+     * {@link #setGrid(Grid)}. A row is well-formed when every cell inside a
+     * column span is the same instance, and when its cells are covering the
+     * columnCount of the Grid. A malformed row is reported with an
+     * {@link IllegalStateException} describing the faulty cell.
+     */
+    public static enum GridValidation {
+
+        /** The rows are not verified. */
+        NONE,
+
+        /**
+         * Every row is verified on the calling thread before the Grid is
+         * displayed.
+         */
+        IMMEDIATE,
+
+        /**
+         * The rows are verified in parallel on a background thread while the
+         * Grid is displayed. The cells of the rows are copied beforehand, so
+         * the Grid can be modified during the verification. The error of the
+         * first malformed row is verified again on the JavaFX Application
+         * Thread, and reported by {@link #gridValidationErrorProperty()} if
+         * the row is still malformed.
+         */
+        PARALLEL,
+
+        /**
+         * Each row is verified the first time it is displayed, so the cost
+         * is spread as the user scrolls. The error of a malformed row is
+         * reported by {@link #gridValidationErrorProperty()} once the layout
+         * is over.
+         */
+        LAZY;
+    }
+
     /**
      * Default width of the VerticalHeader.
      */
     private static final double DEFAULT_ROW_HEADER_WIDTH = 30.0;
+    /**
+     * The key of the editors shared by the SpreadsheetViews of a Scene inside
+     * its properties.
+     */
+    private static final String EDITOR_POOL_KEY = "SpreadsheetView.editorPool"; //$NON-NLS-1$
+    /**
+     * How many rows of the Grid are scanned for their cell types when the
+     * editors are prewarmed.
+     */
+    private static final int PREWARM_ROW_COUNT = 100;
+    /**
+     * Default color of a cell whose value has changed.
+     */
+    private static final Color DEFAULT_FLASH_COLOR = Color.ORANGE;
     /***************************************************************************
      * * Private Fields * *
      **************************************************************************/
@@ -295,6 +379,22 @@ public class SpreadsheetView extends Control {
     private final BooleanProperty showRowHeader = new SimpleBooleanProperty(true, "showRowHeader", true); //$NON-NLS-1$
 
     private BitSet rowFix; // Compute if we can fix the rows or not.
+    private BitSet rowFixComputed; // The rows already computed in rowFix.
+
+    private final ObjectProperty<GridValidation> gridValidation = new SimpleObjectProperty<>(this, "gridValidation", GridValidation.NONE); //$NON-NLS-1$
+    // The rows of the Grid already verified in the LAZY validation.
+    private BitSet validatedRows;
+    private final ReadOnlyObjectWrapper<IllegalStateException> gridValidationError = new ReadOnlyObjectWrapper<>(this, "gridValidationError"); //$NON-NLS-1$
+
+    private final ObjectProperty<Duration> cellFlashDuration = new SimpleObjectProperty<>(this, "cellFlashDuration", Duration.ZERO); //$NON-NLS-1$
+    private final ObjectProperty<Color> cellFlashColor = new SimpleObjectProperty<>(this, "cellFlashColor", DEFAULT_FLASH_COLOR); //$NON-NLS-1$
+
+    // The jump navigation with the shortcut key.
+    private final GridNavigator gridNavigator;
+    // The rows displayed, the collapsed ones are skipped.
+    private VisibleRowsList visibleRows;
+    // The collapsed groups, the first row in the high bits, the last excluded in the low ones.
+    private final Set<Long> collapsedGroups = new HashSet<>();
 
     private final ObservableList<Integer> rowPickers = FXCollections.observableArrayList();
     private Callback<Integer, Void> rowPickerCallback = DEFAULT_CALLBACK;
@@ -306,6 +406,10 @@ public class SpreadsheetView extends Control {
     // is the VirtualFlow)
     private ObservableList<SpreadsheetColumn> columns = FXCollections.observableArrayList();
     private Map<SpreadsheetCellType<?>, SpreadsheetCellEditor> editors = new IdentityHashMap<>();
+    // The cell types waiting for their editor to be created.
+    private final Deque<SpreadsheetCellType<?>> editorsToPrewarm = new ArrayDeque<>();
+    // The detached parent of the prewarmed editors, created on demand.
+    private static Group prewarmHolder;
     
     /**
      * The vertical header width, just for the Label, not the Pickers.
@@ -328,6 +432,16 @@ public class SpreadsheetView extends Control {
         protected SpreadsheetGridView getGridView() {
             return SpreadsheetView.this.getCellsView();
         }
+
+        @Override
+        protected HiddenRowsIndex getHiddenRowsIndex() {
+            return visibleRows == null ? null : visibleRows.getIndex();
+        }
+
+        @Override
+        protected void verifyDisplayedRow(int row) {
+            SpreadsheetView.this.verifyDisplayedRow(row);
+        }
     };
 
     /**
@@ -387,6 +501,7 @@ public class SpreadsheetView extends Control {
 
         this.cellsView = new SpreadsheetGridView(handle);
         getChildren().add(cellsView);
+        this.gridNavigator = new GridNavigator(handle);
         
         /**
          * Add a listener to the selection model in order to edit the spanned
@@ -420,7 +535,7 @@ public class SpreadsheetView extends Control {
                     
                     if (position != null) {
                         int nextRow = FocusModelListener.getNextRowNumber(position, getCellsView());
-                        if(nextRow < grid.getRowCount()){
+                        if(nextRow < cellsView.getItems().size()){
                             cellsView.getSelectionModel().clearAndSelect(nextRow, position.getTableColumn());
                         }
                     }
@@ -462,6 +577,7 @@ public class SpreadsheetView extends Control {
         // Listeners & handlers
         fixedRows.addListener(fixedRowsListener);
         fixedColumns.addListener(fixedColumnsListener);
+        sceneProperty().addListener(sceneListener);
     }
     /***************************************************************************
      * * Public Methods * *
@@ -472,15 +588,34 @@ public class SpreadsheetView extends Control {
      * {@link #SpreadsheetView(Grid)}. So this is useful when you want to
      * refresh your SpreadsheetView with a new model. This will keep the state
      * of your SpreadsheetView (position of the bar, number of fixedRows etc).
+     * The rows of the Grid are verified according to
+     * {@link #getGridValidation()}.
      * 
      * @param grid the new Grid
+     * @throws IllegalStateException if the Grid is malformed and the
+     * {@link GridValidation#IMMEDIATE} validation is used.
      */
     public final void setGrid(Grid grid) {
         if(grid == null){
             return;
         }
-        // Reactivate that after
-//        verifyGrid(grid);
+        switch (getGridValidation()) {
+            case IMMEDIATE:
+                verifyGrid(grid);
+                break;
+            case PARALLEL:
+                verifyGridInBackground(grid);
+                break;
+            default:
+                break;
+        }
+        gridValidationError.set(null);
+        validatedRows = getGridValidation() == GridValidation.LAZY && grid.isSpanSupported() ? new BitSet() : null;
+        if (getGrid() != null) {
+            getGrid().removeEventHandler(GridChange.GRID_CHANGE_EVENT, weakGridChangeHandler);
+        }
+        grid.addEventHandler(GridChange.GRID_CHANGE_EVENT, weakGridChangeHandler);
+        gridNavigator.setGrid(grid);
         gridProperty.set(grid);
         initRowFix(grid);
 
@@ -517,10 +652,13 @@ public class SpreadsheetView extends Control {
         
         // TODO move into a property
         if (grid.getRows() != null) {
-            final ObservableList<ObservableList<SpreadsheetCell>> observableRows = FXCollections
-                    .observableArrayList(grid.getRows());
-            cellsView.getItems().clear();
-            cellsView.setItems(observableRows);
+            // The collapsed groups are not kept because the rows may be different.
+            collapsedGroups.clear();
+            if (visibleRows != null) {
+                visibleRows.dispose();
+            }
+            visibleRows = new VisibleRowsList(grid.getRows(), this::resetCollapsedRows);
+            cellsView.setItems(visibleRows);
 
             final int columnCount = grid.getColumnCount();
             columns.clear();
@@ -640,6 +778,116 @@ public class SpreadsheetView extends Control {
         return gridProperty;
     }
 
+    /**
+     * Specify how the rows of the next Grid given to {@link #setGrid(Grid)}
+     * are verified. The default is {@link GridValidation#NONE}.
+     *
+     * @param validation
+     */
+    public final void setGridValidation(GridValidation validation) {
+        gridValidation.set(validation);
+    }
+
+    /**
+     * @return how the rows of a new Grid are verified.
+     */
+    public final GridValidation getGridValidation() {
+        return gridValidation.get() == null ? GridValidation.NONE : gridValidation.get();
+    }
+
+    /**
+     * The ObjectProperty associated with the validation of a new Grid.
+     *
+     * @return the ObjectProperty associated with the validation of a new
+     * Grid.
+     */
+    public final ObjectProperty<GridValidation> gridValidationProperty() {
+        return gridValidation;
+    }
+
+    /**
+     * @return the last malformed row of the current Grid found by the
+     * {@link GridValidation#PARALLEL} or {@link GridValidation#LAZY}
+     * validation, or null.
+     */
+    public final IllegalStateException getGridValidationError() {
+        return gridValidationError.get();
+    }
+
+    /**
+     * Return a {@link ReadOnlyObjectProperty} containing the error describing
+     * the last malformed row found by the {@link GridValidation#PARALLEL} or
+     * {@link GridValidation#LAZY} validation. It is always set on the JavaFX
+     * Application Thread, and reset to null by {@link #setGrid(Grid)}.
+     *
+     * @return a {@link ReadOnlyObjectProperty}.
+     */
+    public final ReadOnlyObjectProperty<IllegalStateException> gridValidationErrorProperty() {
+        return gridValidationError.getReadOnlyProperty();
+    }
+
+    /**
+     * Specify how long a cell flashes when its value is changed through
+     * {@link Grid#setCellValue(int, int, Object)}. The background of the cell
+     * is faded from {@link #getCellFlashColor()} to its normal background
+     * during this duration. The default is {@link Duration#ZERO}, meaning the
+     * cells do not flash.
+     * <br/>
+     * All the cells are animated by a single timer, which only runs while a
+     * cell is flashing and only updates the displayed cells. So a Grid
+     * receiving thousands of changes per second can flash.
+     *
+     * @param duration
+     */
+    public final void setCellFlashDuration(Duration duration) {
+        cellFlashDuration.set(duration);
+    }
+
+    /**
+     * @return how long a cell flashes when its value changes.
+     */
+    public final Duration getCellFlashDuration() {
+        return cellFlashDuration.get() == null ? Duration.ZERO : cellFlashDuration.get();
+    }
+
+    /**
+     * The ObjectProperty associated with the duration of the flash of a cell.
+     *
+     * @return the ObjectProperty associated with the duration of the flash of
+     * a cell.
+     */
+    public final ObjectProperty<Duration> cellFlashDurationProperty() {
+        return cellFlashDuration;
+    }
+
+    /**
+     * Specify the color of the background of a cell when its value has just
+     * changed. The default is {@link Color#ORANGE}.
+     *
+     * @param color
+     */
+    public final void setCellFlashColor(Color color) {
+        cellFlashColor.set(color);
+    }
+
+    /**
+     * @return the color of the background of a cell when its value has just
+     * changed.
+     */
+    public final Color getCellFlashColor() {
+        return cellFlashColor.get() == null ? DEFAULT_FLASH_COLOR : cellFlashColor.get();
+    }
+
+    /**
+     * The ObjectProperty associated with the color of a flashing cell.
+     *
+     * @return the ObjectProperty associated with the color of a flashing
+     * cell.
+     */
+    public final ObjectProperty<Color> cellFlashColorProperty() {
+        return cellFlashColor;
+    }
+
     /**
      * You can fix or unfix a row by modifying this list. Call
      * {@link #isRowFixable(int)} before trying to fix a row. See
@@ -659,7 +907,15 @@ public class SpreadsheetView extends Control {
      * @return true if the row can be fixed.
      */
     public boolean isRowFixable(int row) {
-        return row >= 0 && row < rowFix.size() && isFixingRowsAllowed() ? rowFix.get(row) : false;
+        if (row < 0 || row >= getGrid().getRowCount() || !isFixingRowsAllowed() || row >= getFirstCollapsedRow()) {
+            return false;
+        }
+        // The rows are only scanned when asked, so that big grids are displayed quickly.
+        if (!rowFixComputed.get(row)) {
+            rowFixComputed.set(row);
+            rowFix.set(row, !hasRowSpan(getGrid().getRows().get(row)));
+        }
+        return rowFix.get(row);
     }
     
     /**
@@ -674,8 +930,9 @@ public class SpreadsheetView extends Control {
         final Grid grid = getGrid();
         final int rowCount = grid.getRowCount();
         final ObservableList<ObservableList<SpreadsheetCell>> rows = grid.getRows();
+        final int firstCollapsedRow = getFirstCollapsedRow();
         for (Integer row : list) {
-            if (row == null || row < 0 || row > rowCount) {
+            if (row == null || row < 0 || row > rowCount || row >= firstCollapsedRow) {
                 return false;
             }
             //If this row is not fixable, we need to identify the maximum span
@@ -704,6 +961,106 @@ public class SpreadsheetView extends Control {
         return true;
     }
 
+    /**
+     * Hide the rows between from (inclusive) and to (exclusive). The rows are
+     * kept in the {@link Grid}, they are simply not displayed anymore. This
+     * operation does not depend on the number of rows collapsed.
+     *
+     * <p>
+     * Groups can be nested, but a group cannot cut through a row span and
+     * must be situated below every fixed row. Collapsing a group already
+     * collapsed has no effect.
+     *
+     * @param from the first row of the group in the {@link Grid}.
+     * @param to the row following the last row of the group in the
+     * {@link Grid}.
+     * @throws IllegalArgumentException if the group is not valid.
+     */
+    public void collapseRows(int from, int to) {
+        final Grid grid = getGrid();
+        if (from < 0 || to > grid.getRowCount() || from >= to) {
+            throw new IllegalArgumentException("The rows from " + from + " to " + to //$NON-NLS-1$ //$NON-NLS-2$
+                    + " cannot be collapsed in a Grid of " + grid.getRowCount() + " rows."); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        if (collapsedGroups.contains(groupKey(from, to))) {
+            return;
+        }
+        for (Integer fixedRow : fixedRows) {
+            if (fixedRow >= from) {
+                throw new IllegalArgumentException("The rows from " + from + " to " + to //$NON-NLS-1$ //$NON-NLS-2$
+                        + " cannot be collapsed because the row " + fixedRow + " is fixed."); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        for (SpreadsheetCell cell : grid.getRows().get(from)) {
+            if (cell.getRow() < from) {
+                throw new IllegalArgumentException("The rows from " + from + " to " + to //$NON-NLS-1$ //$NON-NLS-2$
+                        + " cannot be collapsed because the row span starting at row " + cell.getRow() //$NON-NLS-1$
+                        + " is crossing the group."); //$NON-NLS-1$
+            }
+        }
+        for (SpreadsheetCell cell : grid.getRows().get(to - 1)) {
+            if (cell.getRow() + cell.getRowSpan() > to) {
+                throw new IllegalArgumentException("The rows from " + from + " to " + to //$NON-NLS-1$ //$NON-NLS-2$
+                        + " cannot be collapsed because the row span starting at row " + cell.getRow() //$NON-NLS-1$
+                        + " is crossing the group."); //$NON-NLS-1$
+            }
+        }
+        collapsedGroups.add(groupKey(from, to));
+        getSelectionModel().clearSelection();
+        visibleRows.collapse(from, to);
+        refreshCollapsedRows();
+    }
+
+    /**
+     * Show again the rows previously hidden with
+     * {@link #collapseRows(int, int) }. The rows that are also part of another
+     * collapsed group stay hidden. Expanding a group that is not collapsed has
+     * no effect.
+     *
+     * @param from the first row of the group in the {@link Grid}.
+     * @param to the row following the last row of the group in the
+     * {@link Grid}.
+     */
+    public void expandRows(int from, int to) {
+        if (!collapsedGroups.remove(groupKey(from, to))) {
+            return;
+        }
+        getSelectionModel().clearSelection();
+        visibleRows.expand(from, to);
+        refreshCollapsedRows();
+    }
+
+    /**
+     * @param row the index of the row in the {@link Grid}.
+     * @return true if the row is inside a collapsed group.
+     */
+    public boolean isRowHidden(int row) {
+        return visibleRows != null && visibleRows.getIndex().isHidden(row);
+    }
+
+    /**
+     * Translate the index of a row displayed into the index of the same row in
+     * the {@link Grid}. Both are identical as long as no rows are collapsed.
+     *
+     * @param viewRow the index of the row displayed.
+     * @return the index of the row in the {@link Grid}, or -1 if the row is
+     * not displayed.
+     */
+    public int getModelRow(int viewRow) {
+        return visibleRows == null ? viewRow : visibleRows.getIndex().toModelRow(viewRow);
+    }
+
+    /**
+     * Translate the index of a row in the {@link Grid} into the index of the
+     * same row displayed. Both are identical as long as no rows are collapsed.
+     *
+     * @param modelRow the index of the row in the {@link Grid}.
+     * @return the index of the row displayed, or -1 if the row is hidden.
+     */
+    public int getViewRow(int modelRow) {
+        return visibleRows == null ? modelRow : visibleRows.getIndex().toViewRow(modelRow);
+    }
+
     /**
      * Return whether change to Fixed rows are allowed.
      *
@@ -942,7 +1299,7 @@ public class SpreadsheetView extends Control {
     }
     
     /**
-     * @param row
+     * @param row the index of the row in the {@link Grid}.
      * @return the height of a particular row of the SpreadsheetView.
      */
     public double getRowHeight(int row) {
@@ -950,7 +1307,7 @@ public class SpreadsheetView extends Control {
         if (getCellsViewSkin() == null) {
             return getGrid().getRowHeight(row);
         } else {
-            return getCellsViewSkin().getRowHeight(row);
+            return getCellsViewSkin().getModelRowHeight(row);
         }
     }
     
@@ -965,8 +1322,12 @@ public class SpreadsheetView extends Control {
 
     /**
      * Return the editor associated with the CellType. (defined in
-     * {@link SpreadsheetCellType#createEditor(SpreadsheetView)}. FIXME Maybe
-     * keep the editor references inside the SpreadsheetCellType
+     * {@link SpreadsheetCellType#createEditor(SpreadsheetView)}.
+     * <br/>
+     * The editors provided by {@link SpreadsheetCellEditor} are shared by all
+     * the SpreadsheetViews of a Scene, as long as the SpreadsheetView owning
+     * one is not editing a cell. The other editors belong to this
+     * SpreadsheetView.
      * 
      * @param cellType
      * @return the editor associated with the CellType.
@@ -976,16 +1337,42 @@ public class SpreadsheetView extends Control {
             return Optional.empty();
         }
         SpreadsheetCellEditor cellEditor = editors.get(cellType);
-        if (cellEditor == null) {
-            cellEditor = cellType.createEditor(this);
+        if (cellEditor == null || isEditingElsewhere(cellEditor)) {
+            cellEditor = acquireEditor(cellType);
             if(cellEditor == null){
                 return Optional.empty();
             }
             editors.put(cellType, cellEditor);
         }
+        cellEditor.view = this;
         return Optional.of(cellEditor);
     }
 
+    /**
+     * Create in advance the editors of the given cell types, so that the
+     * first edition of a cell does not pay for the construction of its
+     * control. One editor is created at a time on the JavaFX Application
+     * Thread, between two pulses. If the SpreadsheetView is inside a Scene,
+     * the CSS of the control is also applied so that its skin is ready.
+     * <br/>
+     * This is done automatically with the cell types of the first rows of the
+     * Grid when the SpreadsheetView is added to a Scene. This method must be
+     * called on the JavaFX Application Thread.
+     * 
+     * @param cellTypes the cell types whose editor will be created.
+     */
+    public final void prewarmEditors(Collection<? extends SpreadsheetCellType<?>> cellTypes) {
+        final boolean idle = editorsToPrewarm.isEmpty();
+        for (SpreadsheetCellType<?> cellType : cellTypes) {
+            if (cellType != null && !editors.containsKey(cellType) && !editorsToPrewarm.contains(cellType)) {
+                editorsToPrewarm.add(cellType);
+            }
+        }
+        if (idle && !editorsToPrewarm.isEmpty()) {
+            Platform.runLater(this::prewarmNextEditor);
+        }
+    }
+
     /**
      * Sets the value of the property editable.
      * 
@@ -1033,7 +1420,7 @@ public class SpreadsheetView extends Control {
         final ObservableList<TablePosition> posList = getSelectionModel().getSelectedCells();
 
         for (final TablePosition<?, ?> p : posList) {
-            SpreadsheetCell cell = getGrid().getRows().get(p.getRow()).get(p.getColumn());
+            SpreadsheetCell cell = cellsView.getItems().get(p.getRow()).get(p.getColumn());
             // Using SpreadsheetCell change to stock the information
             // FIXME a dedicated class should be used
             list.add(new GridChange(cell.getRow(), cell.getColumn(), null, cell.getItem() == null ? null : cell.getItem().toString()));
@@ -1066,7 +1453,7 @@ public class SpreadsheetView extends Control {
                 for(TablePosition position:getSelectionModel().getSelectedCells()){
                     final SpanType type = getSpanType(position.getRow(), position.getColumn());
                     if (type == SpanType.NORMAL_CELL || type == SpanType.ROW_VISIBLE) {
-                        SpreadsheetCell cell = getGrid().getRows().get(position.getRow()).get(position.getColumn());
+                        SpreadsheetCell cell = cellsView.getItems().get(position.getRow()).get(position.getColumn());
                         boolean succeed = cell.getCellType().match(change.getNewValue());
                         if (succeed) {
                             getGrid().setCellValue(cell.getRow(), cell.getColumn(),
@@ -1099,7 +1486,8 @@ public class SpreadsheetView extends Control {
 
                 final TablePosition<?, ?> p = cellsView.getFocusModel().getFocusedCell();
 
-                final int offsetRow = p.getRow() - minRow;
+                // The clipboard contains rows of the Grid, not displayed ones.
+                final int offsetRow = getModelRow(p.getRow()) - minRow;
                 final int offsetCol = p.getColumn() - minCol;
                 int row;
                 int column;
@@ -1108,8 +1496,8 @@ public class SpreadsheetView extends Control {
                     row = change.getRow();
                     column = change.getColumn();
                     if (row + offsetRow < getGrid().getRowCount() && column + offsetCol < getGrid().getColumnCount()
-                            && row + offsetRow >= 0 && column + offsetCol >= 0) {
-                        final SpanType type = getSpanType(row + offsetRow, column + offsetCol);
+                            && row + offsetRow >= 0 && column + offsetCol >= 0 && !isRowHidden(row + offsetRow)) {
+                        final SpanType type = getSpanType(getViewRow(row + offsetRow), column + offsetCol);
                         if (type == SpanType.NORMAL_CELL || type == SpanType.ROW_VISIBLE) {
                             SpreadsheetCell cell = getGrid().getRows().get(row + offsetRow).get(column + offsetCol);
                             boolean succeed = cell.getCellType().match(change.getNewValue());
@@ -1175,7 +1563,7 @@ public class SpreadsheetView extends Control {
             @Override
             public void handle(ActionEvent t) {
                 TablePosition<ObservableList<SpreadsheetCell>, ?> pos = cellsView.getFocusModel().getFocusedCell();
-                SpreadsheetCell cell = getGrid().getRows().get(pos.getRow()).get(pos.getColumn());
+                SpreadsheetCell cell = cellsView.getItems().get(pos.getRow()).get(pos.getColumn());
                 cell.activateCorner(SpreadsheetCell.CornerPosition.TOP_LEFT);
             }
         });
@@ -1185,7 +1573,7 @@ public class SpreadsheetView extends Control {
             @Override
             public void handle(ActionEvent t) {
                 TablePosition<ObservableList<SpreadsheetCell>, ?> pos = cellsView.getFocusModel().getFocusedCell();
-                SpreadsheetCell cell = getGrid().getRows().get(pos.getRow()).get(pos.getColumn());
+                SpreadsheetCell cell = cellsView.getItems().get(pos.getRow()).get(pos.getColumn());
                 cell.activateCorner(SpreadsheetCell.CornerPosition.TOP_RIGHT);
             }
         });
@@ -1195,7 +1583,7 @@ public class SpreadsheetView extends Control {
             @Override
             public void handle(ActionEvent t) {
                 TablePosition<ObservableList<SpreadsheetCell>, ?> pos = cellsView.getFocusModel().getFocusedCell();
-                SpreadsheetCell cell = getGrid().getRows().get(pos.getRow()).get(pos.getColumn());
+                SpreadsheetCell cell = cellsView.getItems().get(pos.getRow()).get(pos.getColumn());
                 cell.activateCorner(SpreadsheetCell.CornerPosition.BOTTOM_RIGHT);
             }
         });
@@ -1205,7 +1593,7 @@ public class SpreadsheetView extends Control {
             @Override
             public void handle(ActionEvent t) {
                 TablePosition<ObservableList<SpreadsheetCell>, ?> pos = cellsView.getFocusModel().getFocusedCell();
-                SpreadsheetCell cell = getGrid().getRows().get(pos.getRow()).get(pos.getColumn());
+                SpreadsheetCell cell = cellsView.getItems().get(pos.getRow()).get(pos.getColumn());
                 cell.activateCorner(SpreadsheetCell.CornerPosition.BOTTOM_LEFT);
             }
         });
@@ -1223,7 +1611,7 @@ public class SpreadsheetView extends Control {
      */
     public void deleteSelectedCells() {
         for (TablePosition<ObservableList<SpreadsheetCell>, ?> position : getSelectionModel().getSelectedCells()) {
-            getGrid().setCellValue(position.getRow(), position.getColumn(), null);
+            getGrid().setCellValue(getModelRow(position.getRow()), position.getColumn(), null);
         }
     }
     
@@ -1268,19 +1656,66 @@ public class SpreadsheetView extends Control {
         return gridBase;
     }
     
+    private static long groupKey(int from, int to) {
+        return ((long) from << 32) | to;
+    }
+
+    /**
+     * @return the first row of the Grid contained in a collapsed group, or
+     * Integer.MAX_VALUE if no group is collapsed.
+     */
+    private int getFirstCollapsedRow() {
+        int firstRow = Integer.MAX_VALUE;
+        for (long group : collapsedGroups) {
+            firstRow = Math.min(firstRow, (int) (group >>> 32));
+        }
+        return firstRow;
+    }
+
+    /**
+     * Rows have been added or removed in the Grid while some rows were
+     * collapsed. The groups cannot be matched anymore so every row is shown.
+     */
+    private void resetCollapsedRows() {
+        collapsedGroups.clear();
+        getSelectionModel().clearSelection();
+        visibleRows = new VisibleRowsList(getGrid().getRows(), this::resetCollapsedRows);
+        cellsView.setItems(visibleRows);
+        refreshCollapsedRows();
+    }
+
+    /**
+     * The rows displayed have been shifted, the skin must forget the layout
+     * state it kept for each displayed row.
+     */
+    private void refreshCollapsedRows() {
+        if (getCellsViewSkin() != null) {
+            getCellsViewSkin().refreshCollapsedRows();
+        }
+    }
+
+    /**
+     * Reset the rows that can be fixed, they are computed on demand by
+     * {@link #isRowFixable(int)}.
+     */
     private void initRowFix(Grid grid) {
-        ObservableList<ObservableList<SpreadsheetCell>> rows = grid.getRows();
-        rowFix = new BitSet(rows.size());
-        rows:
-        for (int r = 0; r < rows.size(); ++r) {
-            ObservableList<SpreadsheetCell> row = rows.get(r);
-            for (SpreadsheetCell cell : row) {
-                if (cell.getRowSpan() > 1) {
-                    continue rows;
-                }
+        final int rowCount = grid.getRowCount();
+        rowFix = new BitSet(rowCount);
+        rowFixComputed = new BitSet(rowCount);
+        if (!grid.isSpanSupported()) {
+            // Without span, every row can be fixed.
+            rowFix.set(0, rowCount);
+            rowFixComputed.set(0, rowCount);
+        }
+    }
+
+    private static boolean hasRowSpan(ObservableList<SpreadsheetCell> row) {
+        for (SpreadsheetCell cell : row) {
+            if (cell.getRowSpan() > 1) {
+                return true;
             }
-            rowFix.set(r);
         }
+        return false;
     }
     
     /**
@@ -1295,33 +1730,122 @@ public class SpreadsheetView extends Control {
 
     private void verifyColumnSpan(Grid grid) {
         for (int i = 0; i < grid.getRows().size(); ++i) {
-            ObservableList<SpreadsheetCell> row = grid.getRows().get(i);
-            int count = 0;
-            for (int j = 0; j < row.size(); ++j) {
-                if (row.get(j).getColumnSpan() == 1) {
-                    ++count;
-                } else if (row.get(j).getColumnSpan() > 1) {
-                    ++count;
-                    SpreadsheetCell currentCell = row.get(j);
-                    for (int k = j + 1; k < currentCell.getColumn() + currentCell.getColumnSpan(); ++k) {
-                        if (!row.get(k).equals(currentCell)) {
-                            throw new IllegalStateException("\n At row " + i + " and column " + j //$NON-NLS-1$ //$NON-NLS-2$
-                                    + ": this cell is in the range of a columnSpan but is different. \n" //$NON-NLS-1$
-                                    + "Every cell in a range of a ColumnSpan must be of the same instance."); //$NON-NLS-1$
+            final IllegalStateException error = verifyRow(grid, i);
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Verify the rows in parallel on a background thread. The cells of the
+     * rows are copied here, so the background thread never reads the lists
+     * of the Grid. The spans of the cells may still change in the meantime,
+     * so the first malformed row is verified again on the JavaFX Application
+     * Thread before being reported, if the grid is still displayed.
+     *
+     * @param grid
+     */
+    private void verifyGridInBackground(final Grid grid) {
+        if (!grid.isSpanSupported()) {
+            // Without span there is nothing to verify, and the rows may be
+            // created on demand by the Grid on the JavaFX Application Thread.
+            return;
+        }
+        final int columnCount = grid.getColumnCount();
+        final ObservableList<ObservableList<SpreadsheetCell>> rows = grid.getRows();
+        final List<List<SpreadsheetCell>> copy = new ArrayList<>(rows.size());
+        for (ObservableList<SpreadsheetCell> row : rows) {
+            copy.add(Arrays.asList(row.toArray(new SpreadsheetCell[row.size()])));
+        }
+        final Thread thread = new Thread(() -> {
+            // The first error in the order of the rows, as in a sequential verification.
+            final OptionalInt malformedRow = IntStream.range(0, copy.size()).parallel()
+                    .filter(row -> verifyRow(copy.get(row), columnCount, row) != null)
+                    .findFirst();
+            if (malformedRow.isPresent()) {
+                final int row = malformedRow.getAsInt();
+                Platform.runLater(() -> {
+                    if (getGrid() == grid && row < grid.getRowCount()) {
+                        final IllegalStateException error = verifyRow(grid, row);
+                        if (error != null) {
+                            gridValidationError.set(error);
                         }
-                        ++count;
-                        ++j;
                     }
-                } else {
-                    throw new IllegalStateException("\n At row " + i + " and column " + j //$NON-NLS-1$ //$NON-NLS-2$
-                            + ": this cell has a negative columnSpan"); //$NON-NLS-1$
-                }
+                });
             }
-            if (count != grid.getColumnCount()) {
-                throw new IllegalStateException("The row" + i //$NON-NLS-1$
-                        + " has a number of cells different of the columnCount declared in the grid."); //$NON-NLS-1$
+        }, "SpreadsheetView grid validation"); //$NON-NLS-1$
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Verify a row of the Grid the first time it is displayed, if the
+     * {@link GridValidation#LAZY} validation was used.
+     *
+     * @param viewRow
+     */
+    private void verifyDisplayedRow(int viewRow) {
+        if (validatedRows == null) {
+            return;
+        }
+        final int modelRow = getModelRow(viewRow);
+        if (modelRow < 0 || modelRow >= getGrid().getRowCount() || validatedRows.get(modelRow)) {
+            return;
+        }
+        validatedRows.set(modelRow);
+        final IllegalStateException error = verifyRow(getGrid(), modelRow);
+        if (error != null) {
+            // The listeners of the error must not modify the SpreadsheetView
+            // during the layout of the VirtualFlow.
+            final Grid grid = getGrid();
+            Platform.runLater(() -> {
+                if (getGrid() == grid) {
+                    gridValidationError.set(error);
+                }
+            });
+        }
+    }
+
+    /**
+     * Verify that the cells of a row are well-formed.
+     *
+     * @param grid
+     * @param i the row in the Grid.
+     * @return the error describing the malformed cell, or null if the row is
+     * well-formed.
+     */
+    private static IllegalStateException verifyRow(Grid grid, int i) {
+        return verifyRow(grid.getRows().get(i), grid.getColumnCount(), i);
+    }
+
+    private static IllegalStateException verifyRow(List<SpreadsheetCell> row, int columnCount, int i) {
+        int count = 0;
+        for (int j = 0; j < row.size(); ++j) {
+            if (row.get(j).getColumnSpan() == 1) {
+                ++count;
+            } else if (row.get(j).getColumnSpan() > 1) {
+                ++count;
+                SpreadsheetCell currentCell = row.get(j);
+                for (int k = j + 1; k < currentCell.getColumn() + currentCell.getColumnSpan(); ++k) {
+                    if (!row.get(k).equals(currentCell)) {
+                        return new IllegalStateException("\n At row " + i + " and column " + j //$NON-NLS-1$ //$NON-NLS-2$
+                                + ": this cell is in the range of a columnSpan but is different. \n" //$NON-NLS-1$
+                                + "Every cell in a range of a ColumnSpan must be of the same instance."); //$NON-NLS-1$
+                    }
+                    ++count;
+                    ++j;
+                }
+            } else {
+                return new IllegalStateException("\n At row " + i + " and column " + j //$NON-NLS-1$ //$NON-NLS-2$
+                        + ": this cell has a negative columnSpan"); //$NON-NLS-1$
             }
         }
+        if (count != columnCount) {
+            return new IllegalStateException("The row" + i //$NON-NLS-1$
+                    + " has a number of cells different of the columnCount declared in the grid."); //$NON-NLS-1$
+        }
+        return null;
     }
 
     private void checkFormat() {
@@ -1428,6 +1952,149 @@ public class SpreadsheetView extends Control {
             return null;
         }
     };
+    /**
+     * The shared editors belong to the previous Scene, the new one may have
+     * its own. The editors left in the pool of the previous Scene must not
+     * keep this SpreadsheetView, and its Grid, reachable.
+     */
+    private final ChangeListener<Scene> sceneListener = new ChangeListener<Scene>() {
+        @Override
+        public void changed(ObservableValue<? extends Scene> observable, Scene oldScene, Scene newScene) {
+            editors.values().removeIf(SpreadsheetView::isShareable);
+            if (oldScene != null) {
+                releaseSharedEditors(oldScene);
+            }
+            if (newScene != null && getGrid() != null) {
+                prewarmEditors(getFirstCellTypes());
+            }
+        }
+    };
+
+    /**
+     * The built-in editors only reach their SpreadsheetView through their
+     * view field, so they can be handed from one
+     * SpreadsheetView to another. A custom editor may have kept the
+     * SpreadsheetView given to its constructor.
+     */
+    private static boolean isShareable(SpreadsheetCellEditor editor) {
+        return editor.getClass().getEnclosingClass() == SpreadsheetCellEditor.class;
+    }
+
+    /**
+     * @return true if this editor is shared and another SpreadsheetView is
+     * currently editing a cell.
+     */
+    private boolean isEditingElsewhere(SpreadsheetCellEditor editor) {
+        return editor.view != this && editor.view != null && editor.view.getEditingCell() != null;
+    }
+
+    /**
+     * Return the editor of the Scene for this cell type, or create a new one
+     * and share it with the other SpreadsheetViews of the Scene.
+     */
+    private SpreadsheetCellEditor acquireEditor(SpreadsheetCellType<?> cellType) {
+        final Scene scene = getScene();
+        if (scene == null) {
+            return cellType.createEditor(this);
+        }
+        @SuppressWarnings("unchecked")
+        Map<SpreadsheetCellType<?>, SpreadsheetCellEditor> pool = (Map<SpreadsheetCellType<?>, SpreadsheetCellEditor>) scene
+                .getProperties().get(EDITOR_POOL_KEY);
+        if (pool == null) {
+            pool = new IdentityHashMap<>();
+            scene.getProperties().put(EDITOR_POOL_KEY, pool);
+        }
+        final SpreadsheetCellEditor sharedEditor = pool.get(cellType);
+        if (sharedEditor != null && !isEditingElsewhere(sharedEditor)) {
+            return sharedEditor;
+        }
+        final SpreadsheetCellEditor cellEditor = cellType.createEditor(this);
+        if (cellEditor != null && sharedEditor == null && isShareable(cellEditor)) {
+            pool.put(cellType, cellEditor);
+        }
+        return cellEditor;
+    }
+
+    /**
+     * Forget this SpreadsheetView in the editors of the pool of a Scene it
+     * has left. The next SpreadsheetView using them sets its own.
+     */
+    private void releaseSharedEditors(Scene scene) {
+        @SuppressWarnings("unchecked")
+        final Map<SpreadsheetCellType<?>, SpreadsheetCellEditor> pool = (Map<SpreadsheetCellType<?>, SpreadsheetCellEditor>) scene
+                .getProperties().get(EDITOR_POOL_KEY);
+        if (pool != null) {
+            for (SpreadsheetCellEditor editor : pool.values()) {
+                if (editor.view == this) {
+                    editor.view = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the next editor waiting to be prewarmed, and schedule the
+     * following one so that each pulse only pays for one editor.
+     */
+    private void prewarmNextEditor() {
+        final SpreadsheetCellType<?> cellType = editorsToPrewarm.poll();
+        if (cellType == null) {
+            return;
+        }
+        final Optional<SpreadsheetCellEditor> cellEditor = getEditor(cellType);
+        if (cellEditor.isPresent() && getScene() != null && getEditingCell() == null) {
+            final Control control = cellEditor.get().getEditor();
+            // The skin is created by the CSS pass, which needs a Scene. A
+            // detached one is used so the SpreadsheetView is not laid out
+            // again, with the style sheets of our Scene.
+            if (control != null && control.getParent() == null && control.getSkin() == null) {
+                if (prewarmHolder == null) {
+                    prewarmHolder = new Group();
+                    new Scene(prewarmHolder);
+                }
+                prewarmHolder.getStylesheets().setAll(getScene().getStylesheets());
+                prewarmHolder.getChildren().add(control);
+                control.applyCss();
+                prewarmHolder.getChildren().clear();
+            }
+        }
+        if (!editorsToPrewarm.isEmpty()) {
+            Platform.runLater(this::prewarmNextEditor);
+        }
+    }
+
+    /**
+     * @return the cell types of the first rows of the Grid.
+     */
+    private Set<SpreadsheetCellType<?>> getFirstCellTypes() {
+        final Set<SpreadsheetCellType<?>> cellTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        final ObservableList<ObservableList<SpreadsheetCell>> rows = getGrid().getRows();
+        final int rowCount = Math.min(PREWARM_ROW_COUNT, rows.size());
+        for (int row = 0; row < rowCount; ++row) {
+            for (SpreadsheetCell cell : rows.get(row)) {
+                cellTypes.add(cell.getCellType());
+            }
+        }
+        return cellTypes;
+    }
+
+    /**
+     * Update the index of the jump navigation, and start the flash of the
+     * changed cell if the flash is activated and the skin is created.
+     */
+    private final EventHandler<GridChange> gridChangeHandler = new EventHandler<GridChange>() {
+        @Override
+        public void handle(GridChange change) {
+            gridNavigator.cellChanged(change.getRow(), change.getColumn());
+            final GridViewSkin skin = getCellsViewSkin();
+            if (skin != null && getCellFlashDuration().greaterThan(Duration.ZERO)) {
+                skin.getFlashAnimator().flash(change.getRow(), change.getColumn());
+            }
+        }
+    };
+
+    private final WeakEventHandler<GridChange> weakGridChangeHandler = new WeakEventHandler<>(gridChangeHandler);
+
     private final ChangeListener<ContextMenu> contextMenuChangeListener = new ChangeListener<ContextMenu>() {
         
         @Override
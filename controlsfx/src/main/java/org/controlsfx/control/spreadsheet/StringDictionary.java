@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.spreadsheet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javafx.util.StringConverter;
+
+/**
+ * A dictionary giving an int code to each distinct String it is given.
+ *
+ * <p>
+ * When many cells of a {@link Grid} repeat a small set of values (statuses,
+ * codes etc), a dictionary can be given to a
+ * {@link SpreadsheetCellType.StringType}. Every value is then replaced by the
+ * single instance of the dictionary before being stored in a cell, and its
+ * text is only computed once for each converter. So the cells sharing a value
+ * also share their item and their text, and comparing two of their values is
+ * usually a reference comparison. A dictionary can be shared by several types
+ * using different converters. A {@link SpreadsheetCellType.ListType} always uses a
+ * dictionary.
+ *
+ * <p>
+ * The codes are given in order starting at zero, and a value keeps its code
+ * for the life of the dictionary. The null value is encoded as -1. A
+ * dictionary is not thread-safe, it is meant to be used on the JavaFX
+ * Application Thread like the rest of the Grid.
+ *
+ * <h3> Code Sample </h3>
+ * <pre>
+ * StringType statusType = new StringType(new DefaultStringConverter(), new StringDictionary());
+ * SpreadsheetCell cell = statusType.createCell(row, column, 1, 1, "Pending");
+ * </pre>
+ */
+public final class StringDictionary {
+
+    /***************************************************************************
+     *
+     * Private Fields
+     *
+     **************************************************************************/
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+    /**
+     * The text displayed for each code by each converter, computed the first
+     * time it is needed.
+     */
+    private final Map<StringConverter<String>, String[]> texts = new IdentityHashMap<>();
+    private int size;
+
+    /***************************************************************************
+     *
+     * Constructors
+     *
+     **************************************************************************/
+    /**
+     * Creates an empty dictionary.
+     */
+    public StringDictionary() {
+    }
+
+    /**
+     * Creates a dictionary already containing the given values, in the order
+     * of the collection.
+     *
+     * @param values
+     */
+    public StringDictionary(Collection<String> values) {
+        for (String value : values) {
+            encode(value);
+        }
+    }
+
+    /***************************************************************************
+     *
+     * Public Methods
+     *
+     **************************************************************************/
+    /**
+     * Return the code of this value, giving it a new one if the value was
+     * never encoded.
+     *
+     * @param value
+     * @return the code of this value, or -1 if the value is null.
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = size;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * @param code
+     * @return the value of this code, or null if the code is -1.
+     * @throws IndexOutOfBoundsException if no value has this code.
+     */
+    public String decode(int code) {
+        if (code == -1) {
+            return null;
+        }
+        if (code < 0 || code >= size) {
+            throw new IndexOutOfBoundsException("No value is encoded as " + code); //$NON-NLS-1$
+        }
+        return values[code];
+    }
+
+    /**
+     * Return the instance of the dictionary equal to this value, adding it
+     * to the dictionary if needed.
+     *
+     * @param value
+     * @return the instance of the dictionary equal to this value.
+     */
+    public String intern(String value) {
+        return value == null ? null : values[encode(value)];
+    }
+
+    /**
+     * @param value
+     * @return true if the value has a code.
+     */
+    public boolean contains(String value) {
+        return value != null && codes.containsKey(value);
+    }
+
+    /**
+     * @return the number of distinct values inside the dictionary.
+     */
+    public int size() {
+        return size;
+    }
+
+    /***************************************************************************
+     *
+     * Package Methods
+     *
+     **************************************************************************/
+    /**
+     * Return the text of this value given by the converter, which is only
+     * called the first time for each code. The texts are cached separately
+     * for each converter. A value that is not in the
+     * dictionary is converted without being added, so that displaying
+     * arbitrary values does not grow the dictionary.
+     */
+    String getText(String value, StringConverter<String> converter) {
+        final Integer code = value == null ? null : codes.get(value);
+        if (code == null) {
+            return converter.toString(value);
+        }
+        String[] converterTexts = texts.get(converter);
+        if (converterTexts == null || converterTexts.length <= code) {
+            converterTexts = converterTexts == null ? new String[values.length] : Arrays.copyOf(converterTexts, values.length);
+            texts.put(converter, converterTexts);
+        }
+        String text = converterTexts[code];
+        if (text == null) {
+            text = converter.toString(values[code]);
+            converterTexts[code] = text;
+        }
+        return text;
+    }
+}
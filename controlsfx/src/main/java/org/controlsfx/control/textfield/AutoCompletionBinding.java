@@ -15,6 +15,7 @@ import javafx.util.Callback;
 import javafx.util.StringConverter;
 
 import java.util.Collection;
+import org.controlsfx.tools.Metrics;
 
 /**
  * The AutoCompletionBinding is the abstract base class of all auto-completion bindings.
@@ -245,7 +246,9 @@ public abstract class AutoCompletionBinding<T> implements EventTarget {
             Callback<ISuggestionRequest, Collection<T>> provider = suggestionProvider;
             if(provider != null){
             	long start_time = System.currentTimeMillis();
+                final long start = Metrics.start();
                 final Collection<T> fetchedSuggestions = provider.call(this);
+                Metrics.stop(Metrics.AUTOCOMPLETION_FETCH, start, fetchedSuggestions == null ? 0 : fetchedSuggestions.size());
                 long sleep_time = start_time + AUTO_COMPLETE_DELAY - System.currentTimeMillis();
                 if (sleep_time > 0 && !isCancelled()) {
                 	Thread.sleep(sleep_time);
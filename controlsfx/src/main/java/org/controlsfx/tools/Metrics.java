@@ -0,0 +1,354 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.tools;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * An opt-in registry measuring the expensive operations of the ControlsFX
+ * skins, in order to find which control is responsible for a slow pulse.
+ *
+ * <p>
+ * The measures are disabled by default and cost a single read of a flag. They
+ * are enabled with {@link #setEnabled(boolean)} or by launching the
+ * application with {@code -Dcontrolsfx.metrics=true}. Each measured operation
+ * is then added to the {@link Statistic} of its name, and given as an
+ * {@link Event} to the listeners. A listener can forward the events to any
+ * monitoring tool, for example as Java Flight Recorder events on a JDK
+ * providing the {@code jdk.jfr} API, or to a log.
+ *
+ * <p>
+ * The operations measured by ControlsFX are:
+ * <ul>
+ * <li>{@link #SPREADSHEET_LAYOUT}, {@link #SPREADSHEET_FLOW_LAYOUT} and
+ * {@link #SPREADSHEET_HEADER_LAYOUT}: the layout of the SpreadsheetView, of
+ * its rows and of its row header. The item count is the number of rows laid
+ * out.</li>
+ * <li>{@link #SPREADSHEET_CELL_UPDATE}: the update of one cell of the
+ * SpreadsheetView.</li>
+ * <li>{@link #SPREADSHEET_ROW_RESIZE}: the resizing of every row to fit its
+ * content. The item count is the number of rows.</li>
+ * <li>{@link #SPREADSHEET_SELECTION}: a selection of a range or of every
+ * cell. The item count is the number of selected cells.</li>
+ * <li>{@link #AUTOCOMPLETION_FETCH}: the fetch of the suggestions of an
+ * auto completion. The item count is the number of suggestions.</li>
+ * </ul>
+ *
+ * <h3> Code Sample </h3>
+ * <pre>
+ * Metrics.setEnabled(true);
+ * Metrics.addListener(event -&gt; {
+ *     if (event.getDurationNanos() &gt; 5_000_000) {
+ *         LOGGER.warning(event.getName() + " took " + event.getDurationNanos() / 1_000_000 + "ms");
+ *     }
+ * });
+ * ...
+ * Metrics.getStatistics().values().forEach(System.out::println);
+ * </pre>
+ */
+public final class Metrics {
+
+    /***************************************************************************
+     *
+     * Static Fields
+     *
+     **************************************************************************/
+    /**
+     * The system property enabling the measures at startup.
+     */
+    public static final String ENABLED_PROPERTY = "controlsfx.metrics"; //$NON-NLS-1$
+
+    public static final String SPREADSHEET_LAYOUT = "GridViewSkin.layoutChildren"; //$NON-NLS-1$
+    public static final String SPREADSHEET_FLOW_LAYOUT = "GridVirtualFlow.layoutChildren"; //$NON-NLS-1$
+    public static final String SPREADSHEET_HEADER_LAYOUT = "VerticalHeader.layoutChildren"; //$NON-NLS-1$
+    public static final String SPREADSHEET_CELL_UPDATE = "CellView.updateItem"; //$NON-NLS-1$
+    public static final String SPREADSHEET_ROW_RESIZE = "GridViewSkin.resizeRowsToFitContent"; //$NON-NLS-1$
+    public static final String SPREADSHEET_SELECTION = "SpreadsheetViewSelectionModel.select"; //$NON-NLS-1$
+    public static final String AUTOCOMPLETION_FETCH = "AutoCompletionBinding.fetchSuggestions"; //$NON-NLS-1$
+
+    /**
+     * Returned by {@link #start()} when the measures are disabled.
+     */
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final List<Consumer<Event>> listeners = new CopyOnWriteArrayList<>();
+
+    /***************************************************************************
+     *
+     * Inner Classes
+     *
+     **************************************************************************/
+    /**
+     * One measured operation.
+     */
+    public static final class Event {
+
+        private final String name;
+        private final long startNanos;
+        private final long durationNanos;
+        private final int itemCount;
+
+        Event(String name, long startNanos, long durationNanos, int itemCount) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.itemCount = itemCount;
+        }
+
+        /**
+         * @return the name of the operation.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the {@link System#nanoTime()} when the operation started.
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * @return how long the operation took, in nanoseconds.
+         */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @return the number of items processed by the operation.
+         */
+        public int getItemCount() {
+            return itemCount;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + durationNanos + "ns, " + itemCount + " items"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    /**
+     * The accumulated measures of one operation since the last
+     * {@link #reset()}.
+     */
+    public static final class Statistic {
+
+        private final String name;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long itemCount;
+
+        Statistic(String name, long count, long totalNanos, long maxNanos, long itemCount) {
+            this.name = name;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.itemCount = itemCount;
+        }
+
+        /**
+         * @return the name of the operation.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return how many times the operation was measured.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the total time spent in the operation, in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return the longest operation, in nanoseconds.
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return the mean duration of the operation, in nanoseconds.
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * @return the total number of items processed by the operation.
+         */
+        public long getItemCount() {
+            return itemCount;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + count + " calls, " + totalNanos + "ns total, " + maxNanos + "ns max, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                    + itemCount + " items"; //$NON-NLS-1$
+        }
+    }
+
+    private static final class Counter {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder itemCount = new LongAdder();
+
+        void add(long durationNanos, int items) {
+            count.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+            itemCount.add(items);
+        }
+
+        Statistic toStatistic(String name) {
+            return new Statistic(name, count.sum(), totalNanos.sum(), maxNanos.get(), itemCount.sum());
+        }
+    }
+
+    /***************************************************************************
+     *
+     * Constructor
+     *
+     **************************************************************************/
+    private Metrics() {
+    }
+
+    /***************************************************************************
+     *
+     * Public Methods
+     *
+     **************************************************************************/
+    /**
+     * @return true if the operations are measured.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start or stop measuring the operations. The statistics are kept when
+     * the measures are disabled.
+     *
+     * @param value
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Start measuring an operation.
+     *
+     * @return the value to give to {@link #stop(String, long, int)}.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Stop measuring an operation. Nothing is done if the measures were
+     * disabled when {@link #start()} was called.
+     *
+     * @param name the name of the operation.
+     * @param start the value returned by {@link #start()}.
+     * @param itemCount the number of items processed by the operation.
+     */
+    public static void stop(String name, long start, int itemCount) {
+        if (start == DISABLED) {
+            return;
+        }
+        final long duration = System.nanoTime() - start;
+        counters.computeIfAbsent(name, key -> new Counter()).add(duration, itemCount);
+        if (!listeners.isEmpty()) {
+            final Event event = new Event(name, start, duration, itemCount);
+            for (Consumer<Event> listener : listeners) {
+                listener.accept(event);
+            }
+        }
+    }
+
+    /**
+     * @return a sorted snapshot of the statistics of every operation measured
+     * since the last {@link #reset()}.
+     */
+    public static Map<String, Statistic> getStatistics() {
+        final Map<String, Statistic> statistics = new TreeMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().toStatistic(entry.getKey()));
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Forget every statistic.
+     */
+    public static void reset() {
+        counters.clear();
+    }
+
+    /**
+     * Add a listener called, on the thread of the operation, after each
+     * measured operation. It must be fast since it is called during the
+     * layout.
+     *
+     * @param listener
+     */
+    public static void addListener(Consumer<Event> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener added with {@link #addListener(Consumer)}.
+     *
+     * @param listener
+     */
+    public static void removeListener(Consumer<Event> listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import org.controlsfx.control.spreadsheet.JavaFXThreadingRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GridViewBitSetSelectionModelTest {
+
+    @Rule public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private ObservableList<String> items;
+    private GridView<String> gridView;
+    private GridViewBitSetSelectionModel<String> model;
+    private Mirror<Integer> indices;
+    private Mirror<String> selectedItems;
+
+    /**
+     * A copy of a list, kept up to date by applying each change fired by the
+     * list, so that the positions of the changes are checked.
+     */
+    private static final class Mirror<E> implements ListChangeListener<E> {
+        private final ObservableList<E> source;
+        private final List<E> copy;
+        private AssertionError error;
+        private int changes;
+
+        Mirror(ObservableList<E> source) {
+            this.source = source;
+            this.copy = new ArrayList<>(source);
+            source.addListener(this);
+        }
+
+        @Override public void onChanged(Change<? extends E> c) {
+            // The listeners' exceptions are swallowed, so the first failure
+            // is kept and rethrown by check().
+            try {
+                ++changes;
+                while (c.next()) {
+                    if (c.wasPermutated()) {
+                        final List<E> permuted = new ArrayList<>(copy);
+                        for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                            permuted.set(c.getPermutation(i), copy.get(i));
+                        }
+                        copy.clear();
+                        copy.addAll(permuted);
+                    } else {
+                        final List<E> removed = copy.subList(c.getFrom(), c.getFrom() + c.getRemovedSize());
+                        assertEquals("removed", new ArrayList<E>(removed), new ArrayList<E>(c.getRemoved()));
+                        removed.clear();
+                        copy.addAll(c.getFrom(), c.getAddedSubList());
+                    }
+                }
+                assertEquals(new ArrayList<>(source), copy);
+            } catch (AssertionError e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+
+        /**
+         * Check that the copy matches the list, and return the number of
+         * changes fired since the last check.
+         */
+        int check() {
+            if (error != null) {
+                throw error;
+            }
+            assertEquals(new ArrayList<>(source), copy);
+            final int count = changes;
+            changes = 0;
+            return count;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        items = FXCollections.observableArrayList();
+        for (int i = 0; i < 20; ++i) {
+            // Padded, so that sorting the items keeps their numeric order.
+            items.add(String.format("item%02d", i)); //$NON-NLS-1$
+        }
+        gridView = new GridView<>(items);
+        model = new GridViewBitSetSelectionModel<>(gridView);
+        gridView.setSelectionModel(model);
+        indices = new Mirror<>(model.getSelectedIndices());
+        selectedItems = new Mirror<>(model.getSelectedItems());
+    }
+
+    private void assertSelected(Integer... expected) {
+        indices.check();
+        selectedItems.check();
+        assertEquals(Arrays.asList(expected), new ArrayList<>(model.getSelectedIndices()));
+        final List<String> expectedItems = new ArrayList<>();
+        for (int index : expected) {
+            expectedItems.add(items.get(index));
+        }
+        assertEquals(expectedItems, new ArrayList<>(model.getSelectedItems()));
+    }
+
+    /**
+     * A range is fired as a single change, also when it joins ranges already
+     * selected.
+     */
+    @Test
+    public void testSelectRange() {
+        model.selectRange(2, 5);
+        assertSelected(2, 3, 4);
+        assertEquals(4, model.getSelectedIndex());
+
+        model.selectRange(8, 10);
+        assertSelected(2, 3, 4, 8, 9);
+
+        model.selectRange(0, 12);
+        assertEquals(1, indices.check());
+        assertEquals(1, selectedItems.check());
+        assertSelected(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+
+        // Backwards, the end being excluded.
+        model.clearSelection();
+        model.selectRange(15, 12);
+        assertSelected(13, 14, 15);
+        assertEquals(13, model.getSelectedIndex());
+
+        // Clamped to the items.
+        model.selectRange(18, 100);
+        assertSelected(13, 14, 15, 18, 19);
+    }
+
+    @Test
+    public void testClearSelectionIndex() {
+        model.selectRange(2, 8);
+        model.clearSelection(7);
+        assertSelected(2, 3, 4, 5, 6);
+        assertEquals(6, model.getSelectedIndex());
+
+        model.clearSelection(4);
+        assertSelected(2, 3, 5, 6);
+
+        // Not selected.
+        model.clearSelection(4);
+        model.clearSelection(-1);
+        model.clearSelection(100);
+        assertEquals(0, indices.check());
+        assertSelected(2, 3, 5, 6);
+
+        model.clearAndSelect(10);
+        assertSelected(10);
+        model.clearSelection(10);
+        assertSelected();
+        assertEquals(-1, model.getSelectedIndex());
+    }
+
+    /**
+     * The selection is replaced by the removed indices first, and then the
+     * added ones, each change holding one sub-change per range.
+     */
+    @Test
+    public void testClearAndSelect() {
+        model.selectIndices(1, 3, 4, 5, 9, 12);
+        assertSelected(1, 3, 4, 5, 9, 12);
+        model.clearAndSelect(4);
+        assertEquals(1, indices.check());
+        assertSelected(4);
+        model.selectAll();
+        assertSelected(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19);
+    }
+
+    @Test
+    public void testItemsInserted() {
+        model.selectIndices(2, 5, 6, 10);
+        model.select(5);
+        items.add(4, "new0"); //$NON-NLS-1$
+        assertSelected(2, 6, 7, 11);
+        assertEquals(6, model.getSelectedIndex());
+        assertEquals("item05", model.getSelectedItem()); //$NON-NLS-1$
+
+        items.addAll(0, Arrays.asList("new1", "new2")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertSelected(4, 8, 9, 13);
+
+        // After the selection, nothing moves.
+        items.add("new3"); //$NON-NLS-1$
+        assertEquals(0, indices.check());
+        assertSelected(4, 8, 9, 13);
+    }
+
+    @Test
+    public void testItemsRemoved() {
+        model.selectIndices(2, 5, 6, 7, 10, 15);
+        items.remove(6);
+        assertSelected(2, 5, 6, 9, 14);
+        assertFalse(selectedItems.copy.contains("item06")); //$NON-NLS-1$
+
+        items.remove(3, 11);
+        assertSelected(2, 6);
+        assertEquals(Arrays.asList("item02", "item15"), new ArrayList<>(model.getSelectedItems())); //$NON-NLS-1$ //$NON-NLS-2$
+
+        items.remove(0, 4);
+        assertSelected(2);
+        assertEquals("item15", model.getSelectedItem()); //$NON-NLS-1$
+
+        items.clear();
+        assertSelected();
+        assertEquals(-1, model.getSelectedIndex());
+    }
+
+    /**
+     * The selected indices follow their items, and the selected items are
+     * only reordered.
+     */
+    @Test
+    public void testItemsPermutated() {
+        model.selectIndices(1, 2, 3, 7, 18);
+        model.select(3);
+        // The item at i moves to 19 - i.
+        FXCollections.sort(items, Collections.reverseOrder());
+        assertEquals(1, selectedItems.check());
+        assertSelected(1, 12, 16, 17, 18);
+        assertEquals(Arrays.asList("item18", "item07", "item03", "item02", "item01"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+                new ArrayList<>(model.getSelectedItems()));
+        assertEquals(16, model.getSelectedIndex());
+        assertEquals("item03", model.getSelectedItem()); //$NON-NLS-1$
+
+        FXCollections.sort(items);
+        assertSelected(1, 2, 3, 7, 18);
+        assertEquals(3, model.getSelectedIndex());
+        assertEquals("item03", model.getSelectedItem()); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testAnchor() {
+        assertEquals(-1, model.getAnchor());
+        model.setAnchor(5);
+        assertEquals(5, model.getAnchor());
+        model.setAnchor(100);
+        assertEquals(-1, model.getAnchor());
+
+        model.setAnchor(15);
+        items.remove(10, 20);
+        assertEquals(-1, model.getAnchor());
+
+        model.setAnchor(2);
+        model.beginRubberBand(false);
+        model.selectRubberBand(6, 0);
+        assertSelected(2, 3, 4, 5, 6);
+
+        gridView.setItems(FXCollections.observableArrayList("a", "b")); //$NON-NLS-1$ //$NON-NLS-2$
+        assertEquals(-1, model.getAnchor());
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control;
+
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RankSelectBitSetTest {
+
+    /**
+     * Compare every query of the RankSelectBitSet with a BitSet holding the
+     * same bits.
+     */
+    private static void assertSameBits(BitSet expected, RankSelectBitSet actual, int length) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        int rank = 0;
+        for (int i = 0; i < length; ++i) {
+            assertEquals("get(" + i + ")", expected.get(i), actual.get(i));
+            assertEquals("rank(" + i + ")", rank, actual.rank(i));
+            assertEquals("nextSetBit(" + i + ")", expected.nextSetBit(i), actual.nextSetBit(i));
+            assertEquals("nextClearBit(" + i + ")", expected.nextClearBit(i), actual.nextClearBit(i));
+            if (expected.get(i)) {
+                assertEquals("select(" + rank + ")", i, actual.select(rank));
+                ++rank;
+            }
+        }
+        assertEquals(-1, actual.select(rank));
+        assertEquals(-1, actual.select(-1));
+        assertEquals(expected.cardinality(), actual.rank(length + 1000));
+    }
+
+    @Test
+    public void testEmpty() {
+        RankSelectBitSet bits = new RankSelectBitSet();
+        assertSameBits(new BitSet(), bits, 200);
+        assertEquals(-1, bits.nextSetBit(0));
+        assertEquals(0, bits.nextClearBit(0));
+        assertFalse(bits.clear(10));
+    }
+
+    @Test
+    public void testSetAndClear() {
+        Random random = new Random(42);
+        BitSet expected = new BitSet();
+        RankSelectBitSet actual = new RankSelectBitSet();
+        for (int i = 0; i < 5000; ++i) {
+            int index = random.nextInt(1000);
+            if (random.nextBoolean()) {
+                assertEquals(!expected.get(index), actual.set(index));
+                expected.set(index);
+            } else {
+                assertEquals(expected.get(index), actual.clear(index));
+                expected.clear(index);
+            }
+            if (i % 500 == 0) {
+                assertSameBits(expected, actual, 1100);
+            }
+        }
+        assertSameBits(expected, actual, 1100);
+    }
+
+    /**
+     * The ranges start and end inside words and on their boundaries, and grow
+     * the set several times.
+     */
+    @Test
+    public void testSetRange() {
+        Random random = new Random(7);
+        BitSet expected = new BitSet();
+        RankSelectBitSet actual = new RankSelectBitSet();
+        int[] boundaries = { 0, 1, 63, 64, 65, 127, 128, 129, 191, 192 };
+        for (int from : boundaries) {
+            for (int to : boundaries) {
+                expected.clear();
+                actual.clear();
+                // An empty or reversed range sets nothing.
+                if (from < to) {
+                    expected.set(from, to);
+                }
+                actual.set(from, to);
+                assertSameBits(expected, actual, 260);
+            }
+        }
+        expected.clear();
+        actual.clear();
+        for (int i = 0; i < 200; ++i) {
+            int from = random.nextInt(3000);
+            int to = from + random.nextInt(300);
+            expected.set(from, to);
+            actual.set(from, to);
+            int index = random.nextInt(3300);
+            expected.clear(index);
+            actual.clear(index);
+        }
+        assertSameBits(expected, actual, 3400);
+    }
+
+    /**
+     * The tables are queried between changes made before, inside and after
+     * the part already up to date, with dense and sparse bits so that the
+     * samples fall in the same word or far apart.
+     */
+    @Test
+    public void testQueriesBetweenChanges() {
+        Random random = new Random(11);
+        BitSet expected = new BitSet();
+        RankSelectBitSet actual = new RankSelectBitSet();
+        expected.set(0, 2000);
+        actual.set(0, 2000);
+        for (int i = 0; i < 300; ++i) {
+            int index = random.nextInt(i < 150 ? 2000 : 20000);
+            if (random.nextBoolean()) {
+                expected.set(index);
+                actual.set(index);
+            } else {
+                expected.clear(index);
+                actual.clear(index);
+            }
+            int n = random.nextInt(expected.cardinality());
+            int bit = expected.nextSetBit(0);
+            for (int j = 0; j < n; ++j) {
+                bit = expected.nextSetBit(bit + 1);
+            }
+            assertEquals("select(" + n + ")", bit, actual.select(n));
+            assertEquals("rank(" + index + ")", expected.get(0, index).cardinality(), actual.rank(index));
+        }
+        assertSameBits(expected, actual, 20100);
+        // Only a few bits far apart are left.
+        expected.clear(0, 2000);
+        for (int i = 0; i < 2000; ++i) {
+            actual.clear(i);
+        }
+        assertSameBits(expected, actual, 20100);
+    }
+
+    /**
+     * Setting a far bit grows the set, and the bits already set must keep
+     * their rank.
+     */
+    @Test
+    public void testGrowth() {
+        BitSet expected = new BitSet();
+        RankSelectBitSet actual = new RankSelectBitSet();
+        for (int index = 1; index < 100000; index = index * 3 + 1) {
+            expected.set(index);
+            actual.set(index);
+            assertSameBits(expected, actual, index + 70);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.spreadsheet;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BeanGridTest {
+    @Rule public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    public static class Person {
+        private String name;
+        private Integer age;
+
+        public Person(String name, Integer age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+    }
+
+    private ObservableList<Person> persons;
+    private BeanGrid<Person> grid;
+
+    @Before
+    public void setUp() {
+        persons = FXCollections.observableArrayList(new Person("Jonathan", 30), //$NON-NLS-1$
+                new Person("Eugene", 40), new Person("Henri", 50)); //$NON-NLS-1$ //$NON-NLS-2$
+        grid = new BeanGrid<>(persons, Arrays.<BeanGrid.Column<Person, ?>>asList(
+                new BeanGrid.Column<Person, String>("Name", SpreadsheetCellType.STRING, Person::getName, Person::setName), //$NON-NLS-1$
+                BeanGrid.Column.forProperty(MethodHandles.lookup(), Person.class, "age", SpreadsheetCellType.INTEGER))); //$NON-NLS-1$
+    }
+
+    @Test public void testGetRows() {
+        assertEquals(3, grid.getRowCount());
+        assertEquals(2, grid.getColumnCount());
+        assertEquals(Arrays.asList("Name", "age"), grid.getColumnHeaders()); //$NON-NLS-1$ //$NON-NLS-2$
+
+        SpreadsheetCell cell = grid.getRows().get(1).get(0);
+        assertEquals("Eugene", cell.getItem()); //$NON-NLS-1$
+        assertEquals(1, cell.getRow());
+        assertEquals(0, cell.getColumn());
+        assertEquals(40, grid.getRows().get(1).get(1).getItem());
+        assertFalse(grid.isSpanSupported());
+    }
+
+    @Test public void testForProperty() {
+        BeanGrid.Column<Person, Integer> age = BeanGrid.Column.forProperty(MethodHandles.lookup(), Person.class,
+                "age", SpreadsheetCellType.INTEGER); //$NON-NLS-1$
+        assertFalse(age.isEditable());
+
+        BeanGrid.Column<Person, String> name = BeanGrid.Column.forProperty(MethodHandles.lookup(), Person.class,
+                "name", SpreadsheetCellType.STRING); //$NON-NLS-1$
+        assertTrue(name.isEditable());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForMissingProperty() {
+        BeanGrid.Column.forProperty(MethodHandles.lookup(), Person.class, "height", SpreadsheetCellType.DOUBLE); //$NON-NLS-1$
+    }
+
+    @Test public void testSetCellValue() {
+        List<GridChange> changes = new ArrayList<>();
+        grid.addEventHandler(GridChange.GRID_CHANGE_EVENT, changes::add);
+
+        SpreadsheetCell cell = grid.getRows().get(0).get(0);
+        grid.setCellValue(0, 0, "John"); //$NON-NLS-1$
+        assertEquals("John", persons.get(0).getName()); //$NON-NLS-1$
+        assertEquals("John", cell.getItem()); //$NON-NLS-1$
+        assertEquals(1, changes.size());
+        assertEquals("Jonathan", changes.get(0).getOldValue()); //$NON-NLS-1$
+        assertEquals("John", changes.get(0).getNewValue()); //$NON-NLS-1$
+
+        // The age column has no setter.
+        grid.setCellValue(0, 1, 31);
+        assertEquals(Integer.valueOf(30), persons.get(0).getAge());
+        assertEquals(1, changes.size());
+    }
+
+    @Test public void testItemsChanged() {
+        List<String> events = new ArrayList<>();
+        grid.getRows().addListener((ListChangeListener.Change<? extends ObservableList<SpreadsheetCell>> c) -> {
+            while (c.next()) {
+                events.add(c.getFrom() + ":" + c.getRemovedSize() + ":" + c.getAddedSize()); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        });
+
+        persons.add(1, new Person("Samir", 20)); //$NON-NLS-1$
+        assertEquals(4, grid.getRowCount());
+        assertEquals("Samir", grid.getRows().get(1).get(0).getItem()); //$NON-NLS-1$
+        // The following rows know their new index.
+        assertEquals(2, grid.getRows().get(2).get(0).getRow());
+        assertEquals("Eugene", grid.getRows().get(2).get(0).getItem()); //$NON-NLS-1$
+
+        persons.remove(0);
+        assertEquals("Samir", grid.getRows().get(0).get(0).getItem()); //$NON-NLS-1$
+        assertEquals(Arrays.asList("1:0:1", "0:1:0"), events); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Test public void testClear() {
+        List<ObservableList<SpreadsheetCell>> removed = new ArrayList<>();
+        grid.getRows().addListener((ListChangeListener.Change<? extends ObservableList<SpreadsheetCell>> c) -> {
+            while (c.next()) {
+                assertEquals(0, c.getFrom());
+                assertTrue(c.wasRemoved());
+                assertFalse(c.wasAdded());
+                removed.addAll(c.getRemoved());
+            }
+        });
+
+        persons.clear();
+        assertEquals(0, grid.getRowCount());
+        assertEquals(3, removed.size());
+        assertEquals("Henri", removed.get(2).get(0).getItem()); //$NON-NLS-1$
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSpanRow() {
+        grid.spanRow(2, 0, 0);
+    }
+}
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.util.converter.DefaultStringConverter;
 import org.controlsfx.control.spreadsheet.SpreadsheetView.SpanType;
 import org.junit.Before;
 import org.junit.Test;
@@ -229,4 +230,129 @@ public class GridBaseTest {
         assertEquals(cell, grid.getRows().get(0).get(1));
         assertEquals(cell, grid.getRows().get(0).get(2));
     }
+
+    /**
+     * Test of takeSnapshot method, of class GridBase.
+     */
+    @Test public void testTakeSnapshot() {
+        grid.setCellValue(0, 0, "first");
+        GridSnapshot first = grid.takeSnapshot();
+        assertEquals(grid.getRowCount(), first.getRowCount());
+        assertEquals(grid.getColumnCount(), first.getColumnCount());
+        assertEquals("first", first.getItem(0, 0));
+
+        grid.setCellValue(0, 0, "second");
+        GridSnapshot second = grid.takeSnapshot();
+        assertEquals("first", first.getItem(0, 0));
+        assertEquals("second", second.getItem(0, 0));
+
+        grid.spanColumn(3, 1, 0);
+        grid.setCellValue(1, 0, "span");
+        GridSnapshot third = grid.takeSnapshot();
+        assertEquals("span", third.getItem(1, 2));
+        assertEquals("", second.getItem(1, 2));
+    }
+
+    /**
+     * Test of takeSnapshot method when rows are added and removed after the
+     * storage was built.
+     */
+    @Test public void testTakeSnapshotAfterRowChanges() {
+        grid.setCellValue(14, 3, "last");
+        GridSnapshot first = grid.takeSnapshot();
+
+        ObservableList<SpreadsheetCell> appended = FXCollections.observableArrayList();
+        for (int column = 0; column < grid.getColumnCount(); ++column) {
+            appended.add(SpreadsheetCellType.STRING.createCell(15, column, 1, 1, "appended"));
+        }
+        grid.getRows().add(appended);
+        GridSnapshot second = grid.takeSnapshot();
+        assertEquals(15, first.getRowCount());
+        assertEquals(16, second.getRowCount());
+        assertEquals("last", second.getItem(14, 3));
+        assertEquals("appended", second.getItem(15, 3));
+
+        grid.getRows().remove(0);
+        GridSnapshot third = grid.takeSnapshot();
+        assertEquals(15, third.getRowCount());
+        assertEquals("last", third.getItem(13, 3));
+        assertEquals("appended", third.getItem(14, 3));
+        // The snapshots already taken are not affected.
+        assertEquals("last", first.getItem(14, 3));
+        assertEquals("last", second.getItem(14, 3));
+        assertEquals("appended", second.getItem(15, 3));
+    }
+
+    /**
+     * Test of setCellValue method with a dictionary-encoded StringType.
+     */
+    @Test public void testDictionaryEncodedValues() {
+        StringDictionary dictionary = new StringDictionary();
+        SpreadsheetCellType.StringType type = new SpreadsheetCellType.StringType(new DefaultStringConverter(), dictionary);
+        grid.getRows().get(0).set(0, type.createCell(0, 0, 1, 1, "status"));
+        grid.getRows().get(1).set(0, type.createCell(1, 0, 1, 1, null));
+
+        grid.setCellValue(1, 0, new String("status"));
+        assertSame(grid.getRows().get(0).get(0).getItem(), grid.getRows().get(1).get(0).getItem());
+        assertSame(grid.getRows().get(0).get(0).getText(), grid.getRows().get(1).get(0).getText());
+        assertEquals(1, dictionary.size());
+        assertEquals(0, dictionary.encode("status"));
+        assertEquals("status", dictionary.decode(0));
+        assertEquals(-1, dictionary.encode(null));
+
+        // Only the values stored in cells are interned.
+        assertEquals("other", type.toString("other"));
+        assertEquals(1, dictionary.size());
+    }
+
+    /**
+     * A dictionary shared by two types keeps the text of each converter.
+     */
+    @Test public void testSharedDictionary() {
+        StringDictionary dictionary = new StringDictionary();
+        SpreadsheetCellType.StringType lowerType = new SpreadsheetCellType.StringType(new DefaultStringConverter(), dictionary);
+        SpreadsheetCellType.StringType upperType = new SpreadsheetCellType.StringType(new DefaultStringConverter() {
+            @Override
+            public String toString(String value) {
+                return value == null ? "" : value.toUpperCase();
+            }
+        }, dictionary);
+        grid.getRows().get(0).set(0, lowerType.createCell(0, 0, 1, 1, "status"));
+        grid.getRows().get(1).set(0, upperType.createCell(1, 0, 1, 1, "status"));
+
+        assertEquals(1, dictionary.size());
+        assertEquals("status", grid.getRows().get(0).get(0).getText());
+        assertEquals("STATUS", grid.getRows().get(1).get(0).getText());
+        assertEquals("status", lowerType.toString("status"));
+    }
+
+    /**
+     * The text of a cell is only computed when it is read.
+     */
+    @Test public void testLazyText() {
+        final int[] conversions = new int[1];
+        SpreadsheetCellType.StringType type = new SpreadsheetCellType.StringType(new DefaultStringConverter() {
+            @Override
+            public String toString(String value) {
+                ++conversions[0];
+                return super.toString(value);
+            }
+        });
+        SpreadsheetCell cell = type.createCell(0, 0, 1, 1, "a");
+        cell.setItem("b");
+        cell.setItem("c");
+        assertEquals(0, conversions[0]);
+        assertEquals("c", cell.getText());
+        assertEquals("c", cell.getText());
+        assertEquals(1, conversions[0]);
+    }
+
+    /**
+     * Test of a ListType created without items.
+     */
+    @Test public void testListTypeWithoutItems() {
+        SpreadsheetCellType.ListType type = SpreadsheetCellType.LIST(null);
+        assertEquals(0, type.getDictionary().size());
+        assertNull(type.createCell(0, 0, 1, 1, "value").getItem());
+    }
 }
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.spreadsheet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.controlsfx.control.spreadsheet.GridExportTask.Format;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GridExportTaskTest {
+    @Rule public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+
+    private GridBase buildGrid(String[][] values) {
+        GridBase grid = new GridBase(values.length, values[0].length);
+        ObservableList<ObservableList<SpreadsheetCell>> rows = FXCollections.observableArrayList();
+        for (int row = 0; row < grid.getRowCount(); ++row) {
+            ObservableList<SpreadsheetCell> currentRow = FXCollections.observableArrayList();
+            for (int column = 0; column < grid.getColumnCount(); ++column) {
+                currentRow.add(SpreadsheetCellType.STRING.createCell(row, column, 1, 1, values[row][column]));
+            }
+            rows.add(currentRow);
+        }
+        grid.setRows(rows);
+        return grid;
+    }
+
+    private static String export(GridExportTask task, ByteArrayOutputStream output) throws IOException {
+        task.call();
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String export(Grid grid, Format format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GridExportTask task = new GridExportTask(grid, Channels.newChannel(output), format, true, StandardCharsets.UTF_8);
+        return export(task, output);
+    }
+
+    /**
+     * The values containing the separator, a quote or a line break are quoted.
+     */
+    @Test public void testQuoting() throws IOException {
+        GridBase grid = buildGrid(new String[][]{{"plain", "a,b", "say \"hi\"", "line\nbreak", "carriage\rreturn"}});
+        assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\"line\nbreak\",\"carriage\rreturn\"\r\n", export(grid, Format.CSV));
+    }
+
+    @Test public void testTsv() throws IOException {
+        GridBase grid = buildGrid(new String[][]{{"a,b", "c\td"}, {"", "e"}});
+        assertEquals("a,b\t\"c\td\"\r\n\te\r\n", export(grid, Format.TSV));
+    }
+
+    /**
+     * A span is written in its top left position only.
+     */
+    @Test public void testSpans() throws IOException {
+        GridBase grid = buildGrid(new String[][]{{"a", "b", "c"}, {"d", "e", "f"}, {"g", "h", "i"}});
+        grid.spanColumn(2, 0, 0);
+        grid.spanRow(2, 1, 2);
+        assertEquals("a,,c\r\nd,e,f\r\ng,h,\r\n", export(grid, Format.CSV));
+    }
+
+    /**
+     * A surrogate pair cut by the end of the 8K buffer is encoded as one
+     * character.
+     */
+    @Test public void testSurrogatePairOnBufferBoundary() throws IOException {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 8191; ++i) {
+            value.append('a');
+        }
+        value.append("\uD83D\uDE00");
+        GridBase grid = buildGrid(new String[][]{{value.toString(), "b"}});
+        assertEquals(value + ",b\r\n", export(grid, Format.CSV));
+    }
+
+    /**
+     * The items of a GridBase are read from the snapshot taken with the task,
+     * and formatted by the cell type.
+     */
+    @Test public void testSnapshot() throws IOException {
+        GridBase grid = new GridBase(2, 1);
+        ObservableList<ObservableList<SpreadsheetCell>> rows = FXCollections.observableArrayList();
+        for (int row = 0; row < grid.getRowCount(); ++row) {
+            rows.add(FXCollections.observableArrayList(SpreadsheetCellType.INTEGER.createCell(row, 0, 1, 1, row + 1)));
+        }
+        grid.setRows(rows);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GridExportTask task = new GridExportTask(grid, Channels.newChannel(output));
+        grid.setCellValue(0, 0, 42);
+        assertEquals("1\r\n2\r\n", export(task, output));
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2014, ControlsFX
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ *     * Neither the name of ControlsFX, any associated website, nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL CONTROLSFX BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.controlsfx.control.spreadsheet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class GridJournalTest {
+    @Rule public JavaFXThreadingRule javafxRule = new JavaFXThreadingRule();
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    /**
+     * Column 0 holds strings, column 1 holds doubles.
+     */
+    private GridBase buildGrid() {
+        GridBase grid = new GridBase(10, 2);
+        ObservableList<ObservableList<SpreadsheetCell>> rows = FXCollections.observableArrayList();
+        for (int row = 0; row < grid.getRowCount(); ++row) {
+            ObservableList<SpreadsheetCell> currentRow = FXCollections.observableArrayList();
+            currentRow.add(SpreadsheetCellType.STRING.createCell(row, 0, 1, 1, ""));
+            currentRow.add(SpreadsheetCellType.DOUBLE.createCell(row, 1, 1, 1, 0.0));
+            rows.add(currentRow);
+        }
+        grid.setRows(rows);
+        return grid;
+    }
+
+    private GridBase recover() throws IOException {
+        GridBase grid = buildGrid();
+        try (GridJournal journal = new GridJournal(grid, directory)) {
+            journal.recover();
+        }
+        return grid;
+    }
+
+    private static Object getItem(GridBase grid, int row, int column) {
+        return grid.getRows().get(row).get(column).getItem();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("journal").toPath(); //$NON-NLS-1$
+    }
+
+    @Test public void testRecoverLog() throws IOException {
+        GridBase grid = buildGrid();
+        try (GridJournal journal = new GridJournal(grid, directory)) {
+            journal.start();
+            grid.setCellValue(0, 0, "first"); //$NON-NLS-1$
+            grid.setCellValue(0, 0, "second"); //$NON-NLS-1$
+            grid.setCellValue(3, 1, 4.5);
+            grid.setCellValue(5, 0, "\u00e9t\u00e9"); //$NON-NLS-1$
+        }
+
+        GridBase recovered = recover();
+        assertEquals("second", getItem(recovered, 0, 0)); //$NON-NLS-1$
+        assertEquals(4.5, getItem(recovered, 3, 1));
+        assertEquals("\u00e9t\u00e9", getItem(recovered, 5, 0)); //$NON-NLS-1$
+        assertEquals("", getItem(recovered, 1, 0)); //$NON-NLS-1$
+    }
+
+    @Test public void testRecoverLongString() throws IOException {
+        // Larger than what writeUTF accepts.
+        char[] chars = new char[70_000];
+        Arrays.fill(chars, '\u00e9');
+        String value = new String(chars);
+
+        GridBase grid = buildGrid();
+        try (GridJournal journal = new GridJournal(grid, directory)) {
+            journal.start();
+            grid.setCellValue(2, 0, value);
+            grid.setCellValue(2, 1, 1.0);
+        }
+
+        GridBase recovered = recover();
+        assertEquals(value, getItem(recovered, 2, 0));
+        assertEquals(1.0, getItem(recovered, 2, 1));
+    }
+
+    @Test public void testRecoverCheckpointAndLog() throws IOException {
+        GridBase grid = buildGrid();
+        try (GridJournal journal = new GridJournal(grid, directory)) {
+            journal.start();
+            grid.setCellValue(0, 0, "before"); //$NON-NLS-1$
+            grid.setCellValue(1, 1, 2.0);
+            journal.checkpoint();
+            grid.setCellValue(0, 0, "after"); //$NON-NLS-1$
+            grid.setCellValue(9, 1, 3.0);
+        }
+
+        GridBase recovered = recover();
+        assertEquals("after", getItem(recovered, 0, 0)); //$NON-NLS-1$
+        assertEquals(2.0, getItem(recovered, 1, 1));
+        assertEquals(3.0, getItem(recovered, 9, 1));
+    }
+
+    @Test public void testCompaction() throws IOException {
+        GridBase grid = buildGrid();
+        try (GridJournal journal = new GridJournal(grid, directory)) {
+            journal.setCompactionThreshold(3);
+            journal.start();
+            for (int row = 0; row < grid.getRowCount(); ++row) {
+                grid.setCellValue(row, 1, (double) row);
+            }
+        }
+
+        GridBase recovered = recover();
+        for (int row = 0; row < grid.getRowCount(); ++row) {
+            assertEquals((double) row, getItem(recovered, row, 1));
+        }
+    }
+}
@@ -27,15 +27,27 @@
 
 package org.controlsfx.control.spreadsheet;
 
+import com.sun.javafx.tk.Toolkit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.event.Event;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.control.Control;
 import javafx.scene.control.TablePosition;
+import javafx.scene.control.TableView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.util.Duration;
 import org.controlsfx.control.spreadsheet.SpreadsheetView.SpanType;
 import org.junit.Assert;
 import org.junit.Before;
@@ -404,4 +416,306 @@ public class SpreadsheetViewTest {
         assertEquals(type, spv.getSpanType(grid.getRowCount(), grid.getColumnCount()));
         
     }
+
+    /**
+     * Collapse nested groups of rows and verify the translation between the
+     * rows displayed and the rows of the Grid.
+     */
+    @Test public void testCollapseRows() {
+        System.out.println("collapseRows");
+        spv.setGrid(buildGrid());
+        ObservableList<ObservableList<SpreadsheetCell>> items = spv.getSelectionModel().getTableView().getItems();
+
+        spv.collapseRows(2, 10);
+        spv.collapseRows(4, 6);
+        assertEquals(7, items.size());
+        assertTrue(spv.isRowHidden(5));
+        assertEquals(10, spv.getModelRow(2));
+        assertEquals(-1, spv.getViewRow(4));
+        assertEquals(3, spv.getViewRow(11));
+        assertSame(spv.getGrid().getRows().get(10), items.get(2));
+
+        spv.expandRows(2, 10);
+        assertEquals(13, items.size());
+        assertTrue(spv.isRowHidden(5));
+        assertFalse(spv.isRowHidden(6));
+        assertEquals(6, spv.getModelRow(4));
+
+        spv.expandRows(4, 6);
+        assertEquals(15, items.size());
+        assertEquals(5, spv.getViewRow(5));
+
+        //A fixed row cannot be collapsed.
+        spv.getFixedRows().add(3);
+        try {
+            spv.collapseRows(2, 4);
+            fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    /**
+     * A malformed Grid is only rejected when it is verified.
+     */
+    @Test public void testGridValidation() {
+        System.out.println("gridValidation");
+        GridBase grid = buildMalformedGrid();
+
+        spv.setGrid(grid);
+        assertSame(grid, spv.getGrid());
+
+        spv.setGridValidation(SpreadsheetView.GridValidation.IMMEDIATE);
+        try {
+            spv.setGrid(grid);
+            fail();
+        } catch (IllegalStateException ex) {
+            assertTrue(ex.getMessage().contains("At row 2 and column 0"));
+        }
+    }
+
+    /**
+     * A malformed Grid verified in the background is displayed, and its error
+     * is reported on the JavaFX Application Thread.
+     */
+    @Test public void testParallelGridValidation() {
+        System.out.println("parallelGridValidation");
+        GridBase grid = buildMalformedGrid();
+
+        spv.setGridValidation(SpreadsheetView.GridValidation.PARALLEL);
+        spv.setGrid(grid);
+        assertSame(grid, spv.getGrid());
+
+        IllegalStateException error = waitForGridValidationError();
+        assertNotNull(error);
+        assertTrue(error.getMessage().contains("At row 2 and column 0"));
+
+        //A new Grid forgets the error.
+        spv.setGrid(buildGrid());
+        assertNull(spv.getGridValidationError());
+    }
+
+    /**
+     * A malformed row verified lazily is reported once it has been displayed.
+     */
+    @Test public void testLazyGridValidation() {
+        System.out.println("lazyGridValidation");
+        GridBase grid = buildMalformedGrid();
+
+        spv.setGridValidation(SpreadsheetView.GridValidation.LAZY);
+        spv.setGrid(grid);
+        assertNull(spv.getGridValidationError());
+
+        new Scene(spv, 800, 600);
+        spv.applyCss();
+        spv.layout();
+
+        IllegalStateException error = waitForGridValidationError();
+        assertNotNull(error);
+        assertTrue(error.getMessage().contains("At row 2 and column 0"));
+    }
+
+    /**
+     * Column 0 is filled on rows 2 to 4 and 8, row 0 on columns 3 to 5. The
+     * cell (10, 1) spans over 3 rows and is followed by the filled cell
+     * (14, 1).
+     */
+    private GridBase buildNavigationGrid() {
+        GridBase grid = buildGrid();
+        for (int row : new int[]{2, 3, 4, 8}) {
+            grid.setCellValue(row, 0, "x");
+        }
+        for (int column = 3; column <= 5; ++column) {
+            grid.setCellValue(0, column, "x");
+        }
+        grid.setCellValue(10, 1, "span");
+        grid.spanRow(3, 10, 1);
+        grid.setCellValue(14, 1, "x");
+        return grid;
+    }
+
+    private void focus(int row, int column) {
+        TableView<ObservableList<SpreadsheetCell>> tableView = spv.getSelectionModel().getTableView();
+        tableView.getFocusModel().focus(row, tableView.getColumns().get(column));
+    }
+
+    /**
+     * Press the key with the shortcut key down.
+     *
+     * @return the focused position afterwards, as "row,column".
+     */
+    private String jump(KeyCode code, boolean shift) {
+        TableView<ObservableList<SpreadsheetCell>> tableView = spv.getSelectionModel().getTableView();
+        Event.fireEvent(tableView, new KeyEvent(KeyEvent.KEY_PRESSED, "", "", code, shift, true, false, true));
+        TablePosition<?, ?> position = tableView.getFocusModel().getFocusedCell();
+        return position.getRow() + "," + position.getColumn();
+    }
+
+    /**
+     * The shortcut key with an arrow goes to the end of a block, to the next
+     * filled cell after a gap, or to the edge of the Grid.
+     */
+    @Test public void testJumpBlocksAndGaps() {
+        System.out.println("jumpBlocksAndGaps");
+        spv.setGrid(buildNavigationGrid());
+
+        focus(0, 0);
+        assertEquals("2,0", jump(KeyCode.DOWN, false));
+        assertEquals("4,0", jump(KeyCode.DOWN, false));
+        assertEquals("8,0", jump(KeyCode.DOWN, false));
+        assertEquals("14,0", jump(KeyCode.DOWN, false));
+        assertEquals("8,0", jump(KeyCode.UP, false));
+        assertEquals("4,0", jump(KeyCode.UP, false));
+        assertEquals("2,0", jump(KeyCode.UP, false));
+        assertEquals("0,0", jump(KeyCode.UP, false));
+
+        assertEquals("0,3", jump(KeyCode.RIGHT, false));
+        assertEquals("0,5", jump(KeyCode.RIGHT, false));
+        assertEquals("0,14", jump(KeyCode.RIGHT, false));
+        assertEquals("0,5", jump(KeyCode.LEFT, false));
+        assertEquals("0,3", jump(KeyCode.LEFT, false));
+        assertEquals("0,0", jump(KeyCode.LEFT, false));
+    }
+
+    /**
+     * Only the origin of a span is filled, the rows it covers are skipped.
+     */
+    @Test public void testJumpSpan() {
+        System.out.println("jumpSpan");
+        spv.setGrid(buildNavigationGrid());
+
+        focus(0, 1);
+        assertEquals("10,1", jump(KeyCode.DOWN, false));
+        assertEquals("14,1", jump(KeyCode.DOWN, false));
+        assertEquals("10,1", jump(KeyCode.UP, false));
+    }
+
+    /**
+     * The filled cells of collapsed rows are skipped.
+     */
+    @Test public void testJumpCollapsedRows() {
+        System.out.println("jumpCollapsedRows");
+        spv.setGrid(buildNavigationGrid());
+        spv.collapseRows(7, 10);
+
+        focus(4, 0);
+        assertEquals("11,0", jump(KeyCode.DOWN, false));
+        assertEquals("4,0", jump(KeyCode.UP, false));
+    }
+
+    /**
+     * The shortcut key with Home and End goes to the first cell and to the
+     * last row and column containing data. With shift the selection is
+     * extended.
+     */
+    @Test public void testJumpHomeEnd() {
+        System.out.println("jumpHomeEnd");
+        spv.setGrid(buildNavigationGrid());
+
+        focus(6, 6);
+        assertEquals("14,5", jump(KeyCode.END, false));
+        assertEquals("0,0", jump(KeyCode.HOME, false));
+
+        assertEquals("2,0", jump(KeyCode.DOWN, true));
+        assertEquals(3, spv.getSelectionModel().getSelectedCells().size());
+    }
+
+    /**
+     * The index of a column follows the values changed in the Grid and the
+     * cells replaced in a row.
+     */
+    @Test public void testJumpAfterChanges() {
+        System.out.println("jumpAfterChanges");
+        GridBase grid = buildNavigationGrid();
+        spv.setGrid(grid);
+
+        focus(0, 2);
+        assertEquals("14,2", jump(KeyCode.DOWN, false));
+
+        grid.getRows().get(6).set(2, SpreadsheetCellType.STRING.createCell(6, 2, 1, 1, "new"));
+        focus(0, 2);
+        assertEquals("6,2", jump(KeyCode.DOWN, false));
+
+        grid.setCellValue(9, 2, "x");
+        assertEquals("9,2", jump(KeyCode.DOWN, false));
+    }
+
+    /**
+     * The built-in editors are shared by the SpreadsheetViews of a Scene, and
+     * forget a SpreadsheetView leaving the Scene.
+     */
+    @Test public void testSharedEditors() {
+        System.out.println("sharedEditors");
+        SpreadsheetView other = new SpreadsheetView();
+        Group root = new Group(spv, other);
+        new Scene(root);
+
+        SpreadsheetCellEditor editor = spv.getEditor(SpreadsheetCellType.STRING).get();
+        assertSame(editor, other.getEditor(SpreadsheetCellType.STRING).get());
+        assertSame(other, editor.view);
+
+        root.getChildren().remove(other);
+        assertNull(editor.view);
+        assertSame(editor, spv.getEditor(SpreadsheetCellType.STRING).get());
+        assertSame(spv, editor.view);
+
+        //A SpreadsheetView outside the Scene has its own editor.
+        assertNotSame(editor, other.getEditor(SpreadsheetCellType.STRING).get());
+    }
+
+    /**
+     * The editors of the first rows are prewarmed when the SpreadsheetView is
+     * added to a Scene. Their skin is created without adding them to the
+     * SpreadsheetView.
+     */
+    @Test public void testPrewarmEditors() {
+        System.out.println("prewarmEditors");
+        spv.setGrid(buildGrid());
+        new Scene(new Group(spv));
+        runPendingRunnables();
+
+        Control control = spv.getEditor(SpreadsheetCellType.STRING).get().getEditor();
+        assertNotNull(control.getSkin());
+        assertNull(control.getParent());
+        assertFalse(spv.getChildrenUnmodifiable().contains(control));
+    }
+
+    /**
+     * Run the runnables already given to Platform.runLater in a nested loop.
+     */
+    private static void runPendingRunnables() {
+        final Object key = new Object();
+        Platform.runLater(() -> Toolkit.getToolkit().exitNestedEventLoop(key, null));
+        Toolkit.getToolkit().enterNestedEventLoop(key);
+    }
+
+    /**
+     * A Grid whose row 2 has a different cell inside a column span.
+     */
+    private GridBase buildMalformedGrid() {
+        GridBase grid = buildGrid();
+        grid.spanColumn(3, 2, 0);
+        grid.getRows().get(2).set(1, SpreadsheetCellType.STRING.createCell(2, 1, 1, 1, ""));
+        return grid;
+    }
+
+    /**
+     * The errors are reported with Platform.runLater, so the events are
+     * processed in a nested loop until one is reported, for 10 seconds at
+     * most.
+     */
+    private IllegalStateException waitForGridValidationError() {
+        if (spv.getGridValidationError() == null) {
+            final Object key = new Object();
+            final ChangeListener<IllegalStateException> listener
+                    = (observable, oldError, newError) -> Toolkit.getToolkit().exitNestedEventLoop(key, null);
+            final PauseTransition timeout = new PauseTransition(Duration.seconds(10));
+            timeout.setOnFinished(event -> Toolkit.getToolkit().exitNestedEventLoop(key, null));
+            spv.gridValidationErrorProperty().addListener(listener);
+            timeout.play();
+            Toolkit.getToolkit().enterNestedEventLoop(key);
+            timeout.stop();
+            spv.gridValidationErrorProperty().removeListener(listener);
+        }
+        return spv.getGridValidationError();
+    }
 }